@@ -2,8 +2,10 @@ package com.techelevator;
 
 import com.techelevator.utils.BasicConsole;
 import com.techelevator.utils.SystemInOutConsole;
+import com.techelevator.utils.TaskExecutor;
 
-import java.util.Optional;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
 
 /**
  * Application is the class that launches the TErdle application.
@@ -13,17 +15,25 @@ import java.util.Optional;
  */
 public class Application {
 
-    // For communication with the server REST API
-    private static final String API_BASE_URL =
-            Optional.ofNullable(System.getenv("API_BASE_URL")).orElse("http://localhost:9000/");
-
     public static void main(String[] args) {
 
+        // The settings for the application, including the base url for communication with the server REST API
+        ApplicationConfig config = new ApplicationConfig();
+
+        // Set up the executor shared by the whole application once, before anything submits work to it
+        TaskExecutor.configure(config.getExecutor(), config.getExecutorThreads(), config.getExecutorQueue());
+
+        // With arguments, run them as a command and print the results as JSON Lines instead of showing the menus
+        if (args.length > 0) {
+            CommandRunner runner = new CommandRunner(config, new BufferedReader(new InputStreamReader(System.in)), System.out);
+            System.exit(runner.run(args));
+        }
+
         // Create the basic i/o mechanism (the console)
         BasicConsole systemInOutConsole = new SystemInOutConsole();
 
         // The controller manages the program flow. Create a controller and call its run() method to start the menu loop.
-        ApplicationController controller = new ApplicationController(systemInOutConsole, API_BASE_URL);
+        ApplicationController controller = new ApplicationController(systemInOutConsole, config);
         controller.run();
     }
 }
@@ -0,0 +1,251 @@
+package com.techelevator;
+
+import com.techelevator.utils.BasicLogger;
+import com.techelevator.utils.TaskExecutor;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * ApplicationConfig holds the settings used to configure the TErdle client.
+ *
+ * Each setting is read from an environment variable and falls back to a default value when the
+ * variable is not set, so the application can be reconfigured without code changes.
+ */
+public class ApplicationConfig {
+
+    private final Map<String, String> environment;
+
+    /**
+     * Constructor - reads the settings from the system environment.
+     */
+    public ApplicationConfig() {
+        this(System.getenv());
+    }
+
+    /**
+     * Constructor - reads the settings from the given map of variables. This is useful for testing.
+     *
+     * @param environment the variables to read the settings from
+     */
+    public ApplicationConfig(Map<String, String> environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * @return the base url for communication with the server REST API
+     */
+    public String getApiBaseUrl() {
+        return getString("API_BASE_URL", "http://localhost:9000/");
+    }
+
+    /**
+     * @return the name of the transport used to send requests to the server: resttemplate or httpclient
+     */
+    public String getTransport() {
+        return getString("TRANSPORT", "resttemplate");
+    }
+
+    /**
+     * @return the file to record every exchange with the server to, or null to not record
+     */
+    public Path getRecordFile() {
+        String file = getString("RECORD_FILE", null);
+        return file == null ? null : Path.of(file);
+    }
+
+    /**
+     * @return the recording to serve responses from instead of the server, or null to use the server
+     */
+    public Path getReplayFile() {
+        String file = getString("REPLAY_FILE", null);
+        return file == null ? null : Path.of(file);
+    }
+
+    /**
+     * @return the factor applied to recorded response times when replaying: REPLAY_TIMING is "recorded" (1),
+     *         "zero" (0), or a number to scale by
+     */
+    public double getReplayTimeScale() {
+        String timing = getString("REPLAY_TIMING", "recorded");
+        if (timing.equalsIgnoreCase("recorded")) {
+            return 1.0;
+        }
+        if (timing.equalsIgnoreCase("zero")) {
+            return 0.0;
+        }
+        try {
+            return Math.max(0.0, Double.parseDouble(timing));
+        } catch (NumberFormatException e) {
+            BasicLogger.log(String.format("Invalid value '%s' for REPLAY_TIMING, using recorded.", timing));
+            return 1.0;
+        }
+    }
+
+    /**
+     * @return true to ask the server for compressed responses
+     */
+    public boolean isGzipEnabled() {
+        return !"false".equalsIgnoreCase(getString("GZIP", "true"));
+    }
+
+    /**
+     * @return the smallest request body to compress, in bytes; 0 to never compress request bodies
+     */
+    public int getGzipRequestMinBytes() {
+        return (int) getLong("GZIP_REQUEST_MIN_BYTES", 0);
+    }
+
+    /**
+     * @return the file to keep the logged-in session in between runs, or null to log in on every run
+     */
+    public Path getSessionFile() {
+        String file = getString("SESSION_FILE", null);
+        return file == null ? null : Path.of(file);
+    }
+
+    /**
+     * @return the username to log in with when commands are run without menus, or null if not set
+     */
+    public String getUsername() {
+        return getString("TERDLE_USERNAME", null);
+    }
+
+    /**
+     * @return the password to log in with when commands are run without menus, or null if not set
+     */
+    public String getPassword() {
+        return getString("TERDLE_PASSWORD", null);
+    }
+
+    /**
+     * @return true to warm up the connection to the server while the user is logging in
+     */
+    public boolean isWarmUpEnabled() {
+        return !"false".equalsIgnoreCase(getString("WARM_UP", "true"));
+    }
+
+    /**
+     * @return true to start in hard mode, where every guess must use the hints revealed so far
+     */
+    public boolean isHardModeEnabled() {
+        return "true".equalsIgnoreCase(getString("HARD_MODE", "false"));
+    }
+
+    /**
+     * @return true to trace what the client does from the start, rather than only once turned on from the Admin Menu
+     */
+    public boolean isTraceEnabled() {
+        return "true".equalsIgnoreCase(getString("TRACE", "false"));
+    }
+
+    /**
+     * @return the file containing the list of words used for hints, one word per line, or null to use the word
+     *         list that ships with the client
+     */
+    public Path getWordListFile() {
+        String file = getString("WORD_LIST_FILE", null);
+        return file == null ? null : Path.of(file);
+    }
+
+    /**
+     * @return the file holding the precomputed patterns for the word list; built on first use
+     */
+    public Path getPatternMatrixFile() {
+        return Path.of(getString("PATTERN_MATRIX_FILE", "patterns.bin"));
+    }
+
+    /**
+     * @return the maximum time to spend scoring guesses when a hint is requested
+     */
+    public Duration getHintBudget() {
+        return Duration.ofMillis(getLong("HINT_BUDGET_MILLIS", 500));
+    }
+
+
+    /**
+     * @return how background and concurrent tasks are run: "virtual" for a virtual thread per task where the JDK
+     * has them, otherwise "pool" for a bounded pool of threads
+     */
+    public String getExecutor() {
+        return getString("EXECUTOR", TaskExecutor.VIRTUAL);
+    }
+
+    /**
+     * @return the maximum number of threads in the task pool
+     */
+    public int getExecutorThreads() {
+        return (int) getLong("EXECUTOR_THREADS", TaskExecutor.DEFAULT_MAX_THREADS);
+    }
+
+    /**
+     * @return the maximum number of tasks waiting for a thread in the task pool
+     */
+    public int getExecutorQueue() {
+        return (int) getLong("EXECUTOR_QUEUE", TaskExecutor.DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @return true to keep today's game and the user's history fresh in the background while logged in
+     */
+    public boolean isSyncEnabled() {
+        return !"false".equalsIgnoreCase(getString("SYNC", "true"));
+    }
+
+    /**
+     * @return the longest time to put off refreshing today's game after midnight
+     */
+    public Duration getSyncJitter() {
+        return Duration.ofSeconds(getLong("SYNC_JITTER_SECONDS", 120));
+    }
+
+    /**
+     * @return how long the user must be idle before their history is synced in the background
+     */
+    public Duration getSyncIdleTime() {
+        return Duration.ofSeconds(getLong("SYNC_IDLE_SECONDS", 30));
+    }
+
+    /**
+     * @return the maximum number of requests in flight at once for bulk admin operations
+     */
+    public int getBulkMaxInFlight() {
+        return (int) getLong("BULK_MAX_IN_FLIGHT", 8);
+    }
+
+    /**
+     * @return the maximum number of requests started per second for bulk admin operations; 0 for no limit
+     */
+    public long getBulkRequestsPerSecond() {
+        return getLong("BULK_REQUESTS_PER_SECOND", 50);
+    }
+
+    /**
+     * @return the number of days, including today, whose log files are left uncompressed; 0 to never compress them
+     */
+    public int getLogArchiveDays() {
+        return (int) getLong("LOG_ARCHIVE_DAYS", 7);
+    }
+
+
+    // ***** Helper Methods ***************************************************
+
+    private String getString(String name, String defaultValue) {
+        String value = environment.get(name);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    private long getLong(String name, long defaultValue) {
+        String value = getString(name, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            BasicLogger.log(String.format("Invalid value '%s' for %s, using %d.", value, name, defaultValue));
+            return defaultValue;
+        }
+    }
+}
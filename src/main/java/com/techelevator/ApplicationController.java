@@ -1,13 +1,50 @@
 package com.techelevator;
 
+import com.techelevator.logs.LogArchiver;
+import com.techelevator.logs.LogSearch;
 import com.techelevator.model.*;
 import com.techelevator.services.AuthenticationService;
+import com.techelevator.services.CoalescingTransport;
+import com.techelevator.services.CompressingTransport;
+import com.techelevator.services.GameCatalogReport;
+import com.techelevator.services.GameImporter;
+import com.techelevator.services.GameMaintenance;
 import com.techelevator.services.GameService;
+import com.techelevator.services.HttpTransport;
+import com.techelevator.services.RecordingTransport;
+import com.techelevator.services.ReplayTransport;
+import com.techelevator.services.SessionCache;
+import com.techelevator.services.SyncDaemon;
+import com.techelevator.services.TransportException;
+import com.techelevator.solver.CandidateFilter;
+import com.techelevator.solver.CandidateStrategy;
+import com.techelevator.solver.EntropyStrategy;
+import com.techelevator.solver.GuessStrategy;
+import com.techelevator.solver.HintEngine;
+import com.techelevator.solver.PatternMatrix;
+import com.techelevator.solver.SelfPlayBenchmark;
+import com.techelevator.stats.GameStats;
+import com.techelevator.stats.HistoryIndex;
+import com.techelevator.stats.HistorySource;
+import com.techelevator.solver.WordList;
 import com.techelevator.utils.*;
 import io.github.tbeerbower.TextEffect;
 import io.github.tbeerbower.TextGrid;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
 
 /**
  * AdminController controls the application flow and manages all of its operations through a series of menus.
@@ -28,23 +65,58 @@ public class ApplicationController {
     private static final String ADMIN_MENU_NAME = "AdminMenu";
     private static final String LOGIN_MENU_NAME = "LoginMenu";
 
+    // Entered at the guess prompt to ask for a hint
+    private static final String HINT_REQUEST = "?";
+    private static final int MAX_HINTS = 5;
+
+    // The number of boards that can be played at once, and how many times to ask for games until there are
+    // that many different ones
+    private static final int MIN_BOARDS = 2;
+    private static final int MAX_BOARDS = 8;
+    private static final int BOARD_REQUEST_ROUNDS = 3;
+
+    // Number of games read from the server before they are aggregated for the catalog report
+    private static final int CATALOG_BATCH_SIZE = 4096;
+
+    // Number of games on each page of the game history
+    private static final int HISTORY_PAGE_SIZE = 10;
+
+    // The directory BasicLogger writes the daily log files to
+    private static final Path LOG_DIRECTORY = BasicLogger.DIRECTORY;
+    private static final int LOG_SEARCH_LIMIT = 100;
+
+    // Trace files are written to the logs directory, named for the time tracing started
+    private static final DateTimeFormatter TRACE_FILE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH-mm-ss");
+
     private static final MenuSystem.Menu<ApplicationController> MAIN_MENU =
             new MenuSystem.Builder<ApplicationController>().
             addItem("Play Daily Game", ApplicationController::playDailyGame).
             addItem("Play Random Game", ApplicationController::playRandomGame).
+            addItem("Play Multiple Boards", ApplicationController::playMultipleBoards).
             addItem("Show Game Statistics", ApplicationController::showUserGameStats).
+            addItem("Turn Hard Mode On or Off", ApplicationController::toggleHardMode).
             addItem("Log Out", ApplicationController::logOut).
             getMenu(MAIN_MENU_NAME, "Main Menu");
     private static final MenuSystem.Menu<ApplicationController> ADMIN_MAIN_MENU =
             new MenuSystem.Builder<ApplicationController>().
             addItem("Play Daily Game", ApplicationController::playDailyGame).
             addItem("Play Random Game", ApplicationController::playRandomGame).
+            addItem("Play Multiple Boards", ApplicationController::playMultipleBoards).
             addItem("Show Game Statistics", ApplicationController::showUserGameStats).
+            addItem("Turn Hard Mode On or Off", ApplicationController::toggleHardMode).
             addItem("Admin Menu", ApplicationController::gotoAdminMenu).
             addItem("Log Out", ApplicationController::logOut).
             getMenu(ADMIN_MAIN_MENU_NAME, "Main Menu");
     private static final MenuSystem.Menu<ApplicationController> ADMIN_MENU =
             new MenuSystem.Builder<ApplicationController>().
+            addItem("Game Catalog Report", ApplicationController::showGameCatalogReport).
+            addItem("Import Games", ApplicationController::importGames).
+            addItem("Change Type of Games", ApplicationController::changeTypeOfGames).
+            addItem("Delete Games", ApplicationController::deleteGames).
+            addItem("Run Solver Benchmark", ApplicationController::runSolverBenchmark).
+            addItem("Show Client Metrics", ApplicationController::showClientMetrics).
+            addItem("Start or Stop Tracing", ApplicationController::toggleTracing).
+            addItem("Search Logs", ApplicationController::searchLogs).
             addItem("Return to Main Menu", ApplicationController::exit).
             getMenu(ADMIN_MENU_NAME, "Admin Menu");
     private static final MenuSystem.Menu<ApplicationController> LOGIN_MENU =
@@ -56,30 +128,66 @@ public class ApplicationController {
     private static final List<MenuSystem.Menu<ApplicationController>> MENUS =
             List.of(LOGIN_MENU, MAIN_MENU, ADMIN_MAIN_MENU, ADMIN_MENU);
 
-    // Service classes for communication to the REST API
-    private final AuthenticationService authService;
-    private final GameService gameService;
+    // Service classes for communication to the REST API; each is created when first needed, or ahead of time on a
+    // background thread once the welcome message is shown
+    private final Lazy<HttpTransport> transport;
+    private final Lazy<AuthenticationService> authService;
+    private final Lazy<GameService> gameService;
 
     // The view manages all the user interaction, inputs and outputs.
     private final ApplicationView view;
 
+    private final ApplicationConfig config;
+
+    // Suggests guesses and counts the words remaining; loaded in the background when the first game starts.
+    // Completes with null if there is no word list.
+    private CompletableFuture<HintEngine> hintEngine;
+
+    // In hard mode every guess in a single game must use the hints revealed so far
+    private boolean hardMode;
+
     // The currently logged-in user, or null if no login
     private AuthenticatedUser currentUser;
 
+    // Keeps the session between runs; null if sessions are not kept. Created after the welcome message is shown.
+    private SessionCache sessionCache;
+
+    // Warms up the connection to the server while the user logs in; null until started
+    private CompletableFuture<Void> warmUp;
+
+    // Set from the session cache's background thread when the current session is about to expire
+    private volatile boolean sessionExpired;
+
+    // The statistics for the current user's games; built when first needed, or from the history synced in the
+    // background
+    private HistoryIndex historyIndex;
+
+    // Keeps today's game and the user's history fresh in the background while a user is logged in; null if
+    // syncing is off or no one is logged in
+    private SyncDaemon syncDaemon;
+
     private final MenuSystem<ApplicationController> menuSystem;
 
+    // When the controller was created and when the first menu was shown, for the startup time in the log
+    private final long createdNanos = System.nanoTime();
+    private long firstPromptNanos;
+
     /**
      * Constructor - creates instances of the view and service classes. Dependencies are passed in
      * from the main Application class.
      *
-     * @param console    - a class that implements BasicConsole to pass to the AdminView
-     * @param apiBaseUrl - the base url for communication with the server
+     * @param console - a class that implements BasicConsole to pass to the AdminView
+     * @param config  - the application settings, including the base url for communication with the server
      */
-    public ApplicationController(BasicConsole console, String apiBaseUrl) {
+    public ApplicationController(BasicConsole console, ApplicationConfig config) {
+        this.config = config;
+        hardMode = config.isHardModeEnabled();
         view = new ApplicationView(console);
-        authService = new AuthenticationService(apiBaseUrl);
-        gameService = new GameService(apiBaseUrl);
+        transport = new Lazy<>(() -> new CoalescingTransport(createTransport(config)));
+        authService = new Lazy<>(() -> new AuthenticationService(config.getApiBaseUrl(), transport.get()));
+        gameService = new Lazy<>(() -> new GameService(config.getApiBaseUrl(), transport.get()));
         menuSystem = new MenuSystem<>(this, console, MENUS, LOGIN_MENU_NAME);
+        menuSystem.setBeforeDisplay(ApplicationController::beforeMenuDisplay);
     }
 
     /**
@@ -88,7 +196,18 @@ public class ApplicationController {
      */
     public void run() {
         try {
+            if (config.isTraceEnabled()) {
+                startTracing();
+            }
+            if (config.getLogArchiveDays() > 0) {
+                new LogArchiver(LOG_DIRECTORY, config.getLogArchiveDays()).start();
+            }
             view.displayWelcomeMessage();
+            gameService.preload();
+            restoreSession();
+            if (currentUser == null) {
+                warmUp();
+            }
             menuSystem.run();
         } catch (Exception e) {
             /*
@@ -98,6 +217,8 @@ public class ApplicationController {
              */
             view.displayErrorMessage("An unexpected error has occurred. See the log file for details.");
             BasicLogger.log(e);
+        } finally {
+            Tracer.stop();
         }
     }
 
@@ -113,7 +234,10 @@ public class ApplicationController {
         UserCredentials credentials = view.promptForCredentials();
 
         // Use the service to handle communication with the server
-        currentUser = authService.login(credentials);
+        long start = System.nanoTime();
+        currentUser = authService.get().login(credentials);
+        BasicLogger.log(String.format("Login request took %d ms (%s)", (System.nanoTime() - start) / 1_000_000,
+                warmUp != null && warmUp.isDone() ? "after warm-up" : "no warm-up"));
 
         // Check for successful login (user is not null) AND admin user role (also known as an authority)
         // Note that the view is also used to give feedback to the user
@@ -121,29 +245,185 @@ public class ApplicationController {
             view.displayErrorMessage("Login failed.");
         } else {
             view.displaySuccessMessage("Login successful.");
-            gameService.setAuthToken(currentUser.getToken());
-            menuSystem.makeMenuCurrent(currentUser.getUser().isAdmin() ? ADMIN_MAIN_MENU_NAME : MAIN_MENU_NAME);
+            if (sessionCache != null) {
+                sessionCache.save(currentUser);
+            }
+            startSession();
+        }
+    }
+
+    /**
+     * Creates the configured transport: a replay of a recording, or the named transport, which may be compressing
+     * what it sends and receives and recording its exchanges. Exchanges are recorded uncompressed.
+     */
+    static HttpTransport createTransport(ApplicationConfig config) {
+        if (config.getReplayFile() != null) {
+            try {
+                return ReplayTransport.load(config.getReplayFile(), config.getReplayTimeScale());
+            } catch (IOException e) {
+                BasicLogger.log("The recording could not be read, using the server: " + e.getMessage());
+            }
+        }
+        HttpTransport transport;
+        try {
+            transport = HttpTransport.create(config.getTransport());
+        } catch (IllegalArgumentException e) {
+            BasicLogger.log(e.getMessage() + " Using " + HttpTransport.REST_TEMPLATE + ".");
+            transport = HttpTransport.create(HttpTransport.REST_TEMPLATE);
+        }
+        if (config.isGzipEnabled()) {
+            transport = new CompressingTransport(transport, config.getGzipRequestMinBytes());
+        }
+        if (config.getRecordFile() != null) {
+            try {
+                transport = new RecordingTransport(transport, config.getRecordFile());
+            } catch (IOException e) {
+                BasicLogger.log("The recording could not be started: " + e.getMessage());
+            }
+        }
+        return transport;
+    }
+
+    /**
+     * Starts warming up the connection to the server on a background thread while the login menu and
+     * credential prompts wait for the user.
+     */
+    private void warmUp() {
+        CompletableFuture<AuthenticationService> service = authService.preload();
+        if (config.isWarmUpEnabled() && warmUp == null) {
+            warmUp = service.thenAccept(AuthenticationService::warmUp);
+        }
+    }
+
+    /**
+     * Picks up the session saved by the last run, if it has not expired, so the user does not have to log in
+     * again. The session is checked on the client, without a request to the server.
+     */
+    private void restoreSession() {
+        Path sessionFile = config.getSessionFile();
+        if (sessionFile == null) {
+            return;
+        }
+        sessionCache = new SessionCache(sessionFile);
+        currentUser = sessionCache.load();
+        if (currentUser != null) {
+            view.displaySuccessMessage(String.format("Welcome back, %s.", currentUser.getUser().getUsername()));
+            startSession();
+        }
+    }
+
+    private void startSession() {
+        gameService.get().setAuthToken(currentUser.getToken());
+        sessionExpired = false;
+        // An admin can build the word list from the server's games, so try again if the last user could not
+        if (hintEngine != null && hintEngine.isDone() && hintEngine.join() == null) {
+            hintEngine = null;
+        }
+        if (sessionCache != null) {
+            sessionCache.watch(currentUser, () -> sessionExpired = true);
+        }
+        startSync();
+        menuSystem.makeMenuCurrent(currentUser.getUser().isAdmin() ? ADMIN_MAIN_MENU_NAME : MAIN_MENU_NAME);
+    }
+
+    /**
+     * Starts syncing the logged-in user's games in the background. A recording is played back in the order it was
+     * made, so nothing is synced while replaying one.
+     */
+    private void startSync() {
+        stopSync();
+        if (config.isSyncEnabled() && config.getReplayFile() == null) {
+            syncDaemon = new SyncDaemon(gameService.get(), currentUser.getUser().getId(), config.getSyncJitter(),
+                    config.getSyncIdleTime());
+            syncDaemon.start();
+        }
+    }
+
+    private void stopSync() {
+        if (syncDaemon != null) {
+            syncDaemon.stop();
+            syncDaemon = null;
+        }
+    }
+
+    private void beforeMenuDisplay() {
+        if (firstPromptNanos == 0) {
+            firstPromptNanos = System.nanoTime();
+            BasicLogger.log(String.format("Time to first prompt: %d ms", (firstPromptNanos - createdNanos) / 1_000_000));
+        }
+        checkSession();
+        if (syncDaemon != null) {
+            applySyncedHistory();
+            syncDaemon.touch();
+        }
+    }
+
+    /**
+     * Brings the history index up to date with the games synced in the background, if any have been. Games are
+     * recorded rather than the index rebuilt, and a synced game with fewer guesses than the one in the index is
+     * skipped, so games played or updated since the sync started are kept as they are.
+     */
+    private void applySyncedHistory() {
+        List<UserGame> games = syncDaemon.takeHistory();
+        if (games == null) {
+            return;
+        }
+        if (historyIndex == null) {
+            historyIndex = new HistoryIndex(games);
+        } else {
+            games.forEach(historyIndex::recordIfNewer);
         }
     }
 
+    /**
+     * Called before each menu is displayed. A session that is about to expire is ended, and the user is
+     * returned to the login menu.
+     */
+    private void checkSession() {
+        if (sessionExpired && currentUser != null) {
+            view.displayErrorMessage("Your session has expired. Please log in again.");
+            stopSync();
+            currentUser = null;
+            historyIndex = null;
+            sessionExpired = false;
+            menuSystem.returnToStartMenu();
+        }
+    }
+
+    /**
+     * Plays today's game, resuming it if the user has started it. Today's game is taken from the background sync
+     * if it was fetched today; the user's game for it is always fetched, since it changes with every guess. A new
+     * game is created only if the server says the user has not started one.
+     */
     private void playDailyGame() {
         UserGame userGame = null;
         int userId = currentUser.getUser().getId();
-        Game game = gameService.getTodaysGame();
+        SyncDaemon.DailyGame daily = syncDaemon != null ? syncDaemon.getDailyGame(LocalDate.now()) : null;
+        Game game = daily != null ? daily.getGame() : gameService.get().getTodaysGame();
         if (game != null) {
-            userGame = gameService.getUserGame(userId, game.getGameId());
+            try {
+                userGame = gameService.get().findUserGame(userId, game.getGameId());
+            } catch (TransportException e) {
+                BasicLogger.log(e.getMessage());
+                view.displayErrorMessage("Today's game could not be retrieved. Please try again.");
+                return;
+            }
         }
         if (userGame == null) {
-            userGame = gameService.createUserGame(new UserGame(userId, Game.Type.DAILY));
+            userGame = gameService.get().createUserGame(new UserGame(userId, Game.Type.DAILY));
         }
         playGame(userGame);
     }
 
     private void playRandomGame() {
-        playGame(gameService.createUserGame(new UserGame(currentUser.getUser().getId(), Game.Type.RANDOM)));
+        playGame(gameService.get().createUserGame(new UserGame(currentUser.getUser().getId(), Game.Type.RANDOM)));
     }
 
     private void playGame(UserGame userGame) {
+        loadHintEngine();
+        if (historyIndex != null) {
+            historyIndex.record(userGame);
+        }
 
         List<String> guesses = userGame.getGuesses();
         int guessNumber = guesses.size();
@@ -152,22 +432,43 @@ public class ApplicationController {
             view.displayBlankLine();
             view.displayMessage(String.format("You have already played this game and made %d %s.",
                     guessNumber, guessNumber > 1 ? "guesses" : "guess"));
-            view.displayUserGameMatches(userGame.getMatches());
+            displayBoard(userGame);
         }
 
         String word = userGame.getWord();
         while (!userGame.isSuccess() && guessNumber < Game.MAX_GUESSES) {
-            String guessed = view.promptForGuess(guessNumber + 1);
+            String guessed = promptForGuess(guessNumber + 1);
+            if (HINT_REQUEST.equals(guessed)) {
+                showHints(userGame);
+                continue;
+            }
+            if (hardMode) {
+                // Checked here, so a guess that breaks the rule never goes to the server
+                String violation = CandidateFilter.Constraints.of(userGame.getMatches()).findHardModeViolation(guessed);
+                if (violation != null) {
+                    view.displayErrorMessage("Hard mode: " + violation);
+                    continue;
+                }
+            }
             guesses.add(guessed);
-            if (!gameService.updateGame(userGame)) {
-                view.displayErrorMessage(String.format("%s is not a valid 5 letter word!", guessed));
+            try {
+                if (!gameService.get().updateGame(userGame)) {
+                    view.displayErrorMessage(String.format("%s is not a valid 5 letter word!", guessed));
+                }
+            } catch (TransportException e) {
+                guesses.remove(guesses.size() - 1);
+                view.displayErrorMessage("Your guess could not be sent to the server. Please try again.");
+                continue;
             }
             int userId = userGame.getUserId();
             int gameId = userGame.getGameId();
-            userGame = gameService.getUserGame(userId, gameId);
+            userGame = gameService.get().getUserGame(userId, gameId);
+            if (historyIndex != null) {
+                historyIndex.record(userGame);
+            }
             guesses = userGame.getGuesses();
             guessNumber = guesses.size();
-            view.displayUserGameMatches(userGame.getMatches());
+            displayBoard(userGame);
         }
         if (userGame.isSuccess()) {
             view.displaySuccessMessage(String.format("You got it in %d %s!", guessNumber, guessNumber > 1 ? "tries" : "try"));
@@ -176,13 +477,323 @@ public class ApplicationController {
         }
     }
 
+    /**
+     * Plays several random games at once: each guess is made on every board that is still in play. The updates
+     * for all the boards are sent at the same time, so a guess takes about as long as it does with one board.
+     */
+    private void playMultipleBoards() {
+        Integer count = view.promptForBoardCount(MIN_BOARDS, MAX_BOARDS);
+        if (count == null) {
+            return;
+        }
+        List<UserGame> boards = createBoards(currentUser.getUser().getId(), count);
+        if (boards == null) {
+            view.displayErrorMessage("The games could not be created.");
+            return;
+        }
+        boards.forEach(this::recordGame);
+        loadHintEngine();
+
+        int guessNumber = 0;
+        while (boards.stream().anyMatch(ApplicationController::isInPlay)) {
+            String guessed = promptForGuess(guessNumber + 1);
+            if (HINT_REQUEST.equals(guessed)) {
+                boards.stream().filter(ApplicationController::isInPlay).findFirst().ifPresent(this::showHints);
+                continue;
+            }
+            if (hardMode) {
+                // Checked on every board before anything is sent, so a guess goes to all the boards or to none
+                String violation = findHardModeViolation(boards, guessed);
+                if (violation != null) {
+                    view.displayErrorMessage(violation);
+                    continue;
+                }
+            }
+            List<Integer> guessCounts = boards.stream().map(board -> board.getGuesses().size()).collect(Collectors.toList());
+            List<CompletableFuture<UserGame>> updates = new ArrayList<>();
+            for (UserGame board : boards) {
+                if (isInPlay(board)) {
+                    board.getGuesses().add(guessed);
+                    updates.add(gameService.get().updateGameAsync(board));
+                } else {
+                    updates.add(CompletableFuture.completedFuture(board));
+                }
+            }
+            // Every update is waited for, so none is still running when the guess is taken back
+            List<UserGame> updated = new ArrayList<>();
+            boolean sent = true;
+            for (CompletableFuture<UserGame> update : updates) {
+                try {
+                    updated.add(update.join());
+                } catch (CompletionException e) {
+                    sent = false;
+                }
+            }
+            if (!sent) {
+                for (int i = 0; i < boards.size(); ++i) {
+                    List<String> guesses = boards.get(i).getGuesses();
+                    if (guesses.size() > guessCounts.get(i)) {
+                        guesses.remove(guesses.size() - 1);
+                    }
+                }
+                view.displayErrorMessage("Your guess could not be sent to the server. Please try again.");
+                continue;
+            }
+            if (updated.contains(null)) {
+                view.displayErrorMessage("Your guess could not be sent. See the log file for details.");
+                return;
+            }
+            boolean accepted = false;
+            for (int i = 0; i < boards.size(); ++i) {
+                int guesses = updated.get(i).getGuesses().size();
+                accepted |= guesses > guessCounts.get(i);
+                if (!boards.get(i).isSuccess() && updated.get(i).isSuccess()) {
+                    view.displaySuccessMessage(String.format("Board %d solved in %d %s!", i + 1, guesses,
+                            guesses > 1 ? "tries" : "try"));
+                }
+                boards.set(i, updated.get(i));
+            }
+            if (accepted) {
+                guessNumber++;
+            } else {
+                view.displayErrorMessage(String.format("%s is not a valid 5 letter word!", guessed));
+            }
+            boards.forEach(this::recordGame);
+            view.displayBoards(boards.stream().map(UserGame::getMatches).collect(Collectors.toList()));
+        }
+
+        long solved = boards.stream().filter(UserGame::isSuccess).count();
+        if (solved == boards.size()) {
+            view.displaySuccessMessage(String.format("You solved all %d boards in %d tries!", solved, guessNumber));
+        } else {
+            view.displayMessage(String.format("You solved %d of %d boards. The words were %s.", solved, boards.size(),
+                    boards.stream().map(UserGame::getWord).collect(Collectors.joining(", "))));
+        }
+    }
+
+    /**
+     * @return the first hard mode rule the guess breaks on a board still in play, naming the board, or null if it
+     *         breaks none
+     */
+    private static String findHardModeViolation(List<UserGame> boards, String guessed) {
+        for (int i = 0; i < boards.size(); ++i) {
+            if (isInPlay(boards.get(i))) {
+                String violation = CandidateFilter.Constraints.of(boards.get(i).getMatches()).
+                        findHardModeViolation(guessed);
+                if (violation != null) {
+                    return String.format("Hard mode, board %d: %s", i + 1, violation);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates the random games for multiple boards, all at once. If the server hands out the same game more than
+     * once, more games are asked for.
+     * @return the games, or null if they could not all be created
+     */
+    private List<UserGame> createBoards(int userId, int count) {
+        List<UserGame> boards = new ArrayList<>();
+        Set<Integer> gameIds = new HashSet<>();
+        for (int round = 0; round < BOARD_REQUEST_ROUNDS && boards.size() < count; ++round) {
+            List<CompletableFuture<UserGame>> created = new ArrayList<>();
+            for (int i = boards.size(); i < count; ++i) {
+                created.add(gameService.get().createUserGameAsync(new UserGame(userId, Game.Type.RANDOM)));
+            }
+            for (CompletableFuture<UserGame> future : created) {
+                UserGame userGame = future.join();
+                if (userGame == null) {
+                    return null;
+                }
+                if (gameIds.add(userGame.getGameId()) && boards.size() < count) {
+                    boards.add(userGame);
+                }
+            }
+        }
+        return boards.size() == count ? boards : null;
+    }
+
+    private static boolean isInPlay(UserGame userGame) {
+        return !userGame.isSuccess() && userGame.getGuesses().size() < Game.MAX_GUESSES;
+    }
+
+    private void recordGame(UserGame userGame) {
+        if (historyIndex != null) {
+            historyIndex.record(userGame);
+        }
+    }
+
+    /**
+     * Displays the matches for the guesses made so far and, while the game is in progress, the number of words
+     * in the word list that could still be the answer. The count is left out until the hint engine has loaded.
+     */
+    private void displayBoard(UserGame userGame) {
+        view.displayUserGameMatches(userGame.getMatches());
+        HintEngine engine = hintEngine != null ? hintEngine.getNow(null) : null;
+        if (engine != null && !userGame.isSuccess() && userGame.getGuesses().size() < Game.MAX_GUESSES) {
+            view.displayRemainingWords(engine.getCandidates(userGame.getMatches()).cardinality());
+        }
+    }
+
+    /**
+     * Prompts for a guess. Answering the prompt counts as activity, so the history is not synced in the middle
+     * of a game the user is playing.
+     */
+    private String promptForGuess(int guessNumber) {
+        if (syncDaemon != null) {
+            syncDaemon.touch();
+        }
+        String guessed = view.promptForGuess(guessNumber);
+        if (syncDaemon != null) {
+            syncDaemon.touch();
+        }
+        return guessed;
+    }
+
+    private void showHints(UserGame userGame) {
+        HintEngine engine = getHintEngine();
+        if (engine == null) {
+            view.displayErrorMessage("Hints are not available, the word list could not be loaded.");
+            return;
+        }
+        List<HintEngine.Hint> hints = engine.suggest(userGame.getMatches(), MAX_HINTS);
+        if (hints.isEmpty()) {
+            view.displayErrorMessage("No word in the word list matches your guesses.");
+        } else {
+            view.displayHints(hints);
+        }
+    }
+
+    /**
+     * Starts loading the hint engine in the background, if it has not been started already.
+     * @return a future that completes with the hint engine, or with null if there is no word list
+     */
+    private CompletableFuture<HintEngine> loadHintEngine() {
+        if (hintEngine == null) {
+            boolean admin = currentUser != null && currentUser.getUser().isAdmin();
+            hintEngine = TaskExecutor.shared().supply(() -> createHintEngine(admin)).exceptionally(e -> {
+                BasicLogger.log("The hint engine could not be loaded: " + e.getMessage());
+                return null;
+            });
+        }
+        return hintEngine;
+    }
+
+    /**
+     * @return the hint engine, waiting for it to load if need be; null if there is no word list
+     */
+    private HintEngine getHintEngine() {
+        return loadHintEngine().join();
+    }
+
+    /**
+     * The word list is the one that ships with the client, unless a word list file is configured. If the file
+     * cannot be read and the user is an admin, the words of the games known to the server are used instead. The pattern matrix is then loaded, or built if it is
+     * stale, in the background; until it is ready the engine computes patterns itself.
+     *
+     * @param admin true if the user may list every game on the server
+     * @return the hint engine, or null if there is no word list
+     */
+    private HintEngine createHintEngine(boolean admin) {
+        Path file = config.getWordListFile();
+        WordList words = file == null ? WordList.loadDefault() : WordList.load(file);
+        if (words == null && admin) {
+            List<Game> games = gameService.get().getAllGames();
+            if (games != null) {
+                words = new WordList(games.stream().map(Game::getWord).collect(Collectors.toList()));
+            }
+        }
+        if (words == null || words.size() == 0) {
+            BasicLogger.log("Hints are not available, there is no word list.");
+            return null;
+        }
+        HintEngine engine = new HintEngine(words, config.getHintBudget());
+        TaskExecutor.shared().run(() ->
+                engine.setPatternMatrix(PatternMatrix.open(engine.getWords(), config.getPatternMatrixFile())));
+        return engine;
+    }
+
     private void showUserGameStats() {
-        List<UserGame> games = gameService.getUserGames(currentUser.getUser().getId());
-        int gamesStarted = games.size();
-        int gamesCompleted = 0;
-        int successfulGames = 0;
-        int totalNumberOfGuesses = 0;
+        HistoryIndex index = getHistoryIndex();
+        if (index == null) {
+            view.displayErrorMessage("Your games could not be retrieved.");
+            return;
+        }
+        showHistoryPages(index);
 
+        // Summary rows; each comes straight from the index without going through the games again
+        LocalDate today = LocalDate.now();
+        List<String> periods = List.of("Last 7 days", "Last 30 days", "This month", "All time");
+        List<GameStats> periodStats = List.of(index.getLastDaysStats(7, today), index.getLastDaysStats(30, today),
+                index.getMonthStats(YearMonth.from(today)), index.getAllTimeStats());
+
+        TextGrid.Builder builder = new TextGrid.Builder(6).
+                setHorizontalAlign(TextGrid.HorizontalAlign.CENTER).setVerticalAlignment(TextGrid.VerticalAlign.TOP).
+                setHorizontalCellPadding(1).setVerticalCellPadding(0);
+
+        builder.addCell(STAT_HEADER_COLORS, "").addCell(STAT_HEADER_COLORS, "Games started").
+                addCell(STAT_HEADER_COLORS, "Games completed").addCell(STAT_HEADER_COLORS, "Games won").
+                addCell(STAT_HEADER_COLORS, "Games won %").addCell(STAT_HEADER_COLORS, "Average Guesses");
+        for (int i = 0; i < periods.size(); ++i) {
+            GameStats stats = periodStats.get(i);
+            builder.addCell(STAT_HEADER_COLORS, periods.get(i)).
+                    addCell(STAT_SUMMARY_COLORS, String.valueOf(stats.getStarted())).
+                    addCell(STAT_SUMMARY_COLORS, String.valueOf(stats.getCompleted())).
+                    addCell(STAT_SUMMARY_COLORS, String.valueOf(stats.getWon())).
+                    addCell(STAT_SUMMARY_COLORS, String.format("%.2f", stats.getWonPercentage())).
+                    addCell(STAT_SUMMARY_COLORS, String.format("%.2f", stats.getAverageGuesses()));
+        }
+
+        view.displayGrid(builder);
+
+        GameStats allTime = index.getAllTimeStats();
+        builder = new TextGrid.Builder(Game.MAX_GUESSES + 2).
+                setHorizontalAlign(TextGrid.HorizontalAlign.CENTER).setVerticalAlignment(TextGrid.VerticalAlign.TOP).
+                setHorizontalCellPadding(1).setVerticalCellPadding(0);
+        builder.addCell(STAT_HEADER_COLORS, "Won in");
+        for (int guesses = 1; guesses <= Game.MAX_GUESSES; ++guesses) {
+            builder.addCell(STAT_HEADER_COLORS, String.valueOf(guesses));
+        }
+        builder.addCell(STAT_HEADER_COLORS, "Streak / Max");
+        builder.addCell(STAT_HEADER_COLORS, "Games");
+        for (int guesses = 1; guesses <= Game.MAX_GUESSES; ++guesses) {
+            builder.addCell(STAT_SUMMARY_COLORS, String.valueOf(allTime.getWonIn(guesses)));
+        }
+        builder.addCell(STAT_SUMMARY_COLORS, index.getCurrentStreak(today) + " / " + index.getMaxStreak());
+
+        view.displayGrid(builder);
+    }
+
+    /**
+     * Shows the games a page at a time, newest first. Only the games on the page shown are taken from the source
+     * and laid out, so a long history shows as quickly as a short one.
+     */
+    private void showHistoryPages(HistorySource source) {
+        int pageCount = Math.max(1, (source.size() + HISTORY_PAGE_SIZE - 1) / HISTORY_PAGE_SIZE);
+        int page = 0;
+        while (true) {
+            displayHistoryPage(source.getPage(page * HISTORY_PAGE_SIZE, HISTORY_PAGE_SIZE));
+            if (pageCount == 1) {
+                return;
+            }
+            String command = view.promptForPageCommand(page + 1, pageCount);
+            if (command.startsWith("n")) {
+                page = Math.min(page + 1, pageCount - 1);
+            } else if (command.startsWith("p")) {
+                page = Math.max(page - 1, 0);
+            } else if (command.startsWith("j")) {
+                LocalDate date = view.promptForDate("Jump to date ");
+                if (date != null) {
+                    page = Math.min(source.positionOf(date), source.size() - 1) / HISTORY_PAGE_SIZE;
+                }
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void displayHistoryPage(List<UserGame> games) {
         TextGrid.Builder builder = new TextGrid.Builder(5).setMaxCellHeight(2).setMaxCellWidth(10).
                 setHorizontalAlign(TextGrid.HorizontalAlign.CENTER).setVerticalAlignment(TextGrid.VerticalAlign.TOP).
                 setHorizontalCellPadding(1).setVerticalCellPadding(0);
@@ -194,14 +805,6 @@ public class ApplicationController {
 
         for (UserGame userGame : games) {
             int numberOfGuesses = userGame.getGuesses().size();
-            if (userGame.isSuccess() || numberOfGuesses == 6) {
-                gamesCompleted++;
-                totalNumberOfGuesses += numberOfGuesses;
-            }
-            if (userGame.isSuccess()) {
-                successfulGames++;
-            }
-
             String lastGuess = userGame.getGuesses().isEmpty() ? "" : userGame.getGuesses().get(numberOfGuesses - 1);
             TextEffect rowColors = userGame.isSuccess() ? STAT_SUCCESS_COLORS : null;
 
@@ -213,22 +816,186 @@ public class ApplicationController {
                     addCell(rowColors, userGame.getType().name());
         }
 
-        view.displayMessage(builder.generate().toString());
+        view.displayGrid(builder);
+    }
 
-        builder = new TextGrid.Builder(2).
-                setHorizontalAlign(TextGrid.HorizontalAlign.CENTER).setVerticalAlignment(TextGrid.VerticalAlign.TOP).
-                setHorizontalCellPadding(1).setVerticalCellPadding(0);
+    /**
+     * The history index is built from the user's games the first time it is needed, and then kept up to date
+     * as games are played, so the games do not have to be fetched and counted again.
+     */
+    private HistoryIndex getHistoryIndex() {
+        if (historyIndex == null) {
+            List<UserGame> games = gameService.get().getUserGames(currentUser.getUser().getId());
+            if (games != null) {
+                historyIndex = new HistoryIndex(games);
+            }
+        }
+        return historyIndex;
+    }
 
-        double avgGuesses = totalNumberOfGuesses / (double) gamesCompleted;
-        double successPercentage = successfulGames / (double) gamesCompleted * 100.0;
+    /**
+     * Reports on every game known to the server. The games are read and aggregated in batches, so the whole
+     * catalog is never held in memory.
+     */
+    private void showGameCatalogReport() {
+        GameCatalogReport report = new GameCatalogReport();
+        if (gameService.get().streamAllGames(CATALOG_BATCH_SIZE, report::addAll)) {
+            view.displayGameCatalogReport(report);
+        } else {
+            view.displayErrorMessage("The games could not be retrieved.");
+        }
+    }
+
+    /**
+     * Creates the games listed in a CSV or JSON file. An import that was interrupted resumes where it left off.
+     */
+    private void importGames() {
+        Path file = view.promptForFilePath("File of games to import (CSV or JSON): ");
+        if (file == null) {
+            return;
+        }
+        GameImporter importer = new GameImporter(gameService.get(), config.getBulkMaxInFlight(), config.getBulkRequestsPerSecond());
+        try {
+            view.displayImportResult(importer.importGames(file, view::displayMessage));
+        } catch (IOException e) {
+            view.displayErrorMessage("The import file could not be read.");
+            BasicLogger.log(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            view.displayErrorMessage("The import was interrupted.");
+        }
+    }
 
-        builder.addCell(STAT_HEADER_COLORS, "Games started").addCell(STAT_SUMMARY_COLORS, String.valueOf(gamesStarted)).
-                addCell(STAT_HEADER_COLORS, "Games completed").addCell(STAT_SUMMARY_COLORS, String.valueOf(gamesCompleted)).
-                addCell(STAT_HEADER_COLORS, "Games won").addCell(STAT_SUMMARY_COLORS, String.valueOf(successfulGames)).
-                addCell(STAT_HEADER_COLORS, "Games won %").addCell(STAT_SUMMARY_COLORS, String.valueOf(successPercentage)).
-                addCell(STAT_HEADER_COLORS, "Average Guesses").addCell(STAT_SUMMARY_COLORS, String.valueOf(avgGuesses));
+    private void changeTypeOfGames() {
+        List<Game> games = selectGames();
+        if (games == null) {
+            return;
+        }
+        Game.Type type = view.promptForGameType("New type for the selected games:", false);
+        if (type == null || !view.promptForYesNo(String.format("Change %d games to %s (Y/N)? ", games.size(), type))) {
+            return;
+        }
+        try {
+            view.displayMaintenanceResult(getGameMaintenance().changeType(games, type, view::displayMessage));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            view.displayErrorMessage("The update was interrupted.");
+        }
+    }
 
-        view.displayMessage(builder.generate().toString());
+    private void deleteGames() {
+        List<Game> games = selectGames();
+        if (games == null) {
+            return;
+        }
+        if (!view.promptForYesNo(String.format("Delete %d games (Y/N)? ", games.size()))) {
+            return;
+        }
+        try {
+            view.displayMaintenanceResult(getGameMaintenance().delete(games, view::displayMessage));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            view.displayErrorMessage("The delete was interrupted.");
+        }
+    }
+
+    /**
+     * Prompts for a date range and type and previews the games that match, as a dry run for a bulk change.
+     * @return the selected games, or null if there are none
+     */
+    private List<Game> selectGames() {
+        LocalDate from = view.promptForDate("First date, or blank for the earliest ");
+        LocalDate to = view.promptForDate("Last date, or blank for the latest ");
+        Game.Type type = view.promptForGameType("Type of games to select:", true);
+        List<Game> allGames = gameService.get().getAllGames();
+        if (allGames == null) {
+            view.displayErrorMessage("The games could not be retrieved.");
+            return null;
+        }
+        List<Game> games = GameMaintenance.select(allGames, from, to, type);
+        if (games.isEmpty()) {
+            view.displayMessage("No games match.");
+            return null;
+        }
+        view.displayGamePreview(games);
+        return games;
+    }
+
+    private GameMaintenance getGameMaintenance() {
+        return new GameMaintenance(gameService.get(), config.getBulkMaxInFlight(), config.getBulkRequestsPerSecond());
+    }
+
+    /**
+     * Plays a game for every word in the word list on the client, using the chosen strategy, and reports
+     * how well and how fast it played.
+     */
+    private void runSolverBenchmark() {
+        HintEngine engine = getHintEngine();
+        if (engine == null) {
+            view.displayErrorMessage("The benchmark is not available, the word list could not be loaded.");
+            return;
+        }
+        // The hint budget would make the results depend on the machine's load, so every guess is scored
+        List<GuessStrategy> strategies = List.of(new EntropyStrategy(engine.withoutBudget()),
+                new CandidateStrategy(engine.getCandidateFilter()));
+        Integer choice = view.promptForSelection(strategies.stream().map(GuessStrategy::getName).toArray(String[]::new));
+        if (choice == null) {
+            return;
+        }
+        view.displayMessage(String.format("Playing %d games...", engine.getWords().size()));
+        SelfPlayBenchmark benchmark = new SelfPlayBenchmark(engine.getWords(), strategies.get(choice));
+        view.displayBenchmarkResult(benchmark.run());
+    }
+
+    private void showClientMetrics() {
+        view.displayClientMetrics(ClientMetrics.snapshot(), TaskExecutor.shared());
+    }
+
+    private void toggleTracing() {
+        if (Tracer.isEnabled()) {
+            Path file = Tracer.getFile();
+            Tracer.stop();
+            view.displaySuccessMessage("Tracing stopped. Open " + file + " in chrome://tracing or ui.perfetto.dev.");
+        } else if (startTracing()) {
+            view.displaySuccessMessage("Tracing to " + Tracer.getFile() + ".");
+        } else {
+            view.displayErrorMessage("Tracing could not be started. See the log file for details.");
+        }
+    }
+
+    private boolean startTracing() {
+        String name = "trace-" + LocalDateTime.now().format(TRACE_FILE_FORMAT) + ".json";
+        try {
+            Tracer.start(LOG_DIRECTORY.resolve(name));
+            return true;
+        } catch (IOException e) {
+            BasicLogger.log("The trace file could not be created: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Searches the log files for the records in a range of dates, holding a keyword, or with an exception.
+     */
+    private void searchLogs() {
+        String keyword = view.promptForSearchText("Keyword, or blank for any: ");
+        LocalDate from = view.promptForDate("First date, or blank for the earliest ");
+        LocalDate to = view.promptForDate("Last date, or blank for the latest ");
+        boolean exceptionsOnly = view.promptForYesNo("Only exceptions (Y/N)? ");
+        try {
+            LogSearch.Result result = new LogSearch(LOG_DIRECTORY).search(from == null ? null : from.atStartOfDay(),
+                    to == null ? null : to.atTime(LocalTime.MAX), keyword, exceptionsOnly, LOG_SEARCH_LIMIT);
+            view.displayLogSearchResult(result);
+        } catch (IOException e) {
+            view.displayErrorMessage("The logs could not be searched.");
+            BasicLogger.log(e);
+        }
+    }
+
+    private void toggleHardMode() {
+        hardMode = !hardMode;
+        view.displaySuccessMessage(hardMode ? "Hard mode is on: every guess must use the hints revealed so far." :
+                "Hard mode is off.");
     }
 
     private void gotoAdminMenu() {
@@ -236,7 +1003,12 @@ public class ApplicationController {
     }
 
     private void logOut() {
+        if (sessionCache != null) {
+            sessionCache.clear();
+        }
+        stopSync();
         currentUser = null;
+        historyIndex = null;
         exit();
     }
 
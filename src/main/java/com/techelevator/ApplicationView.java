@@ -1,15 +1,31 @@
 package com.techelevator;
 
+import com.techelevator.logs.LogSearch;
 import com.techelevator.model.Game;
 import com.techelevator.model.UserCredentials;
 import com.techelevator.model.UserGame;
+import com.techelevator.services.CoalescingTransport;
+import com.techelevator.services.CompressingTransport;
+import com.techelevator.services.GameCatalogReport;
+import com.techelevator.services.GameImporter;
+import com.techelevator.services.GameMaintenance;
+import com.techelevator.solver.HintEngine;
+import com.techelevator.solver.SelfPlayBenchmark;
 import com.techelevator.utils.BasicConsole;
+import com.techelevator.utils.TaskExecutor;
+import com.techelevator.utils.Tracer;
 import io.github.tbeerbower.TextEffect;
 import io.github.tbeerbower.TextGrid;
 import com.techelevator.utils.MenuSystem;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
 
 /**
  * AdminView is used for gathering information from the user and presenting information to the user.
@@ -25,12 +41,20 @@ public class ApplicationView {
     private static final TextEffect WRONG_LOCATION_COLORS = new TextEffect(TextEffect.Code.BACKGROUND_YELLOW, TextEffect.Code.BLACK);
     private static final TextEffect EXACT_MATCH_COLORS = new TextEffect(TextEffect.Code.BACKGROUND_GREEN);
 
+    private static final TextEffect HEADER_COLORS = new TextEffect(TextEffect.Code.BACKGROUND_WHITE, TextEffect.Code.BLACK, TextEffect.Code.BOLD);
+
     private static final Map<UserGame.Match, TextEffect> MATCH_COLORS = Map.of(
         UserGame.Match.NO_MATCH,       NO_MATCH_COLORS,
         UserGame.Match.WRONG_LOCATION, WRONG_LOCATION_COLORS,
         UserGame.Match.EXACT_MATCH,    EXACT_MATCH_COLORS
     );
 
+    // The number of selected games shown before a bulk change
+    private static final int PREVIEW_SIZE = 20;
+
+    // The number of gaps and duplicate words shown in the game catalog report
+    private static final int REPORT_LIST_SIZE = 10;
+
     private final BasicConsole console;
 
     // Constructor uses dependency injection to get the console object to use for printing.
@@ -69,6 +93,14 @@ public class ApplicationView {
         console.printBanner(SUCCESS_COLORS, message);
     }
 
+    /**
+     * Generates a grid and adds it to the display. The time taken is traced as a render span.
+     * @param builder the grid to display
+     */
+    public void displayGrid(TextGrid.Builder builder) {
+        Tracer.run("render", "TextGrid", () -> displayMessage(builder.generate().toString()));
+    }
+
     /**
      * Displays a welcome message with a green banner.
      */
@@ -88,7 +120,362 @@ public class ApplicationView {
                 builder = builder.addCell(colors, guessChar);
             }
         }
-        displayMessage(builder.generate().toString());
+        displayGrid(builder);
+    }
+
+    /**
+     * Displays several boards side by side in one grid, with a blank column between boards. Boards with fewer
+     * guesses than the others are filled out with blank rows.
+     * @param boards the matches for the guesses made on each board
+     */
+    public void displayBoards(List<List<UserGame.MatchPair[]>> boards) {
+        int rows = boards.stream().mapToInt(List::size).max().orElse(0);
+        if (rows == 0) {
+            return;
+        }
+        TextGrid.Builder builder = new TextGrid.Builder(boards.size() * (Game.WORD_LENGTH + 1) - 1, false).
+                setVerticalCellPadding(0).setHorizontalCellPadding(1);
+
+        for (int row = 0; row < rows; ++row) {
+            for (int board = 0; board < boards.size(); ++board) {
+                if (board > 0) {
+                    builder.addCell(null, " ");
+                }
+                List<UserGame.MatchPair[]> matchesList = boards.get(board);
+                for (int charIndex = 0; charIndex < Game.WORD_LENGTH; ++charIndex) {
+                    if (row < matchesList.size()) {
+                        UserGame.MatchPair match = matchesList.get(row)[charIndex];
+                        builder.addCell(MATCH_COLORS.get(match.getMatch()), String.valueOf(match.getChar()).toUpperCase());
+                    } else {
+                        builder.addCell(null, " ");
+                    }
+                }
+            }
+        }
+        displayGrid(builder);
+    }
+
+    /**
+     * Displays the number of words that could still be the answer.
+     * @param count the number of words remaining
+     */
+    public void displayRemainingWords(int count) {
+        displayMessage(String.format("%d %s remaining", count, count == 1 ? "word" : "words"));
+    }
+
+    /**
+     * Displays suggested guesses, best first, with the information each is expected to reveal.
+     * @param hints the suggested guesses
+     */
+    public void displayHints(List<HintEngine.Hint> hints) {
+        TextGrid.Builder builder = new TextGrid.Builder(3).
+                setHorizontalAlign(TextGrid.HorizontalAlign.CENTER).setHorizontalCellPadding(1).setVerticalCellPadding(0);
+
+        builder.addCell(HEADER_COLORS, "Hint").addCell(HEADER_COLORS, "Bits").
+                addCell(HEADER_COLORS, "Could Win");
+        for (HintEngine.Hint hint : hints) {
+            builder.addCell(null, hint.getWord().toUpperCase()).
+                    addCell(null, String.format("%.2f", hint.getInformation())).
+                    addCell(null, hint.isPossibleAnswer() ? "yes" : "no");
+        }
+        displayGrid(builder);
+    }
+
+    /**
+     * Displays the result of a solver benchmark run.
+     * @param result the benchmark result
+     */
+    public void displayBenchmarkResult(SelfPlayBenchmark.Result result) {
+        TextGrid.Builder builder = new TextGrid.Builder(2).
+                setHorizontalAlign(TextGrid.HorizontalAlign.CENTER).setHorizontalCellPadding(1).setVerticalCellPadding(0);
+
+        builder.addCell(HEADER_COLORS, "Strategy").addCell(null, result.getStrategyName()).
+                addCell(HEADER_COLORS, "Games played").addCell(null, String.valueOf(result.getGamesPlayed())).
+                addCell(HEADER_COLORS, "Average guesses").addCell(null, String.format("%.3f", result.getAverageGuesses())).
+                addCell(HEADER_COLORS, "Failure rate %").addCell(null, String.format("%.2f", result.getFailureRate() * 100.0)).
+                addCell(HEADER_COLORS, "Games per second").addCell(null, String.format("%.1f", result.getGamesPerSecond())).
+                addCell(HEADER_COLORS, "p50 ms per game").addCell(null, String.format("%.3f", result.getLatencyMillis(50))).
+                addCell(HEADER_COLORS, "p90 ms per game").addCell(null, String.format("%.3f", result.getLatencyMillis(90))).
+                addCell(HEADER_COLORS, "p99 ms per game").addCell(null, String.format("%.3f", result.getLatencyMillis(99))).
+                addCell(HEADER_COLORS, "Max ms per game").addCell(null, String.format("%.3f", result.getLatencyMillis(100)));
+        displayGrid(builder);
+    }
+
+    /**
+     * Displays the client metrics counters, how many GET requests were saved by sharing responses, how well
+     * responses were compressed, and how background tasks are being run.
+     * @param metrics the value of each counter, by name
+     * @param executor the executor running background tasks
+     */
+    public void displayClientMetrics(SortedMap<String, Long> metrics, TaskExecutor executor) {
+        if (metrics.isEmpty()) {
+            displayMessage("Nothing has been counted yet.");
+            return;
+        }
+        TextGrid.Builder builder = new TextGrid.Builder(2).
+                setHorizontalAlign(TextGrid.HorizontalAlign.CENTER).setHorizontalCellPadding(1).setVerticalCellPadding(0);
+        builder.addCell(HEADER_COLORS, "Counter").addCell(HEADER_COLORS, "Value");
+        metrics.forEach((name, value) -> builder.addCell(null, name).addCell(null, String.valueOf(value)));
+        displayGrid(builder);
+
+        long sent = metrics.getOrDefault(CoalescingTransport.SENT_METRIC, 0L);
+        long coalesced = metrics.getOrDefault(CoalescingTransport.COALESCED_METRIC, 0L);
+        if (sent + coalesced > 0) {
+            displayMessage(String.format("%d of %d GET requests (%.1f%%) were answered without going to the server.",
+                    coalesced, sent + coalesced, coalesced * 100.0 / (sent + coalesced)));
+        }
+        long wireBytes = metrics.getOrDefault(CompressingTransport.RESPONSE_WIRE_BYTES_METRIC, 0L);
+        long bytes = metrics.getOrDefault(CompressingTransport.RESPONSE_BYTES_METRIC, 0L);
+        if (wireBytes > 0) {
+            displayMessage(String.format("%d compressed responses: %d bytes received for %d (%.1f to 1), " +
+                            "%.1f ms decompressing.",
+                    metrics.getOrDefault(CompressingTransport.RESPONSES_METRIC, 0L), wireBytes, bytes,
+                    (double) bytes / wireBytes, metrics.getOrDefault(CompressingTransport.RESPONSE_NANOS_METRIC, 0L) / 1e6));
+        }
+        displayMessage(String.format("Tasks run on %s: %d running, %d waiting.", executor.getName(),
+                executor.getActiveCount(), executor.getQueuedCount()));
+    }
+
+    /**
+     * Displays the summary of a game import.
+     * @param result the import result
+     */
+    public void displayImportResult(GameImporter.Result result) {
+        TextGrid.Builder builder = new TextGrid.Builder(2).
+                setHorizontalAlign(TextGrid.HorizontalAlign.CENTER).setHorizontalCellPadding(1).setVerticalCellPadding(0);
+
+        builder.addCell(HEADER_COLORS, "Resumed after row").addCell(null, String.valueOf(result.getResumedAfterRow())).
+                addCell(HEADER_COLORS, "Rows read").addCell(null, String.valueOf(result.getRowsRead())).
+                addCell(HEADER_COLORS, "Games created").addCell(null, String.valueOf(result.getGamesCreated())).
+                addCell(HEADER_COLORS, "Rows failed").addCell(null, String.valueOf(result.getRowsFailed())).
+                addCell(HEADER_COLORS, "Seconds").addCell(null, String.format("%.2f", result.getElapsedSeconds())).
+                addCell(HEADER_COLORS, "Rows per second").addCell(null, String.format("%.1f", result.getRowsPerSecond()));
+        displayGrid(builder);
+        for (String error : result.getErrors()) {
+            displayErrorMessage(error);
+        }
+    }
+
+    /**
+     * Displays the game catalog report.
+     * @param report the report
+     */
+    public void displayGameCatalogReport(GameCatalogReport report) {
+        Game.Type[] types = Game.Type.values();
+        TextGrid.Builder builder = new TextGrid.Builder(types.length + 2).
+                setHorizontalAlign(TextGrid.HorizontalAlign.CENTER).setHorizontalCellPadding(1).setVerticalCellPadding(0);
+        builder.addCell(HEADER_COLORS, "Month");
+        for (Game.Type type : types) {
+            builder.addCell(HEADER_COLORS, type.name());
+        }
+        builder.addCell(HEADER_COLORS, "Total");
+        for (Map.Entry<YearMonth, int[]> entry : report.getGamesPerMonth().entrySet()) {
+            builder.addCell(null, entry.getKey().toString());
+            int total = 0;
+            for (int count : entry.getValue()) {
+                builder.addCell(null, String.valueOf(count));
+                total += count;
+            }
+            builder.addCell(null, String.valueOf(total));
+        }
+        displayGrid(builder);
+
+        List<GameCatalogReport.Gap> gaps = report.getDailyGaps();
+        builder = new TextGrid.Builder(3).
+                setHorizontalAlign(TextGrid.HorizontalAlign.CENTER).setHorizontalCellPadding(1).setVerticalCellPadding(0);
+        builder.addCell(HEADER_COLORS, "Missing From").addCell(HEADER_COLORS, "Missing To").addCell(HEADER_COLORS, "Days");
+        for (GameCatalogReport.Gap gap : gaps.subList(0, Math.min(REPORT_LIST_SIZE, gaps.size()))) {
+            builder.addCell(null, gap.getFirst().toString()).addCell(null, gap.getLast().toString()).
+                    addCell(null, String.valueOf(gap.getDays()));
+        }
+        displayMessage(String.format("%d games. Daily games from %s to %s with %d %s in the calendar.",
+                report.getGameCount(), report.getFirstDailyDate(), report.getLastDailyDate(), gaps.size(),
+                gaps.size() == 1 ? "gap" : "gaps"));
+        if (!gaps.isEmpty()) {
+            displayGrid(builder);
+        }
+
+        Map<String, Integer> duplicates = report.getDuplicateWords();
+        displayMessage(String.format("%d %s used by more than one game.", duplicates.size(),
+                duplicates.size() == 1 ? "word is" : "words are"));
+        if (!duplicates.isEmpty()) {
+            builder = new TextGrid.Builder(2).
+                    setHorizontalAlign(TextGrid.HorizontalAlign.CENTER).setHorizontalCellPadding(1).setVerticalCellPadding(0);
+            builder.addCell(HEADER_COLORS, "Word").addCell(HEADER_COLORS, "Games");
+            int shown = 0;
+            for (Map.Entry<String, Integer> entry : duplicates.entrySet()) {
+                if (shown++ == REPORT_LIST_SIZE) {
+                    break;
+                }
+                builder.addCell(null, entry.getKey()).addCell(null, String.valueOf(entry.getValue()));
+            }
+            displayGrid(builder);
+        }
+
+        builder = new TextGrid.Builder(Game.WORD_LENGTH + 2).
+                setHorizontalAlign(TextGrid.HorizontalAlign.CENTER).setHorizontalCellPadding(1).setVerticalCellPadding(0);
+        builder.addCell(HEADER_COLORS, "Letter").addCell(HEADER_COLORS, "Total");
+        for (int position = 1; position <= Game.WORD_LENGTH; ++position) {
+            builder.addCell(HEADER_COLORS, "Pos " + position);
+        }
+        for (char letter = 'a'; letter <= 'z'; ++letter) {
+            builder.addCell(null, String.valueOf(letter).toUpperCase()).addCell(null, String.valueOf(report.getLetterCount(letter)));
+            for (int position = 0; position < Game.WORD_LENGTH; ++position) {
+                builder.addCell(null, String.valueOf(report.getLetterCount(position, letter)));
+            }
+        }
+        displayGrid(builder);
+    }
+
+    /**
+     * Displays the first few games selected for a bulk change, and how many were selected.
+     * @param games the selected games
+     */
+    public void displayGamePreview(List<Game> games) {
+        TextGrid.Builder builder = new TextGrid.Builder(4).
+                setHorizontalAlign(TextGrid.HorizontalAlign.CENTER).setHorizontalCellPadding(1).setVerticalCellPadding(0);
+
+        builder.addCell(HEADER_COLORS, "Id").addCell(HEADER_COLORS, "Date").
+                addCell(HEADER_COLORS, "Word").addCell(HEADER_COLORS, "Type");
+        for (Game game : games.subList(0, Math.min(PREVIEW_SIZE, games.size()))) {
+            builder.addCell(null, String.valueOf(game.getGameId())).
+                    addCell(null, String.valueOf(game.getDate())).
+                    addCell(null, game.getWord()).
+                    addCell(null, game.getType().name());
+        }
+        displayGrid(builder);
+        displayMessage(games.size() > PREVIEW_SIZE ?
+                String.format("%d games selected (first %d shown).", games.size(), PREVIEW_SIZE) :
+                String.format("%d %s selected.", games.size(), games.size() == 1 ? "game" : "games"));
+    }
+
+    /**
+     * Displays the summary of a bulk update or delete.
+     * @param result the result
+     */
+    public void displayMaintenanceResult(GameMaintenance.Result result) {
+        TextGrid.Builder builder = new TextGrid.Builder(2).
+                setHorizontalAlign(TextGrid.HorizontalAlign.CENTER).setHorizontalCellPadding(1).setVerticalCellPadding(0);
+
+        builder.addCell(HEADER_COLORS, "Games selected").addCell(null, String.valueOf(result.getSelected())).
+                addCell(HEADER_COLORS, "Succeeded").addCell(null, String.valueOf(result.getSucceeded())).
+                addCell(HEADER_COLORS, "Failed").addCell(null, String.valueOf(result.getFailed())).
+                addCell(HEADER_COLORS, "Seconds").addCell(null, String.format("%.2f", result.getElapsedSeconds())).
+                addCell(HEADER_COLORS, "Games per second").addCell(null, String.format("%.1f", result.getGamesPerSecond()));
+        displayGrid(builder);
+    }
+
+    /**
+     * Displays the records found by a log search, followed by how much of the logs was read to find them.
+     * @param result the search result
+     */
+    public void displayLogSearchResult(LogSearch.Result result) {
+        if (result.getRecords().isEmpty()) {
+            displayMessage("No log records found.");
+        }
+        for (LogSearch.LogRecord record : result.getRecords()) {
+            displayMessage(record.getFile().getFileName() + ": " + record.getText());
+        }
+        displayBlankLine();
+        displayMessage(String.format("%d records%s from %d log files; read %d blocks (%.1f MB), skipped %d.",
+                result.getRecords().size(), result.isTruncated() ? " (more not shown)" : "", result.getFilesSearched(),
+                result.getBlocksRead(), result.getBytesRead() / (1024.0 * 1024.0), result.getBlocksSkipped()));
+    }
+
+    /**
+     * Prompts for a date.
+     * @param prompt the prompt to display
+     * @return the date, or null if nothing was entered
+     */
+    public LocalDate promptForDate(String prompt) {
+        return console.promptForLocalDate(prompt);
+    }
+
+    /**
+     * Prompts the user to pick a game type.
+     * @param prompt the prompt to display
+     * @param allowAny true to offer "Any" as a choice
+     * @return the selected type, or null for any type or no selection
+     */
+    public Game.Type promptForGameType(String prompt, boolean allowAny) {
+        displayMessage(prompt);
+        Game.Type[] types = Game.Type.values();
+        String[] options = Arrays.stream(types).map(Game.Type::name).toArray(String[]::new);
+        if (allowAny) {
+            options = Arrays.copyOf(options, options.length + 1);
+            options[types.length] = "Any";
+        }
+        Integer index = promptForSelection(options);
+        return index == null || index >= types.length ? null : types[index];
+    }
+
+    /**
+     * Prompts for text to search for.
+     * @param prompt the prompt to display
+     * @return the text, or null if nothing was entered
+     */
+    public String promptForSearchText(String prompt) {
+        String entry = console.promptForString(prompt).trim();
+        return entry.isEmpty() ? null : entry;
+    }
+
+    /**
+     * Prompts for a yes or no answer.
+     * @param prompt the prompt to display
+     * @return true for yes
+     */
+    public boolean promptForYesNo(String prompt) {
+        return console.promptForYesNo(prompt);
+    }
+
+    /**
+     * Prompts for the number of boards to play at once.
+     * @param min the fewest boards
+     * @param max the most boards
+     * @return the number of boards, or null if nothing was entered or the number is out of range
+     */
+    public Integer promptForBoardCount(int min, int max) {
+        Integer count = console.promptForInteger(String.format("How many boards (%d-%d)? ", min, max));
+        return count == null || count < min || count > max ? null : count;
+    }
+
+    /**
+     * Prompts for the path of an existing file.
+     * @param prompt the prompt to display
+     * @return the path, or null if nothing was entered or the file does not exist
+     */
+    public Path promptForFilePath(String prompt) {
+        String entry = console.promptForString(prompt).trim();
+        if (entry.isEmpty()) {
+            return null;
+        }
+        Path path = Path.of(entry);
+        if (!Files.isRegularFile(path)) {
+            displayErrorMessage(String.format("%s is not a file.", entry));
+            return null;
+        }
+        return path;
+    }
+
+    /**
+     * Prompts for a command to move through the pages of a list.
+     * @param page the page shown, from 1
+     * @param pageCount the number of pages
+     * @return the command entered, in lower case; n for next, p for previous, j to jump to a date, or anything
+     *         else to finish
+     */
+    public String promptForPageCommand(int page, int pageCount) {
+        return console.promptForString(String.format("Page %d of %d - (N)ext, (P)revious, (J)ump to date, or Enter to finish: ",
+                page, pageCount)).trim().toLowerCase();
+    }
+
+    /**
+     * Prompts the user to pick one of a list of options.
+     * @param options the options to pick from
+     * @return the index of the selected option, or null if no option was selected
+     */
+    public Integer promptForSelection(String[] options) {
+        return console.getMenuSelectionIndex(options, true);
     }
 
     /**
@@ -103,6 +490,6 @@ public class ApplicationView {
     }
 
     public String promptForGuess(int guessNumber) {
-        return console.promptForString(String.format("Enter guess number %d: ", guessNumber)).toLowerCase();
+        return console.promptForString(String.format("Enter guess number %d (or ? for a hint): ", guessNumber)).toLowerCase();
     }
 }
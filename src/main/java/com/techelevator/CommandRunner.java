@@ -0,0 +1,420 @@
+package com.techelevator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.techelevator.model.AuthenticatedUser;
+import com.techelevator.model.Game;
+import com.techelevator.model.UserCredentials;
+import com.techelevator.model.UserGame;
+import com.techelevator.services.AuthenticationService;
+import com.techelevator.services.CoalescingTransport;
+import com.techelevator.services.GameImporter;
+import com.techelevator.services.GameService;
+import com.techelevator.services.HttpTransport;
+import com.techelevator.services.SessionCache;
+import com.techelevator.services.TransportException;
+import com.techelevator.solver.CandidateFilter;
+import com.techelevator.stats.GameStats;
+import com.techelevator.stats.HistoryIndex;
+import com.techelevator.utils.BasicLogger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CommandRunner runs the client without menus or prompts, for scripts and monitoring. Each command writes its
+ * results to standard output as JSON Lines: one JSON object per line, each with the command name and a status of
+ * "ok" or "error".
+ *
+ * Commands:
+ *
+ *     login --username NAME --password PASSWORD
+ *     play-daily --guess WORD [--guess WORD ...]
+ *     play-random --guess WORD [--guess WORD ...]
+ *     stats [--since YYYY-MM-DD]
+ *     import-games FILE
+ *     batch
+ *
+ * The batch command reads commands from standard input, one per line, and runs them all in the same process, so
+ * the JVM starts and the connection to the server is made only once. Blank lines and lines starting with # are
+ * skipped. Commands that need a user log in with the
+ * session in SESSION_FILE if there is one, or with TERDLE_USERNAME and TERDLE_PASSWORD, unless login was run first.
+ */
+public class CommandRunner {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final ApplicationConfig config;
+    private final BufferedReader in;
+    private final PrintStream out;
+
+    private final AuthenticationService authService;
+    private final GameService gameService;
+
+    // The logged-in user, or null until a command needs one
+    private AuthenticatedUser currentUser;
+
+    /**
+     * @param config the application settings
+     * @param in where the batch command reads commands from
+     * @param out where the results are written
+     */
+    public CommandRunner(ApplicationConfig config, BufferedReader in, PrintStream out) {
+        this.config = config;
+        this.in = in;
+        this.out = out;
+        HttpTransport transport = new CoalescingTransport(ApplicationController.createTransport(config));
+        authService = new AuthenticationService(config.getApiBaseUrl(), transport);
+        gameService = new GameService(config.getApiBaseUrl(), transport);
+    }
+
+    /**
+     * Runs a command.
+     *
+     * @param args the command and its arguments
+     * @return 0 if the command, and every command in a batch, succeeded; otherwise 1
+     */
+    public int run(String[] args) {
+        if (args.length > 0 && args[0].equals("batch")) {
+            boolean succeeded = true;
+            try {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (!line.isBlank() && !line.trim().startsWith("#")) {
+                        succeeded &= runCommand(line.trim().split("\\s+"));
+                    }
+                }
+            } catch (IOException e) {
+                succeeded = error("batch", "The commands could not be read: " + e.getMessage());
+            }
+            return succeeded ? 0 : 1;
+        }
+        return runCommand(args) ? 0 : 1;
+    }
+
+
+    // ***** Helper Methods ***************************************************
+
+    private boolean runCommand(String[] args) {
+        Arguments arguments;
+        try {
+            arguments = Arguments.parse(args);
+        } catch (IllegalArgumentException e) {
+            return error(args.length > 0 ? args[0] : "", e.getMessage());
+        }
+        try {
+            switch (arguments.command) {
+                case "login":
+                    return login(arguments);
+                case "play-daily":
+                    return play(arguments, Game.Type.DAILY);
+                case "play-random":
+                    return play(arguments, Game.Type.RANDOM);
+                case "stats":
+                    return stats(arguments);
+                case "import-games":
+                    return importGames(arguments);
+                default:
+                    return error(arguments.command, "Unknown command. The commands are login, play-daily, " +
+                            "play-random, stats, import-games and batch.");
+            }
+        } catch (RuntimeException e) {
+            BasicLogger.log(e);
+            return error(arguments.command, "An unexpected error has occurred. See the log file for details.");
+        }
+    }
+
+    private boolean login(Arguments arguments) {
+        String username = arguments.get("username");
+        String password = arguments.get("password");
+        if (username == null || password == null) {
+            return error(arguments.command, "Both --username and --password are required.");
+        }
+        if (!logIn(new UserCredentials(username, password))) {
+            return error(arguments.command, "Login failed.");
+        }
+        ObjectNode result = ok(arguments.command);
+        result.put("username", currentUser.getUser().getUsername());
+        return write(result);
+    }
+
+    /**
+     * Makes each guess in turn on the daily game or a new random game, writing a line for each guess and a line
+     * for the outcome. A guess the server turns down, or one that breaks hard mode, ends the command.
+     */
+    private boolean play(Arguments arguments, Game.Type type) {
+        List<String> guesses = arguments.getAll("guess");
+        if (guesses.isEmpty()) {
+            return error(arguments.command, "At least one --guess is required.");
+        }
+        if (!ensureLoggedIn(arguments.command)) {
+            return false;
+        }
+        int userId = currentUser.getUser().getId();
+        UserGame userGame = null;
+        if (type == Game.Type.DAILY) {
+            Game game = gameService.getTodaysGame();
+            if (game != null) {
+                userGame = gameService.getUserGame(userId, game.getGameId());
+            }
+        }
+        if (userGame == null) {
+            userGame = gameService.createUserGame(new UserGame(userId, type));
+        }
+        if (userGame == null) {
+            return error(arguments.command, "The game could not be started.");
+        }
+
+        for (String guessed : guesses) {
+            if (isFinished(userGame)) {
+                break;
+            }
+            String guess = guessed.toLowerCase();
+            if (config.isHardModeEnabled()) {
+                String violation = CandidateFilter.Constraints.of(userGame.getMatches()).findHardModeViolation(guess);
+                if (violation != null) {
+                    return error(arguments.command, "Hard mode: " + violation);
+                }
+            }
+            int guessCount = userGame.getGuesses().size();
+            userGame.getGuesses().add(guess);
+            try {
+                gameService.updateGame(userGame);
+            } catch (TransportException e) {
+                return error(arguments.command, "The guess could not be sent: " + e.getMessage());
+            }
+            userGame = gameService.getUserGame(userId, userGame.getGameId());
+            if (userGame == null) {
+                return error(arguments.command, "The game could not be retrieved.");
+            }
+            if (userGame.getGuesses().size() == guessCount) {
+                return error(arguments.command, String.format("%s is not a valid 5 letter word.", guess));
+            }
+            ObjectNode line = ok(arguments.command);
+            line.put("gameId", userGame.getGameId());
+            line.put("guessNumber", userGame.getGuesses().size());
+            line.put("guess", guess);
+            line.put("matches", toPattern(userGame.getMatches().get(userGame.getMatches().size() - 1)));
+            write(line);
+        }
+
+        ObjectNode result = ok(arguments.command);
+        result.put("gameId", userGame.getGameId());
+        result.put("guesses", userGame.getGuesses().size());
+        result.put("success", userGame.isSuccess());
+        result.put("finished", isFinished(userGame));
+        if (isFinished(userGame)) {
+            result.put("word", userGame.getWord());
+        }
+        return write(result);
+    }
+
+    private boolean stats(Arguments arguments) {
+        LocalDate since;
+        try {
+            since = arguments.get("since") == null ? LocalDate.MIN : LocalDate.parse(arguments.get("since"));
+        } catch (DateTimeParseException e) {
+            return error(arguments.command, "--since must be a date in YYYY-MM-DD format.");
+        }
+        if (!ensureLoggedIn(arguments.command)) {
+            return false;
+        }
+        List<UserGame> games = gameService.getUserGames(currentUser.getUser().getId());
+        if (games == null) {
+            return error(arguments.command, "Your games could not be retrieved.");
+        }
+        HistoryIndex index = new HistoryIndex(games);
+        LocalDate today = LocalDate.now();
+        GameStats stats = index.getStats(since, today);
+
+        ObjectNode result = ok(arguments.command);
+        if (arguments.get("since") != null) {
+            result.put("since", since.toString());
+        }
+        result.put("started", stats.getStarted());
+        result.put("completed", stats.getCompleted());
+        result.put("won", stats.getWon());
+        result.put("wonPercentage", stats.getWonPercentage());
+        result.put("averageGuesses", stats.getAverageGuesses());
+        ArrayNode wonIn = result.putArray("wonIn");
+        for (int guesses = 1; guesses <= Game.MAX_GUESSES; ++guesses) {
+            wonIn.add(stats.getWonIn(guesses));
+        }
+        result.put("currentStreak", index.getCurrentStreak(today));
+        result.put("maxStreak", index.getMaxStreak());
+        return write(result);
+    }
+
+    private boolean importGames(Arguments arguments) {
+        if (arguments.positional.size() != 1) {
+            return error(arguments.command, "The file to import is required: import-games FILE");
+        }
+        Path file = Path.of(arguments.positional.get(0));
+        if (!Files.isRegularFile(file)) {
+            return error(arguments.command, file + " does not exist.");
+        }
+        if (!ensureLoggedIn(arguments.command)) {
+            return false;
+        }
+        GameImporter importer = new GameImporter(gameService, config.getBulkMaxInFlight(), config.getBulkRequestsPerSecond());
+        GameImporter.Result importResult;
+        try {
+            importResult = importer.importGames(file, progress -> {
+                ObjectNode line = ok(arguments.command);
+                line.put("progress", progress);
+                write(line);
+            });
+        } catch (IOException e) {
+            BasicLogger.log(e);
+            return error(arguments.command, "The import file could not be read.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return error(arguments.command, "The import was interrupted.");
+        }
+
+        ObjectNode result = ok(arguments.command);
+        result.put("file", file.toString());
+        result.put("resumedAfterRow", importResult.getResumedAfterRow());
+        result.put("rowsRead", importResult.getRowsRead());
+        result.put("gamesCreated", importResult.getGamesCreated());
+        result.put("rowsFailed", importResult.getRowsFailed());
+        result.put("seconds", importResult.getElapsedSeconds());
+        ArrayNode errors = result.putArray("errors");
+        importResult.getErrors().forEach(errors::add);
+        return write(result);
+    }
+
+    /**
+     * Logs in with the saved session or the configured credentials if no one is logged in yet.
+     * @return true if a user is logged in; if not, an error line has been written
+     */
+    private boolean ensureLoggedIn(String command) {
+        if (currentUser != null) {
+            return true;
+        }
+        if (config.getSessionFile() != null) {
+            AuthenticatedUser user = new SessionCache(config.getSessionFile()).load();
+            if (user != null) {
+                currentUser = user;
+                gameService.setAuthToken(user.getToken());
+                return true;
+            }
+        }
+        if (config.getUsername() != null && config.getPassword() != null &&
+                logIn(new UserCredentials(config.getUsername(), config.getPassword()))) {
+            return true;
+        }
+        return error(command, "Not logged in. Run login first, or set TERDLE_USERNAME and TERDLE_PASSWORD.");
+    }
+
+    private boolean logIn(UserCredentials credentials) {
+        AuthenticatedUser user = authService.login(credentials);
+        if (user == null) {
+            return false;
+        }
+        currentUser = user;
+        gameService.setAuthToken(user.getToken());
+        if (config.getSessionFile() != null) {
+            new SessionCache(config.getSessionFile()).save(user);
+        }
+        return true;
+    }
+
+    private static boolean isFinished(UserGame userGame) {
+        return userGame.isSuccess() || userGame.getGuesses().size() >= Game.MAX_GUESSES;
+    }
+
+    /**
+     * @return the matches as a string with G for an exact match, Y for a letter in the wrong location and . for
+     *         no match
+     */
+    private static String toPattern(UserGame.MatchPair[] matches) {
+        StringBuilder pattern = new StringBuilder(matches.length);
+        for (UserGame.MatchPair match : matches) {
+            pattern.append(match.getMatch() == UserGame.Match.EXACT_MATCH ? 'G' :
+                    match.getMatch() == UserGame.Match.WRONG_LOCATION ? 'Y' : '.');
+        }
+        return pattern.toString();
+    }
+
+    private static ObjectNode ok(String command) {
+        ObjectNode line = MAPPER.createObjectNode();
+        line.put("command", command);
+        line.put("status", "ok");
+        return line;
+    }
+
+    private boolean error(String command, String message) {
+        ObjectNode line = MAPPER.createObjectNode();
+        line.put("command", command);
+        line.put("status", "error");
+        line.put("message", message);
+        write(line);
+        return false;
+    }
+
+    private synchronized boolean write(ObjectNode line) {
+        out.println(line.toString());
+        out.flush();
+        return true;
+    }
+
+
+    // ***** inner class: Arguments *******************************************
+
+    /**
+     * A command and its arguments: --name value options, which may be repeated, and positional arguments.
+     */
+    private static class Arguments {
+        private final String command;
+        private final Map<String, List<String>> options = new HashMap<>();
+        private final List<String> positional = new ArrayList<>();
+
+        private Arguments(String command) {
+            this.command = command;
+        }
+
+        private static Arguments parse(String[] args) {
+            if (args.length == 0 || args[0].isBlank()) {
+                throw new IllegalArgumentException("No command was given.");
+            }
+            Arguments arguments = new Arguments(args[0]);
+            List<String> rest = Arrays.asList(args).subList(1, args.length);
+            for (int i = 0; i < rest.size(); ++i) {
+                String arg = rest.get(i);
+                if (arg.startsWith("--")) {
+                    if (i + 1 >= rest.size()) {
+                        throw new IllegalArgumentException(arg + " needs a value.");
+                    }
+                    arguments.options.computeIfAbsent(arg.substring(2), name -> new ArrayList<>()).add(rest.get(++i));
+                } else {
+                    arguments.positional.add(arg);
+                }
+            }
+            return arguments;
+        }
+
+        /**
+         * @return the last value given for the option, or null if it was not given
+         */
+        private String get(String name) {
+            List<String> values = options.get(name);
+            return values == null ? null : values.get(values.size() - 1);
+        }
+
+        private List<String> getAll(String name) {
+            return options.getOrDefault(name, List.of());
+        }
+    }
+}
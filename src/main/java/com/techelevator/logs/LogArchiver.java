@@ -0,0 +1,102 @@
+package com.techelevator.logs;
+
+import com.techelevator.utils.BasicLogger;
+import com.techelevator.utils.TaskExecutor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * LogArchiver compresses the daily log files that are older than a number of days with gzip, as a background
+ * task, so old logs take little space but can still be searched.
+ *
+ * Each log is indexed before it is compressed, so its LogIndex stays usable. The compressed log is written to a
+ * temporary file and moved into place before the original is removed, so a log is never lost if the archiving is
+ * interrupted.
+ */
+public class LogArchiver {
+
+    private static final Pattern LOG_FILE_NAME = Pattern.compile("(\\d{4}-\\d{2}-\\d{2})\\.log");
+
+    private final Path directory;
+    private final int keepDays;
+
+    /**
+     * @param directory the directory holding the log files
+     * @param keepDays the number of days, including today, whose logs are left uncompressed
+     */
+    public LogArchiver(Path directory, int keepDays) {
+        this.directory = directory;
+        this.keepDays = Math.max(1, keepDays);
+    }
+
+    /**
+     * Archives the old logs on a background thread.
+     */
+    public void start() {
+        TaskExecutor.shared().run(() -> archive(LocalDate.now()));
+    }
+
+    /**
+     * Archives the logs dated before the days to keep.
+     *
+     * @param today the current date
+     * @return the number of logs archived
+     */
+    public int archive(LocalDate today) {
+        LocalDate oldestKept = today.minusDays(keepDays - 1);
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(file -> isBefore(file, oldestKept)).collect(Collectors.toList());
+        } catch (IOException e) {
+            BasicLogger.log("The logs could not be listed for archiving: " + e.getMessage());
+            return 0;
+        }
+        int archived = 0;
+        for (Path file : files) {
+            try {
+                compress(file);
+                ++archived;
+            } catch (IOException e) {
+                BasicLogger.log("The log " + file + " could not be archived: " + e.getMessage());
+            }
+        }
+        return archived;
+    }
+
+
+    // ***** Helper Methods ***************************************************
+
+    private static boolean isBefore(Path file, LocalDate date) {
+        Matcher matcher = LOG_FILE_NAME.matcher(file.getFileName().toString());
+        try {
+            return matcher.matches() && LocalDate.parse(matcher.group(1)).isBefore(date);
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private static void compress(Path file) throws IOException {
+        LogIndex.open(file);
+        Path archive = file.resolveSibling(file.getFileName() + ".gz");
+        Path temp = file.resolveSibling(file.getFileName() + ".gz.tmp");
+        try (InputStream in = Files.newInputStream(file);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp), 65536)) {
+            in.transferTo(out);
+        }
+        Files.move(temp, archive, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.delete(file);
+    }
+}
@@ -0,0 +1,530 @@
+package com.techelevator.logs;
+
+import com.techelevator.utils.BasicLogger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * LogIndex is a sidecar index of a log file written by BasicLogger, kept beside it in a [file].idx file, so a
+ * search can go straight to the parts of the log that might hold what it is looking for.
+ *
+ * The log is split into blocks of about BLOCK_SIZE bytes, each starting at the beginning of a log record (a line
+ * starting with a timestamp, and any lines after it without one, such as a stack trace). For each block the index
+ * holds its offsets, its first and last timestamps, how many records it has and how many exceptions, and a bloom
+ * filter of the three-letter sequences in it, ignoring case. A keyword can only be in a block whose filter has
+ * every three-letter sequence of the keyword, so most blocks are ruled out without being read.
+ *
+ * Every entry is the same size, so the index is read by memory-mapping it. A log file is read by memory-mapping
+ * it too, a window at a time. The index is brought up to date whenever it is opened, by reading only what has
+ * been written to the log since; the last block is always indexed again, since more may have been added to it.
+ * Logs that have been archived with gzip keep the index made before they were compressed; the offsets in it are
+ * into the uncompressed log.
+ *
+ * An index may be opened by a search and by the LogArchiver at the same time, so it is locked while it is brought
+ * up to date: with a FileLock against other processes, and with a lock of the JVM's own against other threads,
+ * which a FileLock does not make wait.
+ */
+public class LogIndex {
+
+    public static final int BLOCK_SIZE = 64 * 1024;
+
+    // A line holding this marks a record with an exception
+    static final byte[] EXCEPTION_MARKER = toLowerCase(BasicLogger.EXCEPTION_MARKER);
+
+    private static final int MAGIC = 0x544C4958; // "TLIX"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+
+    private static final int BLOOM_BITS = 32768;
+    private static final int BLOOM_BYTES = BLOOM_BITS / 8;
+    private static final int BLOOM_HASHES = 3;
+
+    // Each entry: start, end, first second, last second, records, exceptions, bloom filter
+    private static final int START = 0;
+    private static final int END = 8;
+    private static final int FIRST_SECOND = 16;
+    private static final int LAST_SECOND = 24;
+    private static final int RECORDS = 32;
+    private static final int EXCEPTIONS = 36;
+    private static final int BLOOM = 40;
+    private static final int ENTRY_SIZE = BLOOM + BLOOM_BYTES;
+
+    // How much of a log file is mapped at once while indexing it
+    private static final long MAP_WINDOW = 128L * 1024 * 1024;
+    private static final int STREAM_BUFFER = 1024 * 1024;
+
+    // The lock of each index file this JVM has opened, by absolute path
+    private static final Map<Path, Object> INDEX_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path logFile;
+    private final ByteBuffer entries;
+    private final int blockCount;
+
+    private LogIndex(Path logFile, ByteBuffer entries) {
+        this.logFile = logFile;
+        this.entries = entries;
+        this.blockCount = (entries.capacity() - HEADER_SIZE) / ENTRY_SIZE;
+    }
+
+    /**
+     * Opens the index of a log file, creating it or bringing it up to date with the log first.
+     *
+     * @param logFile a log file, which may be compressed with gzip if its name ends with .gz
+     * @return the index
+     * @throws IOException if the log could not be read or the index could not be written
+     */
+    public static LogIndex open(Path logFile) throws IOException {
+        Path indexFile = indexFileFor(logFile);
+        synchronized (INDEX_LOCKS.computeIfAbsent(indexFile.toAbsolutePath().normalize(), path -> new Object())) {
+            try (FileChannel index = FileChannel.open(indexFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                FileLock lock = index.lock();
+                try {
+                    update(logFile, index);
+                    return new LogIndex(logFile, index.map(FileChannel.MapMode.READ_ONLY, 0, index.size()));
+                } finally {
+                    lock.release();
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * @param logFile a log file, compressed or not
+     * @return the index file for the log; the same for the log before and after it is compressed
+     */
+    public static Path indexFileFor(Path logFile) {
+        String name = logFile.getFileName().toString();
+        if (isCompressed(logFile)) {
+            name = name.substring(0, name.length() - ".gz".length());
+        }
+        return logFile.resolveSibling(name + ".idx");
+    }
+
+    /**
+     * @return true if the log file is compressed with gzip
+     */
+    public static boolean isCompressed(Path logFile) {
+        return logFile.getFileName().toString().endsWith(".gz");
+    }
+
+    public Path getLogFile() {
+        return logFile;
+    }
+
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    /**
+     * @return the offset of the first byte of the block in the uncompressed log
+     */
+    public long getStart(int block) {
+        return entries.getLong(entryOffset(block) + START);
+    }
+
+    /**
+     * @return the offset just past the last byte of the block in the uncompressed log
+     */
+    public long getEnd(int block) {
+        return entries.getLong(entryOffset(block) + END);
+    }
+
+    /**
+     * @return the earliest timestamp in the block, in seconds as returned by recordSecond, or Long.MIN_VALUE if
+     *         the block has no timestamps
+     */
+    public long getFirstSecond(int block) {
+        return entries.getLong(entryOffset(block) + FIRST_SECOND);
+    }
+
+    /**
+     * @return the latest timestamp in the block, in seconds as returned by recordSecond, or Long.MAX_VALUE if
+     *         the block has no timestamps
+     */
+    public long getLastSecond(int block) {
+        return entries.getLong(entryOffset(block) + LAST_SECOND);
+    }
+
+    public int getRecordCount(int block) {
+        return entries.getInt(entryOffset(block) + RECORDS);
+    }
+
+    public int getExceptionCount(int block) {
+        return entries.getInt(entryOffset(block) + EXCEPTIONS);
+    }
+
+    /**
+     * @param block the block
+     * @param bloomBits the filter bits of a keyword, as returned by bloomBitsOf
+     * @return false if the keyword is certainly not in the block
+     */
+    public boolean mightContain(int block, int[] bloomBits) {
+        int bloom = entryOffset(block) + BLOOM;
+        for (int bit : bloomBits) {
+            if ((entries.get(bloom + (bit >>> 3)) & (1 << (bit & 7))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param keyword a keyword, in lower case as returned by toLowerCase
+     * @return the filter bits a block holding the keyword has set; none for a keyword shorter than three bytes
+     */
+    public static int[] bloomBitsOf(byte[] keyword) {
+        int trigrams = Math.max(0, keyword.length - 2);
+        int[] bits = new int[trigrams * BLOOM_HASHES];
+        for (int i = 0; i < trigrams; ++i) {
+            int trigram = (keyword[i] & 0xFF) << 16 | (keyword[i + 1] & 0xFF) << 8 | (keyword[i + 2] & 0xFF);
+            int hash1 = mix(trigram);
+            int hash2 = mix(trigram ^ 0x5BD1E995) | 1;
+            for (int k = 0; k < BLOOM_HASHES; ++k) {
+                bits[i * BLOOM_HASHES + k] = (hash1 + k * hash2) & (BLOOM_BITS - 1);
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * @return the text as UTF-8 with ASCII letters in lower case, as the index and searches compare it
+     */
+    public static byte[] toLowerCase(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < bytes.length; ++i) {
+            bytes[i] = lower(bytes[i]);
+        }
+        return bytes;
+    }
+
+
+    // ***** Helper Methods ***************************************************
+
+    /**
+     * Brings the index up to date with the log.
+     */
+    private static void update(Path logFile, FileChannel index) throws IOException {
+        int blocks = readBlockCount(index);
+        if (isCompressed(logFile)) {
+            if (blocks <= 0) {
+                resetIndex(index);
+                Indexer indexer = new Indexer(index);
+                indexer.finish(indexStream(logFile, indexer));
+            }
+        } else {
+            long resumeFrom = 0;
+            if (blocks > 0 && readLong(index, entryOffset(blocks - 1) + END) <= Files.size(logFile)) {
+                resumeFrom = readLong(index, entryOffset(blocks - 1) + START);
+                index.truncate(entryOffset(blocks - 1));
+            } else {
+                resetIndex(index);
+            }
+            Indexer indexer = new Indexer(index);
+            indexer.finish(indexMapped(logFile, resumeFrom, indexer));
+        }
+    }
+
+    /**
+     * Calls the handler for each complete line in the first length bytes of the buffer.
+     * @return the number of bytes handled, up to the end of the last complete line
+     */
+    static int forEachLine(ByteBuffer buffer, int length, long offset, LineHandler handler) {
+        int lineStart = 0;
+        for (int i = 0; i < length; ++i) {
+            if (buffer.get(i) == '\n') {
+                handler.line(buffer, lineStart, i + 1, offset + lineStart);
+                lineStart = i + 1;
+            }
+        }
+        return lineStart;
+    }
+
+    /**
+     * Reads the timestamp BasicLogger starts each record with, such as 2022-03-14T09:26:53.589.
+     * @return the timestamp in seconds since 1970-01-01T00:00:00, ignoring time zones, or Long.MIN_VALUE if the
+     *         line does not start with a timestamp
+     */
+    static long recordSecond(ByteBuffer buffer, int from, int to) {
+        if (to - from < 19 || buffer.get(from + 4) != '-' || buffer.get(from + 7) != '-' ||
+                buffer.get(from + 10) != 'T' || buffer.get(from + 13) != ':' || buffer.get(from + 16) != ':') {
+            return Long.MIN_VALUE;
+        }
+        int year = digits(buffer, from, 4);
+        int month = digits(buffer, from + 5, 2);
+        int day = digits(buffer, from + 8, 2);
+        int hour = digits(buffer, from + 11, 2);
+        int minute = digits(buffer, from + 14, 2);
+        int second = digits(buffer, from + 17, 2);
+        if (year < 0 || month < 0 || day < 0 || hour < 0 || minute < 0 || second < 0) {
+            return Long.MIN_VALUE;
+        }
+        try {
+            return LocalDate.of(year, month, day).toEpochDay() * 86400 + hour * 3600 + minute * 60 + second;
+        } catch (DateTimeException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * @return true if the bytes from..to hold the pattern, comparing ASCII letters without regard to case; the
+     *         pattern must be in lower case
+     */
+    static boolean contains(ByteBuffer buffer, int from, int to, byte[] pattern) {
+        if (pattern.length == 0) {
+            return true;
+        }
+        byte first = pattern[0];
+        for (int i = from, last = to - pattern.length; i <= last; ++i) {
+            if (lower(buffer.get(i)) == first) {
+                int j = 1;
+                while (j < pattern.length && lower(buffer.get(i + j)) == pattern[j]) {
+                    ++j;
+                }
+                if (j == pattern.length) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    static byte lower(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+    private static int digits(ByteBuffer buffer, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; ++i) {
+            byte b = buffer.get(i);
+            if (b < '0' || b > '9') {
+                return -1;
+            }
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+
+    private static int mix(int value) {
+        int hash = value * 0x9E3779B1;
+        hash ^= hash >>> 15;
+        hash *= 0x85EBCA77;
+        hash ^= hash >>> 13;
+        return hash;
+    }
+
+    private static int entryOffset(int block) {
+        return HEADER_SIZE + block * ENTRY_SIZE;
+    }
+
+    /**
+     * @return the number of blocks in the index, or -1 if it is empty or not an index this version wrote
+     */
+    private static int readBlockCount(FileChannel index) throws IOException {
+        long size = index.size();
+        if (size < HEADER_SIZE || (size - HEADER_SIZE) % ENTRY_SIZE != 0) {
+            return -1;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        index.read(header, 0);
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || header.getInt(8) != BLOCK_SIZE ||
+                header.getInt(12) != BLOOM_BYTES) {
+            return -1;
+        }
+        return (int) ((size - HEADER_SIZE) / ENTRY_SIZE);
+    }
+
+    private static void resetIndex(FileChannel index) throws IOException {
+        index.truncate(0);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putInt(BLOCK_SIZE).putInt(BLOOM_BYTES).flip();
+        index.write(header, 0);
+    }
+
+    private static long readLong(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        channel.read(buffer, position);
+        return buffer.getLong(0);
+    }
+
+    /**
+     * Indexes the complete lines of an uncompressed log from an offset on, mapping a window of it at a time.
+     * @return the offset just past the last line indexed
+     */
+    private static long indexMapped(Path logFile, long from, Indexer indexer) throws IOException {
+        try (FileChannel log = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            long size = log.size();
+            long position = from;
+            while (position < size) {
+                long length = Math.min(MAP_WINDOW, size - position);
+                MappedByteBuffer window = log.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int handled = forEachLine(window, (int) length, position, indexer);
+                if (handled == 0) {
+                    if (length < MAP_WINDOW) {
+                        break; // The last line is still being written
+                    }
+                    indexer.line(window, 0, (int) length, position); // A line longer than the window
+                    handled = (int) length;
+                }
+                position += handled;
+            }
+            return position;
+        }
+    }
+
+    /**
+     * Indexes every line of a compressed log, which cannot be mapped, by reading it through.
+     * @return the length of the uncompressed log
+     */
+    private static long indexStream(Path logFile, Indexer indexer) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(logFile), STREAM_BUFFER)) {
+            byte[] bytes = new byte[STREAM_BUFFER];
+            long offset = 0;
+            int filled = 0;
+            int read;
+            while ((read = in.read(bytes, filled, bytes.length - filled)) >= 0) {
+                filled += read;
+                ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, filled);
+                int handled = forEachLine(buffer, filled, offset, indexer);
+                if (handled == 0 && filled == bytes.length) {
+                    indexer.line(buffer, 0, filled, offset);
+                    handled = filled;
+                }
+                System.arraycopy(bytes, handled, bytes, 0, filled - handled);
+                filled -= handled;
+                offset += handled;
+            }
+            if (filled > 0) {
+                indexer.line(ByteBuffer.wrap(bytes, 0, filled), 0, filled, offset);
+                offset += filled;
+            }
+            return offset;
+        }
+    }
+
+
+    // ***** inner interface: LineHandler *************************************
+
+    interface LineHandler {
+        /**
+         * @param buffer the buffer holding the line
+         * @param from the index of the first byte of the line in the buffer
+         * @param to the index just past the end of the line, including its line break if it has one
+         * @param offset the offset of the line in the log
+         */
+        void line(ByteBuffer buffer, int from, int to, long offset);
+    }
+
+
+    // ***** inner class: Indexer *********************************************
+
+    /**
+     * Builds the entries for the lines of a log, handed to it in order, and appends them to the index.
+     */
+    private static class Indexer implements LineHandler {
+        private final FileChannel index;
+        private final ByteBuffer entry = ByteBuffer.allocate(ENTRY_SIZE);
+        private final byte[] bloom = new byte[BLOOM_BYTES];
+        private long blockStart = -1;
+        private long firstSecond;
+        private long lastSecond;
+        private int records;
+        private int exceptions;
+
+        private Indexer(FileChannel index) throws IOException {
+            this.index = index;
+            index.position(index.size());
+        }
+
+        @Override
+        public void line(ByteBuffer buffer, int from, int to, long offset) {
+            long second = recordSecond(buffer, from, to);
+            if (blockStart < 0) {
+                startBlock(offset);
+            } else if (second != Long.MIN_VALUE && offset - blockStart >= BLOCK_SIZE) {
+                writeBlock(offset);
+                startBlock(offset);
+            }
+            if (second != Long.MIN_VALUE) {
+                ++records;
+                firstSecond = Math.min(firstSecond, second);
+                lastSecond = Math.max(lastSecond, second);
+            }
+            if (contains(buffer, from, to, EXCEPTION_MARKER)) {
+                ++exceptions;
+            }
+            int trigram = 0;
+            for (int i = from; i < to; ++i) {
+                byte b = buffer.get(i);
+                if (b == '\n' || b == '\r') {
+                    break;
+                }
+                trigram = (trigram << 8 | (lower(b) & 0xFF)) & 0xFFFFFF;
+                if (i - from >= 2) {
+                    addToBloom(trigram);
+                }
+            }
+        }
+
+        /**
+         * Writes the last block.
+         * @param end the offset just past the last line handled
+         */
+        private void finish(long end) throws IOException {
+            if (blockStart >= 0 && end > blockStart) {
+                writeBlock(end);
+            }
+        }
+
+        private void startBlock(long offset) {
+            blockStart = offset;
+            firstSecond = Long.MAX_VALUE;
+            lastSecond = Long.MIN_VALUE;
+            records = 0;
+            exceptions = 0;
+            Arrays.fill(bloom, (byte) 0);
+        }
+
+        private void writeBlock(long end) {
+            entry.clear();
+            entry.putLong(blockStart).putLong(end).
+                    putLong(records > 0 ? firstSecond : Long.MIN_VALUE).
+                    putLong(records > 0 ? lastSecond : Long.MAX_VALUE).
+                    putInt(records).putInt(exceptions).put(bloom).flip();
+            try {
+                while (entry.hasRemaining()) {
+                    index.write(entry);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void addToBloom(int trigram) {
+            int hash1 = mix(trigram);
+            int hash2 = mix(trigram ^ 0x5BD1E995) | 1;
+            for (int k = 0; k < BLOOM_HASHES; ++k) {
+                int bit = (hash1 + k * hash2) & (BLOOM_BITS - 1);
+                bloom[bit >>> 3] |= (byte) (1 << (bit & 7));
+            }
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package com.techelevator.logs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * LogSearch finds the log records written by BasicLogger in a range of time, holding a keyword, or with an
+ * exception, across the daily log files in a directory, archived or not.
+ *
+ * Each log file is searched through its LogIndex. Only the blocks whose timestamps overlap the range, that have
+ * an exception when only exceptions are wanted, and whose bloom filter might hold the keyword are read; the rest
+ * of the file is never touched. Blocks of an uncompressed log are read by memory-mapping them. An archived log
+ * has to be decompressed from its start, but only the blocks that might match are looked at.
+ *
+ * The LogArchiver may compress a log while it is being searched. A log that is gone by the time it is read is
+ * searched in its compressed form instead.
+ */
+public class LogSearch {
+
+    private static final Pattern LOG_FILE_NAME = Pattern.compile("(\\d{4}-\\d{2}-\\d{2})\\.log(\\.gz)?");
+
+    private final Path directory;
+
+    /**
+     * @param directory the directory holding the log files
+     */
+    public LogSearch(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Finds the records that match, oldest first.
+     *
+     * @param from the earliest time, or null for no limit
+     * @param to the latest time, or null for no limit
+     * @param keyword text the record must hold, ignoring case, or null for any record
+     * @param exceptionsOnly true for only the records of exceptions
+     * @param limit the most records to return
+     * @return the records found and what the search read
+     * @throws IOException if a log file could not be read or indexed
+     */
+    public Result search(LocalDateTime from, LocalDateTime to, String keyword, boolean exceptionsOnly, int limit)
+            throws IOException {
+        long fromSecond = from == null ? Long.MIN_VALUE : from.toEpochSecond(ZoneOffset.UTC);
+        long toSecond = to == null ? Long.MAX_VALUE : to.toEpochSecond(ZoneOffset.UTC);
+        byte[] pattern = keyword == null || keyword.isEmpty() ? null : LogIndex.toLowerCase(keyword);
+        int[] bloomBits = pattern == null ? new int[0] : LogIndex.bloomBitsOf(pattern);
+
+        Result result = new Result(limit);
+        for (Path file : findLogFiles(to == null ? null : to.toLocalDate())) {
+            try {
+                searchFile(file, result, fromSecond, toSecond, pattern, bloomBits, exceptionsOnly);
+            } catch (NoSuchFileException e) {
+                // Archived since the files were listed
+                Path archive = file.resolveSibling(file.getFileName() + ".gz");
+                if (!LogIndex.isCompressed(file) && Files.exists(archive)) {
+                    searchFile(archive, result, fromSecond, toSecond, pattern, bloomBits, exceptionsOnly);
+                }
+            }
+            if (result.isTruncated()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+
+    // ***** Helper Methods ***************************************************
+
+    /**
+     * Searches one log file, adding what it finds to the result.
+     * @throws NoSuchFileException if the log file is not there, in which case nothing has been added
+     */
+    private static void searchFile(Path file, Result result, long fromSecond, long toSecond, byte[] pattern,
+                                   int[] bloomBits, boolean exceptionsOnly) throws IOException {
+        LogIndex index = LogIndex.open(file);
+        List<Integer> candidates = new ArrayList<>();
+        int skipped = 0;
+        for (int block = 0; block < index.getBlockCount(); ++block) {
+            if (index.getLastSecond(block) < fromSecond || index.getFirstSecond(block) > toSecond ||
+                    (exceptionsOnly && index.getExceptionCount(block) == 0) ||
+                    !index.mightContain(block, bloomBits)) {
+                ++skipped;
+            } else {
+                candidates.add(block);
+            }
+        }
+        // The log is opened before any record is matched, so a log that is gone adds nothing
+        RecordMatcher matcher = new RecordMatcher(file, result, fromSecond, toSecond, pattern, exceptionsOnly);
+        if (LogIndex.isCompressed(file)) {
+            readCompressed(index, candidates, matcher);
+        } else {
+            readMapped(index, candidates, matcher);
+        }
+        ++result.filesSearched;
+        result.blocksSkipped += skipped;
+    }
+
+    /**
+     * @param latest the latest date wanted, or null for no limit
+     * @return the log files dated no later than the latest date, oldest first; a log that has been archived is
+     *         searched in its uncompressed form if that is still there
+     */
+    private List<Path> findLogFiles(LocalDate latest) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                Matcher matcher = LOG_FILE_NAME.matcher(file.getFileName().toString());
+                if (!matcher.matches()) {
+                    return false;
+                }
+                try {
+                    // A day's log can hold records from later days, if the application ran past midnight
+                    if (latest != null && LocalDate.parse(matcher.group(1)).isAfter(latest)) {
+                        return false;
+                    }
+                } catch (DateTimeParseException e) {
+                    return false;
+                }
+                return matcher.group(2) == null || !Files.exists(file.resolveSibling(matcher.group(1) + ".log"));
+            }).sorted(Comparator.comparing(file -> file.getFileName().toString())).collect(Collectors.toList());
+        }
+    }
+
+    private static void readMapped(LogIndex index, List<Integer> blocks, RecordMatcher matcher) throws IOException {
+        if (blocks.isEmpty()) {
+            return;
+        }
+        try (FileChannel log = FileChannel.open(index.getLogFile(), StandardOpenOption.READ)) {
+            for (int block : blocks) {
+                long start = index.getStart(block);
+                int length = (int) (index.getEnd(block) - start);
+                matcher.scan(log.map(FileChannel.MapMode.READ_ONLY, start, length), length, start);
+                if (matcher.isDone()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void readCompressed(LogIndex index, List<Integer> blocks, RecordMatcher matcher) throws IOException {
+        if (blocks.isEmpty()) {
+            return;
+        }
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(index.getLogFile()), 65536)) {
+            long position = 0;
+            for (int block : blocks) {
+                long start = index.getStart(block);
+                skipFully(in, start - position);
+                byte[] bytes = new byte[(int) (index.getEnd(block) - start)];
+                int length = in.readNBytes(bytes, 0, bytes.length);
+                position = start + length;
+                matcher.scan(ByteBuffer.wrap(bytes), length, start);
+                if (matcher.isDone() || length < bytes.length) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void skipFully(InputStream in, long count) throws IOException {
+        while (count > 0) {
+            long skipped = in.skip(count);
+            if (skipped <= 0) {
+                if (in.read() < 0) {
+                    return;
+                }
+                skipped = 1;
+            }
+            count -= skipped;
+        }
+    }
+
+
+    // ***** inner class: LogRecord *******************************************
+
+    /**
+     * A record from a log file: a line starting with a timestamp, and any lines after it without one.
+     */
+    public static class LogRecord {
+        private final Path file;
+        private final long offset;
+        private final LocalDateTime time;
+        private final String text;
+
+        private LogRecord(Path file, long offset, LocalDateTime time, String text) {
+            this.file = file;
+            this.offset = offset;
+            this.time = time;
+            this.text = text;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        /**
+         * @return the offset of the record in the uncompressed log
+         */
+        public long getOffset() {
+            return offset;
+        }
+
+        /**
+         * @return the time the record was logged, or null if it has no timestamp
+         */
+        public LocalDateTime getTime() {
+            return time;
+        }
+
+        /**
+         * @return the text of the record, including its timestamp, without the final line break
+         */
+        public String getText() {
+            return text;
+        }
+    }
+
+
+    // ***** inner class: Result **********************************************
+
+    /**
+     * The records a search found, and how much of the logs it read to find them.
+     */
+    public static class Result {
+        private final int limit;
+        private final List<LogRecord> records = new ArrayList<>();
+        private boolean truncated;
+        private int filesSearched;
+        private long blocksRead;
+        private long blocksSkipped;
+        private long bytesRead;
+
+        private Result(int limit) {
+            this.limit = limit;
+        }
+
+        public List<LogRecord> getRecords() {
+            return records;
+        }
+
+        /**
+         * @return true if more records matched than the limit
+         */
+        public boolean isTruncated() {
+            return truncated;
+        }
+
+        public int getFilesSearched() {
+            return filesSearched;
+        }
+
+        public long getBlocksRead() {
+            return blocksRead;
+        }
+
+        /**
+         * @return the number of blocks ruled out by the index without being read
+         */
+        public long getBlocksSkipped() {
+            return blocksSkipped;
+        }
+
+        public long getBytesRead() {
+            return bytesRead;
+        }
+
+        private void add(LogRecord record) {
+            if (records.size() < limit) {
+                records.add(record);
+            } else {
+                truncated = true;
+            }
+        }
+    }
+
+
+    // ***** inner class: RecordMatcher ***************************************
+
+    /**
+     * Splits the lines of a block into records and adds those that match to the result.
+     */
+    private static class RecordMatcher implements LogIndex.LineHandler {
+        private final Path file;
+        private final Result result;
+        private final long fromSecond;
+        private final long toSecond;
+        private final byte[] pattern;
+        private final boolean exceptionsOnly;
+
+        private ByteBuffer buffer;
+        private long bufferOffset;
+        private int recordStart = -1;
+        private int recordEnd;
+        private long recordSecond;
+
+        private RecordMatcher(Path file, Result result, long fromSecond, long toSecond, byte[] pattern,
+                              boolean exceptionsOnly) {
+            this.file = file;
+            this.result = result;
+            this.fromSecond = fromSecond;
+            this.toSecond = toSecond;
+            this.pattern = pattern;
+            this.exceptionsOnly = exceptionsOnly;
+        }
+
+        private boolean isDone() {
+            return result.isTruncated();
+        }
+
+        /**
+         * Matches the records in a block, which starts at the start of a record.
+         */
+        private void scan(ByteBuffer block, int length, long offset) {
+            ++result.blocksRead;
+            result.bytesRead += length;
+            buffer = block;
+            bufferOffset = offset;
+            recordStart = -1;
+            int handled = LogIndex.forEachLine(block, length, offset, this);
+            if (handled < length) {
+                line(block, handled, length, offset + handled);
+            }
+            finishRecord();
+        }
+
+        @Override
+        public void line(ByteBuffer lineBuffer, int from, int to, long offset) {
+            if (isDone()) {
+                return;
+            }
+            long second = LogIndex.recordSecond(lineBuffer, from, to);
+            if (second != Long.MIN_VALUE || recordStart < 0) {
+                finishRecord();
+                recordStart = from;
+                recordSecond = second;
+            }
+            recordEnd = to;
+        }
+
+        private void finishRecord() {
+            if (recordStart < 0 || isDone()) {
+                return;
+            }
+            int from = recordStart;
+            int to = recordEnd;
+            recordStart = -1;
+            boolean inRange = recordSecond == Long.MIN_VALUE ?
+                    fromSecond == Long.MIN_VALUE && toSecond == Long.MAX_VALUE :
+                    recordSecond >= fromSecond && recordSecond <= toSecond;
+            if (!inRange || (exceptionsOnly && !LogIndex.contains(buffer, from, to, LogIndex.EXCEPTION_MARKER)) ||
+                    (pattern != null && !LogIndex.contains(buffer, from, to, pattern))) {
+                return;
+            }
+            byte[] bytes = new byte[to - from];
+            for (int i = 0; i < bytes.length; ++i) {
+                bytes[i] = buffer.get(from + i);
+            }
+            String text = new String(bytes, StandardCharsets.UTF_8).stripTrailing();
+            result.add(new LogRecord(file, bufferOffset + from, parseTime(text), text));
+        }
+
+        private static LocalDateTime parseTime(String text) {
+            int space = text.indexOf(' ');
+            try {
+                return LocalDateTime.parse(space < 0 ? text : text.substring(0, space));
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.techelevator.services;
+
+import com.techelevator.utils.ClientMetrics;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * AdaptiveTimeouts chooses a timeout for each request from the latency seen so far for the same endpoint, so a
+ * request that is stuck is given up in about the time that endpoint normally takes rather than never.
+ *
+ * An endpoint is a method and a path with its numeric ids taken out, such as "GET users/{id}/games". The latency
+ * of the last few hundred requests to each endpoint is kept, and the timeout is a multiple of their 99th
+ * percentile, held between a floor and a ceiling. Until an endpoint has enough samples its timeout is the ceiling.
+ * The floor and ceiling can be set for each endpoint, so endpoints that return a lot of data get more headroom.
+ *
+ * A request that times out counts as a sample at its timeout, so an endpoint that has slowed down gets longer
+ * timeouts. Timeouts are counted in the metrics counter http.timeout, and for each endpoint in
+ * http.timeout.[endpoint].
+ */
+public class AdaptiveTimeouts {
+
+    public static final String TIMEOUT_METRIC = "http.timeout";
+
+    public static final Duration DEFAULT_FLOOR = Duration.ofSeconds(1);
+    public static final Duration DEFAULT_CEILING = Duration.ofSeconds(10);
+
+    private static final double P99_MULTIPLIER = 4.0;
+    private static final int WINDOW_SIZE = 200;
+    private static final int MIN_SAMPLES = 20;
+
+    private final Limits defaultLimits;
+    private final Map<String, Limits> limits = new ConcurrentHashMap<>();
+    private final Map<String, LatencyWindow> windows = new ConcurrentHashMap<>();
+
+    public AdaptiveTimeouts() {
+        this(DEFAULT_FLOOR, DEFAULT_CEILING);
+    }
+
+    /**
+     * @param floor the shortest timeout for an endpoint without limits of its own
+     * @param ceiling the longest timeout for an endpoint without limits of its own
+     */
+    public AdaptiveTimeouts(Duration floor, Duration ceiling) {
+        this.defaultLimits = new Limits(floor, ceiling);
+    }
+
+    /**
+     * Sets the shortest and longest timeout for an endpoint.
+     *
+     * @param endpoint the endpoint, as returned by endpointOf
+     * @param floor the shortest timeout
+     * @param ceiling the longest timeout, which is also used until the endpoint has enough samples
+     */
+    public void setLimits(String endpoint, Duration floor, Duration ceiling) {
+        limits.put(endpoint, new Limits(floor, ceiling));
+    }
+
+    /**
+     * @param endpoint the endpoint, as returned by endpointOf
+     * @return the timeout for the next request to the endpoint
+     */
+    public Duration timeoutFor(String endpoint) {
+        Limits endpointLimits = limits.getOrDefault(endpoint, defaultLimits);
+        LatencyWindow window = windows.get(endpoint);
+        long p99 = window == null ? -1 : window.getP99Nanos();
+        if (p99 < 0) {
+            return Duration.ofNanos(endpointLimits.ceilingNanos);
+        }
+        long timeout = (long) (p99 * P99_MULTIPLIER);
+        return Duration.ofNanos(Math.max(endpointLimits.floorNanos, Math.min(endpointLimits.ceilingNanos, timeout)));
+    }
+
+    /**
+     * Records the time taken by a request that got a response.
+     *
+     * @param endpoint the endpoint, as returned by endpointOf
+     * @param nanos the time taken
+     */
+    public void record(String endpoint, long nanos) {
+        windows.computeIfAbsent(endpoint, key -> new LatencyWindow()).add(nanos);
+    }
+
+    /**
+     * Records a request that timed out.
+     *
+     * @param endpoint the endpoint, as returned by endpointOf
+     * @param timeout the timeout the request was given
+     */
+    public void recordTimeout(String endpoint, Duration timeout) {
+        record(endpoint, timeout.toNanos());
+        ClientMetrics.increment(TIMEOUT_METRIC);
+        ClientMetrics.increment(TIMEOUT_METRIC + "." + endpoint);
+    }
+
+    /**
+     * @param method the HTTP method
+     * @param path the path of the request, relative to the base url
+     * @return the endpoint: the method and the path without its query, with each numeric segment replaced by {id}
+     */
+    public static String endpointOf(String method, String path) {
+        int query = path.indexOf('?');
+        String[] segments = (query < 0 ? path : path.substring(0, query)).split("/", -1);
+        for (int i = 0; i < segments.length; ++i) {
+            if (!segments[i].isEmpty() && segments[i].chars().allMatch(Character::isDigit)) {
+                segments[i] = "{id}";
+            }
+        }
+        return method + " " + String.join("/", segments);
+    }
+
+
+    // ***** inner class: Limits **********************************************
+
+    private static class Limits {
+        private final long floorNanos;
+        private final long ceilingNanos;
+
+        private Limits(Duration floor, Duration ceiling) {
+            this.floorNanos = floor.toNanos();
+            this.ceilingNanos = Math.max(floorNanos, ceiling.toNanos());
+        }
+    }
+
+
+    // ***** inner class: LatencyWindow ***************************************
+
+    /**
+     * The latency of the last WINDOW_SIZE requests to an endpoint, in a ring buffer.
+     */
+    private static class LatencyWindow {
+        private final long[] samples = new long[WINDOW_SIZE];
+        private int count;
+        private int next;
+
+        private synchronized void add(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % WINDOW_SIZE;
+            count = Math.min(count + 1, WINDOW_SIZE);
+        }
+
+        /**
+         * @return the 99th percentile of the samples, or -1 if there are not enough samples
+         */
+        private synchronized long getP99Nanos() {
+            if (count < MIN_SAMPLES) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.ceil(count * 0.99) - 1];
+        }
+    }
+}
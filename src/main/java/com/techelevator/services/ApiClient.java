@@ -0,0 +1,281 @@
+package com.techelevator.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techelevator.utils.Tracer;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * ApiClient makes JSON requests to the server REST API over an HttpTransport. It writes request objects as JSON,
+ * adds the auth token, and reads successful responses back into objects; error responses are thrown as a
+ * TransportException.
+ *
+ * JSON is read and written with an ObjectMapper configured the same way as the one RestTemplate uses, so objects
+ * look the same on the wire whichever transport sends them.
+ *
+ * Each request is given a timeout chosen by AdaptiveTimeouts from the latency seen so far for its endpoint, and
+ * the time each request takes is recorded there.
+ *
+ * Each call is traced as an api span named for its endpoint, holding a json span for writing the request body, an
+ * http span for the exchange with the server and a json span for reading the response.
+ */
+public class ApiClient {
+
+    private static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json().build();
+    private static final String JSON = "application/json";
+
+    private final String apiBaseUrl;
+    private final HttpTransport transport;
+    private final AdaptiveTimeouts timeouts = new AdaptiveTimeouts();
+
+    /**
+     * @param apiBaseUrl the base url of the server REST API; request paths are relative to it
+     * @param transport the transport used to send the requests
+     */
+    public ApiClient(String apiBaseUrl, HttpTransport transport) {
+        this.apiBaseUrl = apiBaseUrl;
+        this.transport = transport;
+    }
+
+    public String getApiBaseUrl() {
+        return apiBaseUrl;
+    }
+
+    public HttpTransport getTransport() {
+        return transport;
+    }
+
+    /**
+     * @return the timeouts given to requests, whose limits can be set for each endpoint
+     */
+    public AdaptiveTimeouts getTimeouts() {
+        return timeouts;
+    }
+
+    /**
+     * @return the mapper used to read and write JSON
+     */
+    public ObjectMapper getObjectMapper() {
+        return MAPPER;
+    }
+
+    /**
+     * @param path the path of the resource, relative to the base url
+     * @param authToken the auth token, or null for none
+     * @param responseType the type to read the response as
+     * @return the response
+     * @throws TransportException if the request failed
+     */
+    public <T> T get(String path, String authToken, Class<T> responseType) throws TransportException {
+        return call("GET", path, authToken, null, responseType);
+    }
+
+    /**
+     * @param path the path of the resource, relative to the base url
+     * @param authToken the auth token, or null for none
+     * @param body the object to send as JSON
+     * @param responseType the type to read the response as
+     * @return the response, or null if the response had no body
+     * @throws TransportException if the request failed
+     */
+    public <T> T post(String path, String authToken, Object body, Class<T> responseType) throws TransportException {
+        return call("POST", path, authToken, body, responseType);
+    }
+
+    /**
+     * @param path the path of the resource, relative to the base url
+     * @param authToken the auth token, or null for none
+     * @param body the object to send as JSON
+     * @param responseType the type to read the response as
+     * @return the response, or null if the response had no body
+     * @throws TransportException if the request failed
+     */
+    public <T> T put(String path, String authToken, Object body, Class<T> responseType) throws TransportException {
+        return call("PUT", path, authToken, body, responseType);
+    }
+
+    /**
+     * @param path the path of the resource, relative to the base url
+     * @param authToken the auth token, or null for none
+     * @throws TransportException if the request failed
+     */
+    public void delete(String path, String authToken) throws TransportException {
+        call("DELETE", path, authToken, null, null);
+    }
+
+    /**
+     * Makes a GET request without waiting for the response.
+     *
+     * @param path the path of the resource, relative to the base url
+     * @param authToken the auth token, or null for none
+     * @param responseType the type to read the response as
+     * @return a future that completes with the response, or with a TransportException if the request failed
+     */
+    public <T> CompletableFuture<T> getAsync(String path, String authToken, Class<T> responseType) {
+        return callAsync("GET", path, authToken, null, responseType);
+    }
+
+    /**
+     * Makes a POST request without waiting for the response.
+     *
+     * @param path the path of the resource, relative to the base url
+     * @param authToken the auth token, or null for none
+     * @param body the object to send as JSON
+     * @param responseType the type to read the response as
+     * @return a future that completes with the response, or with a TransportException if the request failed
+     */
+    public <T> CompletableFuture<T> postAsync(String path, String authToken, Object body, Class<T> responseType) {
+        return callAsync("POST", path, authToken, body, responseType);
+    }
+
+    /**
+     * Makes a PUT request without waiting for the response.
+     *
+     * @param path the path of the resource, relative to the base url
+     * @param authToken the auth token, or null for none
+     * @param body the object to send as JSON
+     * @param responseType the type to read the response as
+     * @return a future that completes with the response, or with a TransportException if the request failed
+     */
+    public <T> CompletableFuture<T> putAsync(String path, String authToken, Object body, Class<T> responseType) {
+        return callAsync("PUT", path, authToken, body, responseType);
+    }
+
+    /**
+     * Makes a GET request and reads the body of the response as it arrives.
+     *
+     * @param path the path of the resource, relative to the base url
+     * @param authToken the auth token, or null for none
+     * @param reader reads the body of the response
+     * @return the value read
+     * @throws TransportException if the request failed or the body could not be read
+     */
+    public <T> T stream(String path, String authToken, HttpTransport.BodyReader<T> reader) throws TransportException {
+        TransportRequest request = createRequest("GET", path, authToken, null);
+        String endpoint = AdaptiveTimeouts.endpointOf("GET", path);
+        long start = System.nanoTime();
+        try {
+            T value = Tracer.call("api", endpoint, () -> transport.stream(request, reader));
+            timeouts.record(endpoint, System.nanoTime() - start);
+            return value;
+        } catch (TransportException e) {
+            recordFailure(request, endpoint, e, start);
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a request without sending it, with the timeout for its endpoint.
+     *
+     * @param method the HTTP method
+     * @param path the path of the resource, relative to the base url
+     * @param authToken the auth token, or null for none
+     * @param body the object to send as JSON, or null for no body
+     * @return the request
+     * @throws TransportException if the body could not be written as JSON
+     */
+    public TransportRequest createRequest(String method, String path, String authToken, Object body) throws TransportException {
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Accept", JSON);
+        if (authToken != null) {
+            headers.put("Authorization", "Bearer " + authToken);
+        }
+        byte[] content = null;
+        if (body != null) {
+            headers.put("Content-Type", JSON);
+            try {
+                content = Tracer.call("json", "serialize", () -> MAPPER.writeValueAsBytes(body));
+            } catch (JsonProcessingException e) {
+                throw new TransportException(method + " " + path + ": " + e.getMessage(), e);
+            }
+        }
+        return new TransportRequest(method, apiBaseUrl + path, headers, content,
+                timeouts.timeoutFor(AdaptiveTimeouts.endpointOf(method, path)));
+    }
+
+
+    // ***** Helper Methods ***************************************************
+
+    private <T> T call(String method, String path, String authToken, Object body, Class<T> responseType)
+            throws TransportException {
+        String endpoint = AdaptiveTimeouts.endpointOf(method, path);
+        return Tracer.call("api", endpoint, () -> {
+            TransportResponse response = exchange(createRequest(method, path, authToken, body), endpoint);
+            return responseType == null ? null : readResponse(response, responseType);
+        });
+    }
+
+    private <T> CompletableFuture<T> callAsync(String method, String path, String authToken, Object body,
+                                              Class<T> responseType) {
+        String endpoint = AdaptiveTimeouts.endpointOf(method, path);
+        CompletableFuture<T> result = new CompletableFuture<>();
+        TransportRequest request;
+        try {
+            request = createRequest(method, path, authToken, body);
+        } catch (TransportException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+        long start = System.nanoTime();
+        transport.sendAsync(request).whenComplete((response, e) -> {
+            try {
+                if (e != null) {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    TransportException failure = cause instanceof TransportException ? (TransportException) cause :
+                            new TransportException(request + ": " + cause.getMessage(), cause);
+                    recordFailure(request, endpoint, failure, start);
+                    throw failure;
+                }
+                timeouts.record(endpoint, System.nanoTime() - start);
+                if (!response.isSuccessful()) {
+                    throw HttpTransport.errorFor(request, response.getStatusCode(), response.getBody());
+                }
+                result.complete(responseType == null ? null : readResponse(response, responseType));
+            } catch (TransportException failure) {
+                result.completeExceptionally(failure);
+            }
+        });
+        return result;
+    }
+
+    private TransportResponse exchange(TransportRequest request, String endpoint) throws TransportException {
+        long start = System.nanoTime();
+        TransportResponse response;
+        try {
+            response = Tracer.call("http", request.getMethod(), () -> transport.send(request));
+        } catch (TransportException e) {
+            recordFailure(request, endpoint, e, start);
+            throw e;
+        }
+        timeouts.record(endpoint, System.nanoTime() - start);
+        if (!response.isSuccessful()) {
+            throw HttpTransport.errorFor(request, response.getStatusCode(), response.getBody());
+        }
+        return response;
+    }
+
+    private void recordFailure(TransportRequest request, String endpoint, TransportException e, long start) {
+        if (e.isTimeout()) {
+            timeouts.recordTimeout(endpoint, request.getTimeout());
+        } else if (e.getStatusCode() != 0) {
+            timeouts.record(endpoint, System.nanoTime() - start);
+        }
+    }
+
+    private <T> T readResponse(TransportResponse response, Class<T> responseType) throws TransportException {
+        if (response.getBody().length == 0) {
+            return null;
+        }
+        try {
+            return Tracer.call("json", "deserialize", () -> MAPPER.readValue(response.getBody(), responseType));
+        } catch (IOException e) {
+            throw new TransportException("The response could not be read: " + e.getMessage(), e);
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package com.techelevator.services;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.techelevator.model.AuthenticatedUser;
 import com.techelevator.model.UserCredentials;
 import com.techelevator.utils.BasicLogger;
-import org.springframework.http.*;
-import org.springframework.web.client.ResourceAccessException;
-import org.springframework.web.client.RestClientResponseException;
-import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Map;
 
 /**
  * AuthenticationService is a class for managing requests made to the server REST API for user login.
@@ -16,8 +20,14 @@ import org.springframework.web.client.RestTemplate;
  **/
 public class AuthenticationService {
 
-    private final String apiBaseUrl;
-    private final RestTemplate restTemplate = new RestTemplate();
+    // How long the warm-up waits for the server, so a server that does not answer cannot hold a thread forever
+    private static final Duration WARM_UP_TIMEOUT = Duration.ofSeconds(2);
+
+    private final ApiClient apiClient;
+
+    // A login response like the server's, used to warm up the JSON mapper
+    private static final String WARM_UP_LOGIN_RESPONSE = "{\"token\":\"token\",\"user\":{\"id\":1,\"username\":\"user\"," +
+            "\"authorities\":[{\"name\":\"ROLE_USER\"}]}}";
 
     /**
      * Constructor - The only outside dependency is for the base url used to access the server. Using dependency injection
@@ -27,7 +37,17 @@ public class AuthenticationService {
      * @param url Base URL for the server REST API
      */
     public AuthenticationService(String url) {
-        this.apiBaseUrl = url;
+        this(url, new RestTemplateTransport());
+    }
+
+    /**
+     * Constructor - sends requests with the given transport.
+     *
+     * @param url Base URL for the server REST API
+     * @param transport the transport used to send requests to the server
+     */
+    public AuthenticationService(String url, HttpTransport transport) {
+        this.apiClient = new ApiClient(url, transport);
     }
 
     /**
@@ -36,26 +56,43 @@ public class AuthenticationService {
      * @return the AuthenticatedUser, or null if login failed
      */
     public AuthenticatedUser login(UserCredentials credentials) {
-        HttpEntity<UserCredentials> entity = createCredentialsEntity(credentials);
         AuthenticatedUser user = null;
         try {
-            ResponseEntity<AuthenticatedUser> response =
-                    restTemplate.exchange(apiBaseUrl + "login", HttpMethod.POST, entity, AuthenticatedUser.class);
-            user = response.getBody();
-        } catch (RestClientResponseException | ResourceAccessException e) {
+            user = apiClient.post("login", null, credentials, AuthenticatedUser.class);
+        } catch (TransportException e) {
             BasicLogger.log(e.getMessage());
         }
         return user;
     }
 
     /**
-     * Helper method to create the HTTP Entity that bundles the user credentials data to send to the server REST API.
-     * @param credentials the user credentials
-     * @return HttpEntity containing the credentials
+     * Prepares for a login while the user is still typing their credentials, so the login request itself is
+     * fast. Looks up the server's address, makes a request to the server so a connection is open and ready for
+     * reuse, and runs the JSON mapper over a sample login request and response so its classes are loaded and
+     * its serializers are cached. Nothing is sent to the login endpoint. Meant to be run on a background thread;
+     * failures are logged and otherwise ignored.
      */
-	private HttpEntity<UserCredentials> createCredentialsEntity(UserCredentials credentials) {
-    	HttpHeaders headers = new HttpHeaders();
-    	headers.setContentType(MediaType.APPLICATION_JSON);
-    	return new HttpEntity<>(credentials, headers);
+    public void warmUp() {
+        long start = System.nanoTime();
+        try {
+            InetAddress.getByName(URI.create(apiClient.getApiBaseUrl()).getHost());
+        } catch (UnknownHostException | IllegalArgumentException e) {
+            BasicLogger.log("Warm-up: " + e.getMessage());
+        }
+        try {
+            // Any response will do; the response is read in full, which leaves the connection open for reuse
+            apiClient.getTransport().send(new TransportRequest("HEAD", apiClient.getApiBaseUrl(), Map.of(), null,
+                    WARM_UP_TIMEOUT));
+        } catch (TransportException e) {
+            BasicLogger.log("Warm-up: " + e.getMessage());
+        }
+        ObjectMapper mapper = apiClient.getObjectMapper();
+        try {
+            mapper.writeValueAsBytes(new UserCredentials("user", "password"));
+            mapper.readValue(WARM_UP_LOGIN_RESPONSE, AuthenticatedUser.class);
+        } catch (IOException e) {
+            BasicLogger.log("Warm-up: " + e.getMessage());
+        }
+        BasicLogger.log(String.format("Warm-up took %d ms", (System.nanoTime() - start) / 1_000_000));
     }
 }
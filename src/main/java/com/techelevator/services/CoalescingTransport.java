@@ -0,0 +1,179 @@
+package com.techelevator.services;
+
+import com.techelevator.utils.ClientMetrics;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * CoalescingTransport wraps another transport and collapses identical GET requests that are in flight at the same
+ * time into one request. The first caller sends the request; callers that ask for the same url with the same
+ * auth token before the response arrives wait for that response and share it.
+ *
+ * Only GET requests are coalesced, since they do not change anything on the server. Streamed requests are not
+ * coalesced, since their body can only be read once.
+ *
+ * A GET that started before a write could return the state from before it, so when a request that changes
+ * something is sent, and again when it completes, the GETs in flight for its url, the urls under it and the urls
+ * above it are no longer shared. A GET sent after the write then goes to the server rather than joining one of
+ * them.
+ *
+ * The metrics counters http.get.sent and http.get.coalesced count the GET requests sent to the server and the
+ * ones answered by sharing another request's response.
+ */
+public class CoalescingTransport implements HttpTransport {
+
+    public static final String SENT_METRIC = "http.get.sent";
+    public static final String COALESCED_METRIC = "http.get.coalesced";
+
+    private final HttpTransport delegate;
+    private final Map<String, CompletableFuture<TransportResponse>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param delegate the transport that sends the requests
+     */
+    public CoalescingTransport(HttpTransport delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public TransportResponse send(TransportRequest request) throws TransportException {
+        if (isWrite(request)) {
+            stopSharing(request);
+            try {
+                return delegate.send(request);
+            } finally {
+                stopSharing(request);
+            }
+        }
+        if (!isCoalesced(request)) {
+            return delegate.send(request);
+        }
+        String key = keyOf(request);
+        CompletableFuture<TransportResponse> response = new CompletableFuture<>();
+        CompletableFuture<TransportResponse> existing = inFlight.putIfAbsent(key, response);
+        if (existing != null) {
+            ClientMetrics.increment(COALESCED_METRIC);
+            return await(request, existing);
+        }
+        ClientMetrics.increment(SENT_METRIC);
+        try {
+            TransportResponse result = delegate.send(request);
+            response.complete(result);
+            return result;
+        } catch (TransportException | RuntimeException e) {
+            response.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, response);
+        }
+    }
+
+    @Override
+    public CompletableFuture<TransportResponse> sendAsync(TransportRequest request) {
+        if (isWrite(request)) {
+            stopSharing(request);
+            return delegate.sendAsync(request).whenComplete((result, e) -> stopSharing(request));
+        }
+        if (!isCoalesced(request)) {
+            return delegate.sendAsync(request);
+        }
+        String key = keyOf(request);
+        CompletableFuture<TransportResponse> response = new CompletableFuture<>();
+        CompletableFuture<TransportResponse> existing = inFlight.putIfAbsent(key, response);
+        if (existing != null) {
+            ClientMetrics.increment(COALESCED_METRIC);
+            return existing.thenApply(result -> result);
+        }
+        ClientMetrics.increment(SENT_METRIC);
+        delegate.sendAsync(request).whenComplete((result, e) -> {
+            inFlight.remove(key, response);
+            if (e == null) {
+                response.complete(result);
+            } else {
+                response.completeExceptionally(e);
+            }
+        });
+        // Callers get their own future, so one caller cancelling does not affect the others
+        return response.thenApply(result -> result);
+    }
+
+    @Override
+    public <T> T stream(TransportRequest request, BodyReader<T> reader) throws TransportException {
+        if (isWrite(request)) {
+            stopSharing(request);
+            try {
+                return delegate.stream(request, reader);
+            } finally {
+                stopSharing(request);
+            }
+        }
+        return delegate.stream(request, reader);
+    }
+
+    /**
+     * @return the number of distinct requests in flight
+     */
+    int getInFlightCount() {
+        return inFlight.size();
+    }
+
+
+    // ***** Helper Methods ***************************************************
+
+    private static boolean isCoalesced(TransportRequest request) {
+        return request.getMethod().equals("GET") && request.getBody() == null;
+    }
+
+    private static boolean isWrite(TransportRequest request) {
+        return !request.getMethod().equals("GET") && !request.getMethod().equals("HEAD");
+    }
+
+    private static String keyOf(TransportRequest request) {
+        return request.getUrl() + "\n" + request.getHeader("Authorization") + "\n" + request.getHeader("Accept");
+    }
+
+    /**
+     * Removes the GETs in flight for the url written to, or a url under or above it, so later GETs do not join
+     * them. Their callers still get their responses.
+     */
+    private void stopSharing(TransportRequest write) {
+        String written = pathOf(write.getUrl());
+        inFlight.keySet().removeIf(key -> {
+            String path = pathOf(key.substring(0, key.indexOf('\n')));
+            return isSameOrUnder(path, written) || isSameOrUnder(written, path);
+        });
+    }
+
+    private static String pathOf(String url) {
+        int query = url.indexOf('?');
+        String path = query < 0 ? url : url.substring(0, query);
+        return path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+
+    private static boolean isSameOrUnder(String path, String parent) {
+        return path.equals(parent) || path.startsWith(parent + "/");
+    }
+
+    private static TransportResponse await(TransportRequest request, CompletableFuture<TransportResponse> response)
+            throws TransportException {
+        try {
+            return response.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TransportException) {
+                throw (TransportException) e.getCause();
+            }
+            throw new TransportException(request + ": " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransportException(request + ": interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.techelevator.services;
+
+import com.techelevator.utils.ClientMetrics;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CompressingTransport wraps another transport and compresses what goes over the wire with gzip. It asks the
+ * server for compressed responses with Accept-Encoding: gzip and decompresses the ones it gets, so the layers
+ * above always see plain JSON. Streamed responses are decompressed as they are read, so a large response is never
+ * held in memory in either form.
+ *
+ * Request bodies are compressed too, with Content-Encoding: gzip, if they are at least the given size and the
+ * compressed body is smaller. The server has to be configured to accept compressed requests, so this is off
+ * unless a size is given.
+ *
+ * The bytes on the wire and the bytes they decompress to are counted in the metrics counters
+ * http.gzip.response.wire.bytes and http.gzip.response.bytes, along with the number of compressed responses and
+ * the time spent decompressing them, and likewise for requests. For a streamed response the time spent waiting for
+ * the network is left out.
+ */
+public class CompressingTransport implements HttpTransport {
+
+    public static final String RESPONSES_METRIC = "http.gzip.responses";
+    public static final String RESPONSE_WIRE_BYTES_METRIC = "http.gzip.response.wire.bytes";
+    public static final String RESPONSE_BYTES_METRIC = "http.gzip.response.bytes";
+    public static final String RESPONSE_NANOS_METRIC = "http.gzip.response.nanos";
+    public static final String REQUESTS_METRIC = "http.gzip.requests";
+    public static final String REQUEST_WIRE_BYTES_METRIC = "http.gzip.request.wire.bytes";
+    public static final String REQUEST_BYTES_METRIC = "http.gzip.request.bytes";
+    public static final String REQUEST_NANOS_METRIC = "http.gzip.request.nanos";
+
+    private static final String GZIP = "gzip";
+    private static final int BUFFER_SIZE = 8192;
+
+    private final HttpTransport delegate;
+    private final int requestMinBytes;
+
+    /**
+     * @param delegate the transport that sends the requests
+     * @param requestMinBytes the smallest request body to compress; 0 to never compress request bodies
+     */
+    public CompressingTransport(HttpTransport delegate, int requestMinBytes) {
+        this.delegate = delegate;
+        this.requestMinBytes = requestMinBytes;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public TransportResponse send(TransportRequest request) throws TransportException {
+        return decode(request, delegate.send(encode(request)));
+    }
+
+    @Override
+    public CompletableFuture<TransportResponse> sendAsync(TransportRequest request) {
+        CompletableFuture<TransportResponse> future = new CompletableFuture<>();
+        TransportRequest encoded;
+        try {
+            encoded = encode(request);
+        } catch (TransportException e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+        delegate.sendAsync(encoded).whenComplete((response, e) -> {
+            if (e != null) {
+                future.completeExceptionally(e);
+                return;
+            }
+            try {
+                future.complete(decode(request, response));
+            } catch (TransportException failure) {
+                future.completeExceptionally(failure);
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public <T> T stream(TransportRequest request, BodyReader<T> reader) throws TransportException {
+        return delegate.stream(encode(request), body -> {
+            // The reader is not given the headers, so a compressed body is recognized by its first two bytes,
+            // which JSON never starts with
+            PushbackInputStream in = new PushbackInputStream(body, 2);
+            int first = in.read();
+            int second = in.read();
+            if (second >= 0) {
+                in.unread(second);
+            }
+            if (first >= 0) {
+                in.unread(first);
+            }
+            if (first != 0x1F || second != 0x8B) {
+                return reader.read(in);
+            }
+            MeteredInputStream wire = new MeteredInputStream(in);
+            MeteredInputStream decoded = new MeteredInputStream(new GZIPInputStream(wire, BUFFER_SIZE));
+            try {
+                return reader.read(decoded);
+            } finally {
+                recordResponse(wire.bytes, decoded.bytes, decoded.nanos - wire.nanos);
+            }
+        });
+    }
+
+
+    // ***** Helper Methods ***************************************************
+
+    /**
+     * @return the request asking for a compressed response, with its body compressed if it is large enough
+     */
+    private TransportRequest encode(TransportRequest request) throws TransportException {
+        Map<String, String> headers = new LinkedHashMap<>(request.getHeaders());
+        if (request.getHeader("Accept-Encoding") == null) {
+            headers.put("Accept-Encoding", GZIP);
+        }
+        byte[] body = request.getBody();
+        if (body != null && requestMinBytes > 0 && body.length >= requestMinBytes &&
+                request.getHeader("Content-Encoding") == null) {
+            long start = System.nanoTime();
+            byte[] compressed = compress(request, body);
+            long nanos = System.nanoTime() - start;
+            if (compressed.length < body.length) {
+                ClientMetrics.increment(REQUESTS_METRIC);
+                ClientMetrics.add(REQUEST_BYTES_METRIC, body.length);
+                ClientMetrics.add(REQUEST_WIRE_BYTES_METRIC, compressed.length);
+                ClientMetrics.add(REQUEST_NANOS_METRIC, nanos);
+                headers.put("Content-Encoding", GZIP);
+                body = compressed;
+            }
+        }
+        return new TransportRequest(request.getMethod(), request.getUrl(), headers, body, request.getTimeout());
+    }
+
+    /**
+     * @return the response with its body decompressed if it was compressed
+     */
+    private static TransportResponse decode(TransportRequest request, TransportResponse response)
+            throws TransportException {
+        String encoding = response.getHeader("Content-Encoding");
+        if (encoding == null || !encoding.trim().equalsIgnoreCase(GZIP) || response.getBody().length == 0) {
+            return response;
+        }
+        long start = System.nanoTime();
+        byte[] body;
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getBody()), BUFFER_SIZE)) {
+            body = in.readAllBytes();
+        } catch (IOException e) {
+            throw new TransportException(request + ": the response could not be decompressed: " + e.getMessage(), e);
+        }
+        recordResponse(response.getBody().length, body.length, System.nanoTime() - start);
+
+        Map<String, String> headers = new HashMap<>(response.getHeaders());
+        headers.remove("content-encoding");
+        headers.remove("content-length");
+        return new TransportResponse(response.getStatusCode(), headers, body);
+    }
+
+    private static byte[] compress(TransportRequest request, byte[] body) throws TransportException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (OutputStream out = new GZIPOutputStream(compressed, BUFFER_SIZE)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new TransportException(request + ": the request could not be compressed: " + e.getMessage(), e);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static void recordResponse(long wireBytes, long bytes, long nanos) {
+        ClientMetrics.increment(RESPONSES_METRIC);
+        ClientMetrics.add(RESPONSE_WIRE_BYTES_METRIC, wireBytes);
+        ClientMetrics.add(RESPONSE_BYTES_METRIC, bytes);
+        ClientMetrics.add(RESPONSE_NANOS_METRIC, Math.max(0, nanos));
+    }
+
+
+    // ***** inner class: MeteredInputStream **********************************
+
+    /**
+     * Counts the bytes read through it and the time spent reading them.
+     */
+    private static class MeteredInputStream extends FilterInputStream {
+        private long bytes;
+        private long nanos;
+
+        private MeteredInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            long start = System.nanoTime();
+            int b = super.read();
+            nanos += System.nanoTime() - start;
+            if (b >= 0) {
+                ++bytes;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            long start = System.nanoTime();
+            int count = super.read(buffer, offset, length);
+            nanos += System.nanoTime() - start;
+            if (count > 0) {
+                bytes += count;
+            }
+            return count;
+        }
+    }
+}
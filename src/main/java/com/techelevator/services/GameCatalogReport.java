@@ -0,0 +1,186 @@
+package com.techelevator.services;
+
+import com.techelevator.model.Game;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * GameCatalogReport summarizes a catalog of games: games per type and month, gaps in the daily calendar,
+ * duplicate words, and how often each letter appears in each position of the answers.
+ *
+ * Games are added in batches as they are read from the server. Each batch is aggregated with a parallel stream
+ * into a partial report using primitive counters, which is then combined into the running total, so only one
+ * batch of games is ever held in memory.
+ */
+public class GameCatalogReport {
+
+    private static final int LETTER_COUNT = 26;
+
+    private int gameCount;
+    private final Map<YearMonth, int[]> gamesPerMonth = new HashMap<>();
+    private final Map<String, Integer> wordCounts = new HashMap<>();
+    private final long[][] letterCounts = new long[Game.WORD_LENGTH][LETTER_COUNT];
+
+    // Days with a daily game, indexed by LocalDate.toEpochDay(); daily games dated before 1970 are not included
+    private final BitSet dailyDays = new BitSet();
+
+    /**
+     * Adds a batch of games to the report.
+     * @param games the games to add
+     */
+    public void addAll(List<Game> games) {
+        combine(games.parallelStream().collect(GameCatalogReport::new, GameCatalogReport::add, GameCatalogReport::combine));
+    }
+
+    /**
+     * Adds a single game to the report.
+     * @param game the game to add
+     */
+    public void add(Game game) {
+        gameCount++;
+        if (game.getDate() != null) {
+            int[] counts = gamesPerMonth.computeIfAbsent(YearMonth.from(game.getDate()), month -> new int[Game.Type.values().length]);
+            counts[game.getType().ordinal()]++;
+            if (game.getType() == Game.Type.DAILY && game.getDate().toEpochDay() >= 0) {
+                dailyDays.set((int) game.getDate().toEpochDay());
+            }
+        }
+        String word = game.getWord();
+        if (word != null) {
+            wordCounts.merge(word, 1, Integer::sum);
+            for (int position = 0; position < Math.min(word.length(), Game.WORD_LENGTH); ++position) {
+                int letter = Character.toLowerCase(word.charAt(position)) - 'a';
+                if (letter >= 0 && letter < LETTER_COUNT) {
+                    letterCounts[position][letter]++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the counts from another report to this one.
+     * @param other the report to combine with this one
+     */
+    public void combine(GameCatalogReport other) {
+        gameCount += other.gameCount;
+        other.gamesPerMonth.forEach((month, counts) -> {
+            int[] total = gamesPerMonth.computeIfAbsent(month, m -> new int[counts.length]);
+            for (int i = 0; i < counts.length; ++i) {
+                total[i] += counts[i];
+            }
+        });
+        other.wordCounts.forEach((word, count) -> wordCounts.merge(word, count, Integer::sum));
+        for (int position = 0; position < Game.WORD_LENGTH; ++position) {
+            for (int letter = 0; letter < LETTER_COUNT; ++letter) {
+                letterCounts[position][letter] += other.letterCounts[position][letter];
+            }
+        }
+        dailyDays.or(other.dailyDays);
+    }
+
+    public int getGameCount() {
+        return gameCount;
+    }
+
+    /**
+     * @return the number of games of each type, indexed by Game.Type ordinal, for each month in order
+     */
+    public Map<YearMonth, int[]> getGamesPerMonth() {
+        return new TreeMap<>(gamesPerMonth);
+    }
+
+    /**
+     * @return the first date with a daily game, or null if there are none
+     */
+    public LocalDate getFirstDailyDate() {
+        return dailyDays.isEmpty() ? null : LocalDate.ofEpochDay(dailyDays.nextSetBit(0));
+    }
+
+    /**
+     * @return the last date with a daily game, or null if there are none
+     */
+    public LocalDate getLastDailyDate() {
+        return dailyDays.isEmpty() ? null : LocalDate.ofEpochDay(dailyDays.length() - 1);
+    }
+
+    /**
+     * @return the ranges of days with no daily game between the first and last daily games, in date order
+     */
+    public List<Gap> getDailyGaps() {
+        List<Gap> gaps = new ArrayList<>();
+        int day = dailyDays.nextClearBit(dailyDays.nextSetBit(0) + 1);
+        while (day < dailyDays.length()) {
+            int nextDailyDay = dailyDays.nextSetBit(day);
+            gaps.add(new Gap(LocalDate.ofEpochDay(day), LocalDate.ofEpochDay(nextDailyDay - 1)));
+            day = dailyDays.nextClearBit(nextDailyDay);
+        }
+        return gaps;
+    }
+
+    /**
+     * @return the words used by more than one game and how many games use each, most used first
+     */
+    public Map<String, Integer> getDuplicateWords() {
+        return wordCounts.entrySet().stream().filter(entry -> entry.getValue() > 1).
+                sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey())).
+                collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    /**
+     * @param position the letter position
+     * @param letter the letter, 'a' to 'z'
+     * @return the number of answers with the letter at the position
+     */
+    public long getLetterCount(int position, char letter) {
+        return letterCounts[position][letter - 'a'];
+    }
+
+    /**
+     * @param letter the letter, 'a' to 'z'
+     * @return the number of times the letter appears in all answers
+     */
+    public long getLetterCount(char letter) {
+        long total = 0;
+        for (int position = 0; position < Game.WORD_LENGTH; ++position) {
+            total += letterCounts[position][letter - 'a'];
+        }
+        return total;
+    }
+
+
+    // ***** inner class: Gap *************************************************
+
+    /**
+     * A range of days with no daily game.
+     */
+    public static class Gap {
+        private final LocalDate first;
+        private final LocalDate last;
+
+        public Gap(LocalDate first, LocalDate last) {
+            this.first = first;
+            this.last = last;
+        }
+
+        public LocalDate getFirst() {
+            return first;
+        }
+
+        public LocalDate getLast() {
+            return last;
+        }
+
+        public long getDays() {
+            return last.toEpochDay() - first.toEpochDay() + 1;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package com.techelevator.services;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techelevator.model.Game;
+import com.techelevator.utils.BasicLogger;
+import com.techelevator.utils.BulkExecutor;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * GameImporter creates games on the server from a CSV or JSON file.
+ *
+ * The file is read one row at a time, and each game is created with GameService.add on a BulkExecutor, so a
+ * bounded number of requests are in flight at once and no more than a given number start per second.
+ *
+ * CSV files have one game per line as date,word,type (the type is optional and defaults to DAILY, and a header
+ * line is skipped). JSON files hold an array of objects with date, word and type properties.
+ *
+ * Rows that fail are written to a [file].errors.csv file with the reason. Progress is saved to a
+ * [file].checkpoint file holding the last row number up to which every row has been handled, so an interrupted
+ * import picks up where it left off when it is run again. The checkpoint is removed once every row has been
+ * handled, so importing the file again starts from the beginning. The errors file is started afresh by an import
+ * that starts from the beginning, and added to by one that resumes.
+ */
+public class GameImporter {
+
+    private static final long PROGRESS_INTERVAL_NANOS = 1_000_000_000L;
+    private static final int MAX_ERRORS_IN_RESULT = 10;
+
+    private final GameService gameService;
+    private final int maxInFlight;
+    private final double requestsPerSecond;
+
+    /**
+     * @param gameService the service used to create the games
+     * @param maxInFlight the maximum number of requests in flight at once
+     * @param requestsPerSecond the maximum number of requests started per second; zero or less for no limit
+     */
+    public GameImporter(GameService gameService, int maxInFlight, double requestsPerSecond) {
+        this.gameService = gameService;
+        this.maxInFlight = maxInFlight;
+        this.requestsPerSecond = requestsPerSecond;
+    }
+
+    /**
+     * Imports the games in a file, resuming from the last checkpoint if there is one.
+     *
+     * @param file the CSV or JSON file to import
+     * @param progress receives a progress message about once a second
+     * @return a summary of the import
+     * @throws IOException if the file could not be read
+     * @throws InterruptedException if interrupted while waiting for requests to complete
+     */
+    public Result importGames(Path file, Consumer<String> progress) throws IOException, InterruptedException {
+        Path checkpointFile = file.resolveSibling(file.getFileName() + ".checkpoint");
+        Path errorFile = file.resolveSibling(file.getFileName() + ".errors.csv");
+        int resumeAfter = readCheckpoint(checkpointFile);
+        Checkpoint checkpoint = new Checkpoint(resumeAfter);
+        Result result = new Result(resumeAfter);
+        boolean finished = false;
+
+        try (RowReader reader = file.toString().toLowerCase().endsWith(".json") ? new JsonRowReader(file) : new CsvRowReader(file);
+             PrintWriter errorWriter = new PrintWriter(Files.newBufferedWriter(errorFile, StandardCharsets.UTF_8,
+                     StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     resumeAfter > 0 ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING))) {
+            BulkExecutor executor = new BulkExecutor(maxInFlight, requestsPerSecond);
+
+            long lastProgress = System.nanoTime();
+            Row row;
+            try {
+                while ((row = reader.next()) != null) {
+                    if (row.number <= resumeAfter) {
+                        continue;
+                    }
+                    result.rowsRead++;
+                    Row currentRow = row;
+                    Game game;
+                    try {
+                        game = row.toGame();
+                    } catch (IllegalArgumentException e) {
+                        result.fail(errorWriter, currentRow, e.getMessage());
+                        checkpoint.complete(currentRow.number);
+                        continue;
+                    }
+                    executor.submit(() -> {
+                        // Every row is counted and completed, even if creating its game throws
+                        try {
+                            if (gameService.add(game) == null) {
+                                result.fail(errorWriter, currentRow, "The server did not create the game; see the log for details");
+                            } else {
+                                result.gamesCreated.incrementAndGet();
+                            }
+                        } catch (RuntimeException e) {
+                            BasicLogger.log(e);
+                            result.fail(errorWriter, currentRow, "The game could not be created: " + e);
+                        } finally {
+                            checkpoint.complete(currentRow.number);
+                        }
+                    });
+
+                    long now = System.nanoTime();
+                    if (now - lastProgress >= PROGRESS_INTERVAL_NANOS) {
+                        lastProgress = now;
+                        writeCheckpoint(checkpointFile, checkpoint.getLastRow());
+                        progress.accept(String.format("%d rows read, %d games created, %d failed (%.1f rows/s)",
+                                result.rowsRead, result.getGamesCreated(), result.getRowsFailed(), result.getRowsPerSecond()));
+                    }
+                }
+                finished = true;
+            } finally {
+                // Let the requests in flight finish, so the checkpoint covers every game that was created
+                executor.awaitCompletion();
+            }
+        } finally {
+            result.finish();
+            // Every row has been handled only if the whole file was read and no request is still in flight
+            if (finished && checkpoint.getLastRow() == resumeAfter + result.getRowsRead()) {
+                Files.deleteIfExists(checkpointFile);
+            } else {
+                writeCheckpoint(checkpointFile, checkpoint.getLastRow());
+            }
+        }
+        return result;
+    }
+
+
+    // ***** Helper Methods ***************************************************
+
+    private static int readCheckpoint(Path checkpointFile) throws IOException {
+        if (!Files.exists(checkpointFile)) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(Files.readString(checkpointFile).trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static void writeCheckpoint(Path checkpointFile, int lastRow) throws IOException {
+        Files.writeString(checkpointFile, String.valueOf(lastRow));
+    }
+
+
+    // ***** inner class: Result **********************************************
+
+    /**
+     * A summary of an import.
+     */
+    public static class Result {
+        private final int resumedAfterRow;
+        private final long startNanos = System.nanoTime();
+        private long elapsedNanos;
+        private int rowsRead;
+        private final AtomicInteger gamesCreated = new AtomicInteger();
+        private final AtomicInteger rowsFailed = new AtomicInteger();
+        private final List<String> errors = new ArrayList<>();
+
+        private Result(int resumedAfterRow) {
+            this.resumedAfterRow = resumedAfterRow;
+        }
+
+        /**
+         * @return the row the import resumed after, or 0 if it started at the beginning of the file
+         */
+        public int getResumedAfterRow() {
+            return resumedAfterRow;
+        }
+
+        public int getRowsRead() {
+            return rowsRead;
+        }
+
+        public int getGamesCreated() {
+            return gamesCreated.get();
+        }
+
+        public int getRowsFailed() {
+            return rowsFailed.get();
+        }
+
+        /**
+         * @return the first few row errors; every error is in the errors file
+         */
+        public synchronized List<String> getErrors() {
+            return new ArrayList<>(errors);
+        }
+
+        public double getElapsedSeconds() {
+            return (elapsedNanos > 0 ? elapsedNanos : System.nanoTime() - startNanos) / 1e9;
+        }
+
+        public double getRowsPerSecond() {
+            double seconds = getElapsedSeconds();
+            return seconds > 0 ? (getGamesCreated() + getRowsFailed()) / seconds : 0.0;
+        }
+
+        private synchronized void fail(PrintWriter errorWriter, Row row, String message) {
+            rowsFailed.incrementAndGet();
+            String error = String.format("Row %d: %s", row.number, message);
+            if (errors.size() < MAX_ERRORS_IN_RESULT) {
+                errors.add(error);
+            }
+            errorWriter.printf("%d,%s,%s,%s,\"%s\"%n", row.number, row.date, row.word, row.type, message.replace("\"", "'"));
+            errorWriter.flush();
+        }
+
+        private void finish() {
+            elapsedNanos = System.nanoTime() - startNanos;
+        }
+    }
+
+
+    // ***** inner class: Checkpoint ******************************************
+
+    /**
+     * Tracks the last row up to which every row has been handled. Rows complete out of order, so rows that
+     * complete early are remembered until the rows before them are done.
+     */
+    private static class Checkpoint {
+        private int lastRow;
+        private final BitSet completedAhead = new BitSet();
+
+        private Checkpoint(int lastRow) {
+            this.lastRow = lastRow;
+        }
+
+        private synchronized void complete(int row) {
+            completedAhead.set(row - lastRow - 1);
+            int done = completedAhead.nextClearBit(0);
+            if (done > 0) {
+                lastRow += done;
+                BitSet remaining = completedAhead.get(done, Math.max(done, completedAhead.length()));
+                completedAhead.clear();
+                completedAhead.or(remaining);
+            }
+        }
+
+        private synchronized int getLastRow() {
+            return lastRow;
+        }
+    }
+
+
+    // ***** inner classes: Row and readers *************************************
+
+    private static class Row {
+        private final int number;
+        private final String date;
+        private final String word;
+        private final String type;
+
+        private Row(int number, String date, String word, String type) {
+            this.number = number;
+            this.date = date == null ? "" : date.trim();
+            this.word = word == null ? "" : word.trim().toLowerCase();
+            this.type = type == null || type.isBlank() ? Game.Type.DAILY.name() : type.trim().toUpperCase();
+        }
+
+        private Game toGame() {
+            LocalDate gameDate;
+            try {
+                gameDate = LocalDate.parse(date);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException(String.format("'%s' is not a date in YYYY-MM-DD format", date));
+            }
+            if (word.length() != Game.WORD_LENGTH || !word.chars().allMatch(Character::isLetter)) {
+                throw new IllegalArgumentException(String.format("'%s' is not a 5 letter word", word));
+            }
+            Game.Type gameType;
+            try {
+                gameType = Game.Type.valueOf(type);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(String.format("'%s' is not a game type", type));
+            }
+            return new Game(0, word, gameDate, gameType);
+        }
+    }
+
+    private interface RowReader extends Closeable {
+        /**
+         * @return the next row, or null at the end of the file
+         */
+        Row next() throws IOException;
+    }
+
+    private static class CsvRowReader implements RowReader {
+        private final BufferedReader reader;
+        private int lineNumber;
+        private int rowNumber;
+
+        private CsvRowReader(Path file) throws IOException {
+            reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public Row next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && line.toLowerCase().startsWith("date"))) {
+                    continue;
+                }
+                String[] fields = line.split(",", -1);
+                rowNumber++;
+                return new Row(rowNumber, fields[0], fields.length > 1 ? fields[1] : null, fields.length > 2 ? fields[2] : null);
+            }
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private static class JsonRowReader implements RowReader {
+        private static final ObjectMapper MAPPER = new ObjectMapper();
+
+        private final JsonParser parser;
+        private int rowNumber;
+
+        private JsonRowReader(Path file) throws IOException {
+            parser = MAPPER.getFactory().createParser(file.toFile());
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                parser.close();
+                throw new IOException("A JSON import file must contain an array of games.");
+            }
+        }
+
+        @Override
+        public Row next() throws IOException {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            JsonNode node = MAPPER.readTree(parser);
+            rowNumber++;
+            return new Row(rowNumber, node.path("date").asText(null), node.path("word").asText(null),
+                    node.path("type").asText(null));
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
+}
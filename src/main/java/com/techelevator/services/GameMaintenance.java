@@ -0,0 +1,165 @@
+package com.techelevator.services;
+
+import com.techelevator.model.Game;
+import com.techelevator.utils.BasicLogger;
+import com.techelevator.utils.BulkExecutor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * GameMaintenance updates or deletes many games at once.
+ *
+ * Games are selected from the list returned by GameService.getAllGames, by date range and type. The selected
+ * games are then updated or deleted one request per game on a BulkExecutor, so a bounded number of requests are
+ * in flight at once and no more than a given number start per second.
+ */
+public class GameMaintenance {
+
+    private static final long PROGRESS_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final GameService gameService;
+    private final int maxInFlight;
+    private final double requestsPerSecond;
+
+    /**
+     * @param gameService the service used to update and delete the games
+     * @param maxInFlight the maximum number of requests in flight at once
+     * @param requestsPerSecond the maximum number of requests started per second; zero or less for no limit
+     */
+    public GameMaintenance(GameService gameService, int maxInFlight, double requestsPerSecond) {
+        this.gameService = gameService;
+        this.maxInFlight = maxInFlight;
+        this.requestsPerSecond = requestsPerSecond;
+    }
+
+    /**
+     * Selects games by date range and type.
+     *
+     * @param games the games to select from
+     * @param from the earliest date to select, or null for no earliest date
+     * @param to the latest date to select, or null for no latest date
+     * @param type the type of game to select, or null for any type
+     * @return the selected games, in the order given
+     */
+    public static List<Game> select(List<Game> games, LocalDate from, LocalDate to, Game.Type type) {
+        Predicate<Game> selected = game -> (type == null || game.getType() == type) &&
+                (from == null || (game.getDate() != null && !game.getDate().isBefore(from))) &&
+                (to == null || (game.getDate() != null && !game.getDate().isAfter(to)));
+        return games.stream().filter(selected).collect(Collectors.toList());
+    }
+
+    /**
+     * Changes the type of each of the given games.
+     *
+     * @param games the games to update
+     * @param type the new type for the games
+     * @param progress receives a progress message about once a second
+     * @return a summary of the updates
+     * @throws InterruptedException if interrupted while waiting for requests to complete
+     */
+    public Result changeType(List<Game> games, Game.Type type, Consumer<String> progress) throws InterruptedException {
+        return run(games, game -> gameService.update(new Game(game.getGameId(), game.getWord(), game.getDate(), type)) != null,
+                "updated", progress);
+    }
+
+    /**
+     * Deletes each of the given games.
+     *
+     * @param games the games to delete
+     * @param progress receives a progress message about once a second
+     * @return a summary of the deletes
+     * @throws InterruptedException if interrupted while waiting for requests to complete
+     */
+    public Result delete(List<Game> games, Consumer<String> progress) throws InterruptedException {
+        return run(games, game -> gameService.delete(game.getGameId()), "deleted", progress);
+    }
+
+
+    // ***** Helper Methods ***************************************************
+
+    private Result run(List<Game> games, Function<Game, Boolean> action, String verb, Consumer<String> progress)
+            throws InterruptedException {
+        Result result = new Result(games.size());
+        BulkExecutor executor = new BulkExecutor(maxInFlight, requestsPerSecond);
+        long lastProgress = System.nanoTime();
+        try {
+            for (Game game : games) {
+                executor.submit(() -> {
+                    // Every game is counted, even if the action throws
+                    boolean succeeded = false;
+                    try {
+                        succeeded = action.apply(game);
+                    } catch (RuntimeException e) {
+                        BasicLogger.log(e);
+                    } finally {
+                        if (succeeded) {
+                            result.succeeded.incrementAndGet();
+                        } else {
+                            result.failed.incrementAndGet();
+                        }
+                    }
+                });
+                long now = System.nanoTime();
+                if (now - lastProgress >= PROGRESS_INTERVAL_NANOS) {
+                    lastProgress = now;
+                    progress.accept(String.format("%d of %d games %s, %d failed (%.1f games/s)",
+                            result.getSucceeded(), result.getSelected(), verb, result.getFailed(),
+                            result.getGamesPerSecond()));
+                }
+            }
+        } finally {
+            executor.awaitCompletion();
+            result.finish();
+        }
+        return result;
+    }
+
+
+    // ***** inner class: Result **********************************************
+
+    /**
+     * A summary of a bulk update or delete.
+     */
+    public static class Result {
+        private final int selected;
+        private final long startNanos = System.nanoTime();
+        private long elapsedNanos;
+        private final AtomicInteger succeeded = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+
+        private Result(int selected) {
+            this.selected = selected;
+        }
+
+        public int getSelected() {
+            return selected;
+        }
+
+        public int getSucceeded() {
+            return succeeded.get();
+        }
+
+        public int getFailed() {
+            return failed.get();
+        }
+
+        public double getElapsedSeconds() {
+            return (elapsedNanos > 0 ? elapsedNanos : System.nanoTime() - startNanos) / 1e9;
+        }
+
+        public double getGamesPerSecond() {
+            double seconds = getElapsedSeconds();
+            return seconds > 0 ? (getSucceeded() + getFailed()) / seconds : 0.0;
+        }
+
+        private void finish() {
+            elapsedNanos = System.nanoTime() - startNanos;
+        }
+    }
+}
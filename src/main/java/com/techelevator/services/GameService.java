@@ -1,16 +1,21 @@
 package com.techelevator.services;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.techelevator.model.Game;
 import com.techelevator.model.UserGame;
 import com.techelevator.utils.BasicLogger;
-import org.springframework.http.*;
-import org.springframework.web.client.ResourceAccessException;
-import org.springframework.web.client.RestClientResponseException;
-import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 /**
  * GameService is a class for managing requests made to the server REST API for games.
@@ -20,8 +25,14 @@ import java.util.List;
  **/
 public class GameService {
 
-    private final String apiBaseUrl;
-    private final RestTemplate restTemplate = new RestTemplate();
+    // Every game, or a user's whole history, can take a while to send, so those requests get longer timeouts
+    private static final Duration LIST_TIMEOUT_FLOOR = Duration.ofSeconds(5);
+    private static final Duration LIST_TIMEOUT_CEILING = Duration.ofSeconds(60);
+
+    private final ApiClient apiClient;
+
+    // Reads games one at a time from a response
+    private final ObjectReader gameReader;
 
     // credential token for the currently logged-in user
     private String authToken = null;
@@ -34,7 +45,20 @@ public class GameService {
      * @param url Base URL for the server REST API
      */
     public GameService(String url) {
-        this.apiBaseUrl = url;
+        this(url, new RestTemplateTransport());
+    }
+
+    /**
+     * Constructor - sends requests with the given transport.
+     *
+     * @param url Base URL for the server REST API
+     * @param transport the transport used to send requests to the server
+     */
+    public GameService(String url, HttpTransport transport) {
+        this.apiClient = new ApiClient(url, transport);
+        apiClient.getTimeouts().setLimits("GET games", LIST_TIMEOUT_FLOOR, LIST_TIMEOUT_CEILING);
+        apiClient.getTimeouts().setLimits("GET users/{id}/games", LIST_TIMEOUT_FLOOR, LIST_TIMEOUT_CEILING);
+        this.gameReader = apiClient.getObjectMapper().readerFor(Game.class);
     }
 
     /**
@@ -52,23 +76,38 @@ public class GameService {
      */
     public List<Game> getAllGames() {
         try {
-            List<Game> games = new ArrayList<Game>();
-            ResponseEntity<Game[]> response = restTemplate.exchange(apiBaseUrl + "games", HttpMethod.GET,
-                    makeAuthEntity(), Game[].class);
-            games = new ArrayList<>(Arrays.asList(response.getBody()));
-            return games;
-        } catch (RestClientResponseException | ResourceAccessException e) {
+            return new ArrayList<>(Arrays.asList(apiClient.get("games", authToken, Game[].class)));
+        } catch (TransportException e) {
             BasicLogger.log(e.getMessage());
             return null;
         }
     }
 
+    /**
+     * Gets all games from the server REST API, parsing the response one game at a time instead of building the
+     * whole list in memory. This keeps memory use bounded for very large game catalogs.
+     *
+     * @param batchSize the maximum number of games passed to the consumer at once
+     * @param batchConsumer receives the games, in batches of up to batchSize, in the order returned by the server
+     * @return true if successful, false if an error occurred
+     */
+    public boolean streamAllGames(int batchSize, Consumer<List<Game>> batchConsumer) {
+        try {
+            apiClient.stream("games", authToken, body -> {
+                readGames(body, batchSize, batchConsumer);
+                return null;
+            });
+            return true;
+        } catch (TransportException e) {
+            BasicLogger.log(e.getMessage());
+            return false;
+        }
+    }
+
     public Game getTodaysGame() {
         try {
-            ResponseEntity<Game> response = restTemplate.exchange(apiBaseUrl + "games/today", HttpMethod.GET,
-                    makeAuthEntity(), Game.class);
-            return response.getBody();
-        } catch (RestClientResponseException | ResourceAccessException e) {
+            return apiClient.get("games/today", authToken, Game.class);
+        } catch (TransportException e) {
             BasicLogger.log(e.getMessage());
             return null;
         }
@@ -81,9 +120,8 @@ public class GameService {
      */
     public Game add(Game newGame) {
         try {
-            HttpEntity<Game> entity = makeGameEntity(newGame);
-            return restTemplate.postForObject(apiBaseUrl + "games", entity, Game.class);
-        } catch (RestClientResponseException | ResourceAccessException e) {
+            return apiClient.post("games", authToken, newGame, Game.class);
+        } catch (TransportException e) {
             BasicLogger.log(e.getMessage());
             return null;
         }
@@ -96,11 +134,8 @@ public class GameService {
      */
     public Game update(Game updatedGame) {
         try {
-            HttpEntity<Game> entity = makeGameEntity(updatedGame);
-            ResponseEntity<Game> response = restTemplate.exchange(String.format("%s/games/%d", apiBaseUrl, updatedGame.getGameId()), HttpMethod.PUT,
-                    entity, Game.class);
-            return response.getBody();
-        }  catch (RestClientResponseException | ResourceAccessException e) {
+            return apiClient.put("games/" + updatedGame.getGameId(), authToken, updatedGame, Game.class);
+        } catch (TransportException e) {
             BasicLogger.log(e.getMessage());
             return null;
         }
@@ -113,9 +148,9 @@ public class GameService {
      */
     public boolean delete(int id) {
         try {
-            restTemplate.exchange(String.format("%s/games/%d", apiBaseUrl, id), HttpMethod.DELETE, makeAuthEntity(), Void.class);
+            apiClient.delete("games/" + id, authToken);
             return true;
-        } catch (RestClientResponseException | ResourceAccessException e) {
+        } catch (TransportException e) {
             BasicLogger.log(e.getMessage());
             return false;
         }
@@ -123,23 +158,36 @@ public class GameService {
 
     public UserGame getUserGame(int userId, int gameId) {
         try {
-            ResponseEntity<UserGame> response = restTemplate.exchange(
-                    apiBaseUrl + "users/" + userId + "/games/" + gameId,
-                    HttpMethod.GET, makeAuthEntity(), UserGame.class);
-            return response.getBody();
-        } catch (RestClientResponseException | ResourceAccessException e) {
+            return apiClient.get("users/" + userId + "/games/" + gameId, authToken, UserGame.class);
+        } catch (TransportException e) {
             BasicLogger.log(e.getMessage());
             return null;
         }
     }
 
+    /**
+     * Gets a user's game, telling a game the user has not started apart from a request that failed.
+     *
+     * @param userId the user
+     * @param gameId the game
+     * @return the user's game, or null if the user has not started the game
+     * @throws TransportException if the game could not be retrieved
+     */
+    public UserGame findUserGame(int userId, int gameId) throws TransportException {
+        try {
+            return apiClient.get("users/" + userId + "/games/" + gameId, authToken, UserGame.class);
+        } catch (TransportException e) {
+            if (e.getStatusCode() == 404) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
     public List<UserGame> getUserGames(int userId) {
         try {
-            ResponseEntity<UserGame[]> response = restTemplate.exchange(
-                    apiBaseUrl + "users/" + userId + "/games",
-                    HttpMethod.GET, makeAuthEntity(), UserGame[].class);
-            return new ArrayList<>(Arrays.asList(response.getBody()));
-        } catch (RestClientResponseException | ResourceAccessException e) {
+            return new ArrayList<>(Arrays.asList(apiClient.get("users/" + userId + "/games", authToken, UserGame[].class)));
+        } catch (TransportException e) {
             BasicLogger.log(e.getMessage());
             return null;
         }
@@ -152,69 +200,104 @@ public class GameService {
      */
     public UserGame createUserGame(UserGame userGame) {
         try {
-            return restTemplate.postForObject(
-                    apiBaseUrl + "users/" + userGame.getUserId() + "/games",
-                    makeUserGameEntity(userGame), UserGame.class);
-        } catch (RestClientResponseException | ResourceAccessException e) {
+            return apiClient.post("users/" + userGame.getUserId() + "/games", authToken, userGame, UserGame.class);
+        } catch (TransportException e) {
             BasicLogger.log(e.getMessage());
             return null;
         }
     }
 
-    public boolean updateGame(UserGame userGame) {
+    /**
+     * Sends the guesses of a game to the server.
+     *
+     * @param userGame the game with its new guess
+     * @return true if the server accepted the guess, or false if it rejected it, as it does a word it does not know
+     * @throws TransportException if the guess could not be sent or the server failed to handle it
+     */
+    public boolean updateGame(UserGame userGame) throws TransportException {
         try {
-            restTemplate.put(
-                    apiBaseUrl + "users/" + userGame.getUserId() + "/games/" + userGame.getGameId(),
-                    makeUserGameEntity(userGame), UserGame.class);
-        } catch (RestClientResponseException e) {
-            BasicLogger.log(e.getResponseBodyAsString());
+            apiClient.put("users/" + userGame.getUserId() + "/games/" + userGame.getGameId(), authToken, userGame,
+                    UserGame.class);
+        } catch (TransportException e) {
+            if (!isRejection(e)) {
+                BasicLogger.log(e.getMessage());
+                throw e;
+            }
+            BasicLogger.log(e.getResponseBody());
             return false;
         }
         return true;
     }
 
     /**
-     * Helper method to create the HTTP Entity that bundles the game data and the auth information together
-     * to send to the server REST API.
-     *
-     * This is used when the request needs to have a body containing the game data, for example a POST or PUT.
-     *
-     * @param game the game information
-     * @return HttpEntity containing the game data and auth information
+     * Creates a new game using the server REST API, without waiting for the response.
+     * @param userGame the information for the new game
+     * @return a future that completes with the newly created game, or with null if an error occurred
      */
-    private HttpEntity<Game> makeGameEntity(Game game) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setBearerAuth(authToken);
-        return new HttpEntity<>(game, headers);
+    public CompletableFuture<UserGame> createUserGameAsync(UserGame userGame) {
+        return apiClient.postAsync("users/" + userGame.getUserId() + "/games", authToken, userGame, UserGame.class).
+                exceptionally(e -> {
+                    BasicLogger.log(e.getMessage());
+                    return null;
+                });
     }
 
     /**
-     * Helper method to create the HTTP Entity that bundles the game data and the auth information together
-     * to send to the server REST API.
-     *
-     * This is used when the request needs to have a body containing the game data, for example a POST or PUT.
+     * Sends the guesses of a game and then gets the game as the server has it, without waiting for either
+     * response. Like updateGame followed by getUserGame, but several games can be updated at once.
      *
-     * @param game the game information
-     * @return HttpEntity containing the game data and auth information
+     * @param userGame the game with its new guess
+     * @return a future that completes with the game as the server has it, which does not have the new guess if
+     *         the server rejected it, or with null if the game could not be retrieved; it completes exceptionally
+     *         with a TransportException if the guess could not be sent or the server failed to handle it
      */
-    private HttpEntity<UserGame> makeUserGameEntity(UserGame game) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setBearerAuth(authToken);
-        return new HttpEntity<>(game, headers);
+    public CompletableFuture<UserGame> updateGameAsync(UserGame userGame) {
+        String path = "users/" + userGame.getUserId() + "/games/" + userGame.getGameId();
+        return apiClient.putAsync(path, authToken, userGame, UserGame.class).
+                handle((updated, e) -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof TransportException && isRejection((TransportException) cause)) {
+                        BasicLogger.log(((TransportException) cause).getResponseBody());
+                    } else if (cause != null) {
+                        BasicLogger.log(cause.getMessage());
+                        throw new CompletionException(cause);
+                    }
+                    return path;
+                }).
+                thenCompose(ignored -> apiClient.getAsync(path, authToken, UserGame.class).
+                        exceptionally(e -> {
+                            BasicLogger.log(e.getMessage());
+                            return null;
+                        }));
     }
 
     /**
-     * Helper method to create the HTTP Entity containing the auth information to send to the server REST API.
-     *
-     * This is used when the request does not have a body or payload, for example a GET or DELETE.
-     *
-     * @return HttpEntity containing the auth information (with no request body data).
+     * @return true if the server refused the request, as it does a guess it does not accept, rather than the
+     *         request failing to reach the server or the server failing to handle it
      */
-    private HttpEntity<Void> makeAuthEntity() {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(authToken);
-        return new HttpEntity<>(headers);
+    private static boolean isRejection(TransportException e) {
+        return e.getStatusCode() >= 400 && e.getStatusCode() < 500;
+    }
+
+    /**
+     * Helper method to parse a JSON array of games from a response body, one game at a time.
+     */
+    private void readGames(InputStream body, int batchSize, Consumer<List<Game>> batchConsumer) throws IOException {
+        try (JsonParser parser = gameReader.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected an array of games.");
+            }
+            List<Game> batch = new ArrayList<>(batchSize);
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                batch.add(gameReader.readValue(parser));
+                if (batch.size() == batchSize) {
+                    batchConsumer.accept(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                batchConsumer.accept(batch);
+            }
+        }
     }
 }
@@ -0,0 +1,108 @@
+package com.techelevator.services;
+
+import com.techelevator.utils.TaskExecutor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * HttpClientTransport sends requests with the JDK's java.net.http.HttpClient. It asks for HTTP/2, so requests to a
+ * server that supports it share one multiplexed connection, and falls back to HTTP/1.1 for servers that do not.
+ * Asynchronous requests are sent without tying up a thread while waiting for the response, and the client's own
+ * work, such as completing their futures, is run on the shared TaskExecutor.
+ */
+public class HttpClientTransport implements HttpTransport {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpClient client = HttpClient.newBuilder().
+            version(HttpClient.Version.HTTP_2).
+            connectTimeout(CONNECT_TIMEOUT).
+            executor(task -> TaskExecutor.shared().execute(task)).
+            build();
+
+    @Override
+    public String getName() {
+        return HTTP_CLIENT;
+    }
+
+    @Override
+    public TransportResponse send(TransportRequest request) throws TransportException {
+        try {
+            return toResponse(client.send(toHttpRequest(request), HttpResponse.BodyHandlers.ofByteArray()));
+        } catch (IOException | IllegalArgumentException e) {
+            throw new TransportException(request + ": " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransportException(request + ": interrupted", e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<TransportResponse> sendAsync(TransportRequest request) {
+        CompletableFuture<TransportResponse> future = new CompletableFuture<>();
+        try {
+            client.sendAsync(toHttpRequest(request), HttpResponse.BodyHandlers.ofByteArray()).whenComplete((response, e) -> {
+                if (e == null) {
+                    future.complete(toResponse(response));
+                } else {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    future.completeExceptionally(new TransportException(request + ": " + cause.getMessage(), cause));
+                }
+            });
+        } catch (IllegalArgumentException e) {
+            future.completeExceptionally(new TransportException(request + ": " + e.getMessage(), e));
+        }
+        return future;
+    }
+
+    @Override
+    public <T> T stream(TransportRequest request, BodyReader<T> reader) throws TransportException {
+        try {
+            HttpResponse<InputStream> response = client.send(toHttpRequest(request), HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                if (response.statusCode() < 200 || response.statusCode() >= 300) {
+                    throw HttpTransport.errorFor(request, response.statusCode(), body.readAllBytes());
+                }
+                return reader.read(body);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            throw new TransportException(request + ": " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransportException(request + ": interrupted", e);
+        }
+    }
+
+
+    // ***** Helper Methods ***************************************************
+
+    private static HttpRequest toHttpRequest(TransportRequest request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(request.getUrl())).
+                method(request.getMethod(), request.getBody() == null ? HttpRequest.BodyPublishers.noBody() :
+                        HttpRequest.BodyPublishers.ofByteArray(request.getBody()));
+        request.getHeaders().forEach(builder::header);
+        if (request.getTimeout() != null) {
+            builder.timeout(request.getTimeout());
+        }
+        return builder.build();
+    }
+
+    private static TransportResponse toResponse(HttpResponse<byte[]> response) {
+        Map<String, String> headers = new HashMap<>();
+        response.headers().map().forEach((name, values) -> {
+            if (!values.isEmpty()) {
+                headers.put(name, values.get(0));
+            }
+        });
+        return new TransportResponse(response.statusCode(), headers, response.body());
+    }
+}
@@ -0,0 +1,121 @@
+package com.techelevator.services;
+
+import com.techelevator.utils.TaskExecutor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * HttpTransport sends requests to the server REST API and returns the responses as bytes. The services turn
+ * objects into requests and responses back into objects with an ApiClient, so the way requests are sent can be
+ * changed without changing the services.
+ *
+ * A transport returns a response whatever its status code; only a request that gets no response at all fails
+ * with a TransportException.
+ */
+public interface HttpTransport {
+
+    String REST_TEMPLATE = "resttemplate";
+    String HTTP_CLIENT = "httpclient";
+
+    /**
+     * Creates a transport by name.
+     *
+     * @param name REST_TEMPLATE or HTTP_CLIENT
+     * @return the transport
+     * @throws IllegalArgumentException if there is no transport with the name
+     */
+    static HttpTransport create(String name) {
+        switch (name.toLowerCase()) {
+            case REST_TEMPLATE:
+                return new RestTemplateTransport();
+            case HTTP_CLIENT:
+                return new HttpClientTransport();
+            default:
+                throw new IllegalArgumentException(String.format("'%s' is not a transport.", name));
+        }
+    }
+
+    /**
+     * @return the name of the transport, for the log and reports
+     */
+    String getName();
+
+    /**
+     * Sends a request and waits for the response.
+     *
+     * @param request the request to send
+     * @return the response
+     * @throws TransportException if no response was received
+     */
+    TransportResponse send(TransportRequest request) throws TransportException;
+
+    /**
+     * Sends a request without waiting for the response. Transports that can send requests asynchronously
+     * override this; by default the request is sent as a task on the shared TaskExecutor.
+     *
+     * @param request the request to send
+     * @return a future that completes with the response, or with a TransportException if no response was received
+     */
+    default CompletableFuture<TransportResponse> sendAsync(TransportRequest request) {
+        CompletableFuture<TransportResponse> future = new CompletableFuture<>();
+        TaskExecutor.shared().execute(() -> {
+            try {
+                future.complete(send(request));
+            } catch (TransportException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Sends a request and reads the body of a successful response with the given reader. Transports that can
+     * read a body as it arrives override this, so large responses are not held in memory; by default the whole
+     * response is received first.
+     *
+     * @param request the request to send
+     * @param reader reads the body of a successful response
+     * @param <T> the type of value read
+     * @return the value read
+     * @throws TransportException if no response was received, the response had an error status code, or the body
+     *         could not be read
+     */
+    default <T> T stream(TransportRequest request, BodyReader<T> reader) throws TransportException {
+        TransportResponse response = send(request);
+        if (!response.isSuccessful()) {
+            throw errorFor(request, response.getStatusCode(), response.getBody());
+        }
+        try (InputStream body = new ByteArrayInputStream(response.getBody())) {
+            return reader.read(body);
+        } catch (IOException e) {
+            throw new TransportException(request + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @param request the request that failed
+     * @param statusCode the error status code
+     * @param body the body of the error response
+     * @return an exception describing the error response
+     */
+    static TransportException errorFor(TransportRequest request, int statusCode, byte[] body) {
+        String text = new String(body, StandardCharsets.UTF_8);
+        return new TransportException(String.format("%d %s: %s", statusCode, request, text), statusCode, text);
+    }
+
+
+    // ***** inner interface: BodyReader **************************************
+
+    /**
+     * Reads a value from the body of a response.
+     * @param <T> the type of value read
+     */
+    @FunctionalInterface
+    interface BodyReader<T> {
+        T read(InputStream body) throws IOException;
+    }
+}
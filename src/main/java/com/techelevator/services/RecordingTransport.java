@@ -0,0 +1,119 @@
+package com.techelevator.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.techelevator.utils.BasicLogger;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * RecordingTransport wraps another transport and writes every exchange it sends to a file, so the exchanges can
+ * be served back later by a ReplayTransport without a server.
+ *
+ * The file has one JSON object per line holding the method, the path and query of the url, the status code, the
+ * content type, the response body, and the time taken for the response. Bodies are written as text, or in base64
+ * if they are not UTF-8. Streamed requests are received in full so they can be recorded.
+ */
+public class RecordingTransport implements HttpTransport {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpTransport delegate;
+    private final Writer writer;
+
+    /**
+     * @param delegate the transport that sends the requests
+     * @param file the file to write the exchanges to; replaced if it exists
+     * @throws IOException if the file could not be created
+     */
+    public RecordingTransport(HttpTransport delegate, Path file) throws IOException {
+        this.delegate = delegate;
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public TransportResponse send(TransportRequest request) throws TransportException {
+        long start = System.nanoTime();
+        TransportResponse response = delegate.send(request);
+        record(request, response, System.nanoTime() - start);
+        return response;
+    }
+
+    @Override
+    public CompletableFuture<TransportResponse> sendAsync(TransportRequest request) {
+        long start = System.nanoTime();
+        return delegate.sendAsync(request).thenApply(response -> {
+            record(request, response, System.nanoTime() - start);
+            return response;
+        });
+    }
+
+    @Override
+    public <T> T stream(TransportRequest request, BodyReader<T> reader) throws TransportException {
+        TransportResponse response = send(request);
+        if (!response.isSuccessful()) {
+            throw HttpTransport.errorFor(request, response.getStatusCode(), response.getBody());
+        }
+        try (InputStream body = new ByteArrayInputStream(response.getBody())) {
+            return reader.read(body);
+        } catch (IOException e) {
+            throw new TransportException(request + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @param url a full url
+     * @return the path and query of the url, which is what exchanges are matched on
+     */
+    static String pathOf(String url) {
+        URI uri = URI.create(url);
+        String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+        return uri.getRawQuery() == null ? path : path + "?" + uri.getRawQuery();
+    }
+
+
+    // ***** Helper Methods ***************************************************
+
+    private void record(TransportRequest request, TransportResponse response, long nanos) {
+        ObjectNode line = MAPPER.createObjectNode();
+        line.put("method", request.getMethod());
+        line.put("path", pathOf(request.getUrl()));
+        line.put("status", response.getStatusCode());
+        line.put("nanos", nanos);
+        if (response.getHeader("Content-Type") != null) {
+            line.put("contentType", response.getHeader("Content-Type"));
+        }
+        try {
+            line.put("body", StandardCharsets.UTF_8.newDecoder().onMalformedInput(CodingErrorAction.REPORT).
+                    decode(ByteBuffer.wrap(response.getBody())).toString());
+        } catch (CharacterCodingException e) {
+            line.put("bodyBase64", Base64.getEncoder().encodeToString(response.getBody()));
+        }
+        try {
+            synchronized (writer) {
+                writer.write(MAPPER.writeValueAsString(line));
+                writer.write('\n');
+                writer.flush();
+            }
+        } catch (IOException e) {
+            BasicLogger.log("The exchange could not be recorded: " + e.getMessage());
+        }
+    }
+}
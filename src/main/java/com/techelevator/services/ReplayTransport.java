@@ -0,0 +1,130 @@
+package com.techelevator.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ReplayTransport serves the exchanges recorded by a RecordingTransport instead of sending requests to a server,
+ * so the client can be run and measured the same way on any machine.
+ *
+ * Requests are matched on their method and the path and query of their url, so a recording can be replayed
+ * against any base url. Exchanges with the same method and path are served in the order they were recorded; once
+ * only the last is left it is served for every later request. A request with no recorded exchange fails.
+ *
+ * Responses are delayed by the recorded time multiplied by a time scale: 1 for the recorded timing, 0 for no
+ * delay, or any other factor to scale it. A request whose timeout is shorter than the delay waits for the timeout
+ * and then fails as timed out.
+ */
+public class ReplayTransport implements HttpTransport {
+
+    public static final String NAME = "replay";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Map<String, Deque<Exchange>> exchanges;
+    private final double timeScale;
+
+    private ReplayTransport(Map<String, Deque<Exchange>> exchanges, double timeScale) {
+        this.exchanges = exchanges;
+        this.timeScale = timeScale;
+    }
+
+    /**
+     * Reads a recording.
+     *
+     * @param file the file written by a RecordingTransport
+     * @param timeScale the factor applied to the recorded response times; 0 for no delay
+     * @return a transport that serves the recorded exchanges
+     * @throws IOException if the file could not be read
+     */
+    public static ReplayTransport load(Path file, double timeScale) throws IOException {
+        Map<String, Deque<Exchange>> exchanges = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode node = MAPPER.readTree(line);
+                byte[] body = node.has("bodyBase64") ? Base64.getDecoder().decode(node.get("bodyBase64").asText()) :
+                        node.path("body").asText("").getBytes(StandardCharsets.UTF_8);
+                Map<String, String> headers = new HashMap<>();
+                if (node.has("contentType")) {
+                    headers.put("Content-Type", node.get("contentType").asText());
+                }
+                exchanges.computeIfAbsent(keyOf(node.path("method").asText(), node.path("path").asText()),
+                        key -> new ArrayDeque<>()).
+                        add(new Exchange(new TransportResponse(node.path("status").asInt(), headers, body),
+                                node.path("nanos").asLong()));
+            }
+        }
+        return new ReplayTransport(exchanges, timeScale);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public TransportResponse send(TransportRequest request) throws TransportException {
+        String key = keyOf(request.getMethod(), RecordingTransport.pathOf(request.getUrl()));
+        Exchange exchange;
+        synchronized (exchanges) {
+            Deque<Exchange> recorded = exchanges.get(key);
+            if (recorded == null) {
+                throw new TransportException(request + ": no recorded exchange", null);
+            }
+            exchange = recorded.size() > 1 ? recorded.poll() : recorded.peek();
+        }
+        long delayNanos = (long) (exchange.nanos * timeScale);
+        boolean timedOut = request.getTimeout() != null && delayNanos > request.getTimeout().toNanos();
+        if (timedOut) {
+            delayNanos = request.getTimeout().toNanos();
+        }
+        if (delayNanos > 0) {
+            try {
+                Thread.sleep(delayNanos / 1_000_000, (int) (delayNanos % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TransportException(request + ": interrupted", e);
+            }
+        }
+        if (timedOut) {
+            throw new TransportException(request + ": request timed out", new HttpTimeoutException("request timed out"));
+        }
+        return exchange.response;
+    }
+
+
+    // ***** Helper Methods ***************************************************
+
+    private static String keyOf(String method, String path) {
+        return method + " " + path;
+    }
+
+
+    // ***** inner class: Exchange ********************************************
+
+    private static class Exchange {
+        private final TransportResponse response;
+        private final long nanos;
+
+        private Exchange(TransportResponse response, long nanos) {
+            this.response = response;
+            this.nanos = nanos;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.techelevator.services;
+
+import com.techelevator.utils.TaskExecutor;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * RestTemplateTransport sends requests with a Spring RestTemplate, over HTTP/1.1 with the JDK's
+ * HttpURLConnection and its pool of kept-alive connections.
+ *
+ * A request's timeout is used as the connect timeout and as the read timeout, the longest wait for each read
+ * of the response.
+ *
+ * HttpURLConnection blocks while it waits, so asynchronous requests are each sent as a task on the shared
+ * TaskExecutor, which gives each one a virtual thread of its own where the JDK has them, rather than queueing
+ * behind each other on the common pool.
+ */
+public class RestTemplateTransport implements HttpTransport {
+
+    private final RestTemplate restTemplate = new RestTemplate();
+
+    // The timeout of the request being sent on each thread; RestTemplate has no way to pass it to the connection
+    private final ThreadLocal<Duration> timeout = new ThreadLocal<>();
+
+    public RestTemplateTransport() {
+        restTemplate.setRequestFactory(new SimpleClientHttpRequestFactory() {
+            @Override
+            protected void prepareConnection(HttpURLConnection connection, String httpMethod) throws IOException {
+                super.prepareConnection(connection, httpMethod);
+                Duration requestTimeout = timeout.get();
+                if (requestTimeout != null) {
+                    int millis = (int) Math.max(1, Math.min(Integer.MAX_VALUE, requestTimeout.toMillis()));
+                    connection.setConnectTimeout(millis);
+                    connection.setReadTimeout(millis);
+                }
+            }
+        });
+        // Error responses are returned like any other response, as the HttpTransport interface requires
+        restTemplate.setErrorHandler(new DefaultResponseErrorHandler() {
+            @Override
+            public boolean hasError(ClientHttpResponse response) {
+                return false;
+            }
+        });
+    }
+
+    @Override
+    public String getName() {
+        return REST_TEMPLATE;
+    }
+
+    @Override
+    public TransportResponse send(TransportRequest request) throws TransportException {
+        timeout.set(request.getTimeout());
+        try {
+            return restTemplate.execute(URI.create(request.getUrl()), HttpMethod.resolve(request.getMethod()),
+                    clientRequest -> writeRequest(request, clientRequest),
+                    response -> new TransportResponse(response.getRawStatusCode(), headersOf(response),
+                            readBody(response)));
+        } catch (RestClientException e) {
+            throw new TransportException(request + ": " + e.getMessage(), e);
+        } finally {
+            timeout.remove();
+        }
+    }
+
+    @Override
+    public CompletableFuture<TransportResponse> sendAsync(TransportRequest request) {
+        CompletableFuture<TransportResponse> future = new CompletableFuture<>();
+        TaskExecutor.shared().execute(() -> {
+            try {
+                future.complete(send(request));
+            } catch (TransportException | RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public <T> T stream(TransportRequest request, BodyReader<T> reader) throws TransportException {
+        // The response is read inside the RestTemplate callback, so an error response or a failed read is carried
+        // out of it in a holder
+        Object[] result = new Object[1];
+        TransportException[] error = new TransportException[1];
+        timeout.set(request.getTimeout());
+        try {
+            restTemplate.execute(URI.create(request.getUrl()), HttpMethod.resolve(request.getMethod()),
+                    clientRequest -> writeRequest(request, clientRequest),
+                    response -> {
+                        int statusCode = response.getRawStatusCode();
+                        if (statusCode < 200 || statusCode >= 300) {
+                            error[0] = HttpTransport.errorFor(request, statusCode, readBody(response));
+                        } else {
+                            try (InputStream body = response.getBody()) {
+                                result[0] = reader.read(body);
+                            } catch (IOException e) {
+                                error[0] = new TransportException(request + ": " + e.getMessage(), e);
+                            }
+                        }
+                        return null;
+                    });
+        } catch (RestClientException e) {
+            throw new TransportException(request + ": " + e.getMessage(), e);
+        } finally {
+            timeout.remove();
+        }
+        if (error[0] != null) {
+            throw error[0];
+        }
+        @SuppressWarnings("unchecked")
+        T value = (T) result[0];
+        return value;
+    }
+
+
+    // ***** Helper Methods ***************************************************
+
+    private static void writeRequest(TransportRequest request, ClientHttpRequest clientRequest)
+            throws IOException {
+        request.getHeaders().forEach(clientRequest.getHeaders()::set);
+        if (request.getBody() != null) {
+            clientRequest.getBody().write(request.getBody());
+        }
+    }
+
+    private static Map<String, String> headersOf(ClientHttpResponse response) {
+        Map<String, String> headers = new HashMap<>();
+        response.getHeaders().forEach((name, values) -> {
+            if (name != null && !values.isEmpty()) {
+                headers.put(name, values.get(0));
+            }
+        });
+        return headers;
+    }
+
+    private static byte[] readBody(ClientHttpResponse response) throws IOException {
+        try (InputStream body = response.getBody()) {
+            return StreamUtils.copyToByteArray(body);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.techelevator.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techelevator.model.AuthenticatedUser;
+import com.techelevator.utils.BasicLogger;
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.engines.AESEngine;
+import org.bouncycastle.crypto.modes.GCMBlockCipher;
+import org.bouncycastle.crypto.params.AEADParameters;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SessionCache keeps the logged-in user's session on disk between runs, so a returning user does not have to
+ * log in again while their token is still good.
+ *
+ * The session is encrypted with AES-GCM using a random key kept in a [file].key file beside it, readable only by
+ * the owner where the file system allows it. A session is checked without calling the server, by reading the
+ * expiry time from the token itself; one that expires within the renewal margin is treated as expired.
+ *
+ * The server has no way to renew a token, so instead of a refresh the cache watches the current session in the
+ * background and, once it reaches the renewal margin, removes it from disk and tells the application, which
+ * asks the user to log in again.
+ */
+public class SessionCache {
+
+    // A session this close to expiring is not used, and is given up when it gets this close
+    public static final Duration RENEWAL_MARGIN = Duration.ofMinutes(5);
+
+    private static final int KEY_LENGTH = 32;
+    private static final int NONCE_LENGTH = 12;
+    private static final int TAG_BITS = 128;
+
+    private static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json().build();
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final Path file;
+    private final Path keyFile;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "session-watch");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ScheduledFuture<?> expiryWatch;
+
+    /**
+     * @param file the file to keep the session in
+     */
+    public SessionCache(Path file) {
+        this.file = file;
+        this.keyFile = file.resolveSibling(file.getFileName() + ".key");
+    }
+
+    /**
+     * Reads the saved session.
+     * @return the saved user, or null if there is no saved session, it could not be read, or it has expired
+     */
+    public AuthenticatedUser load() {
+        if (!Files.exists(file) || !Files.exists(keyFile)) {
+            return null;
+        }
+        try {
+            byte[] sealed = Files.readAllBytes(file);
+            byte[] key = Files.readAllBytes(keyFile);
+            if (sealed.length <= NONCE_LENGTH || key.length != KEY_LENGTH) {
+                return null;
+            }
+            byte[] nonce = Arrays.copyOf(sealed, NONCE_LENGTH);
+            byte[] json = crypt(false, key, nonce, Arrays.copyOfRange(sealed, NONCE_LENGTH, sealed.length));
+            AuthenticatedUser user = MAPPER.readValue(json, AuthenticatedUser.class);
+            return isUsable(user, Instant.now()) ? user : null;
+        } catch (IOException | InvalidCipherTextException e) {
+            BasicLogger.log("The saved session could not be read: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Saves a session, replacing any saved before.
+     * @param user the logged-in user
+     * @return true if the session was saved
+     */
+    public boolean save(AuthenticatedUser user) {
+        try {
+            byte[] nonce = new byte[NONCE_LENGTH];
+            RANDOM.nextBytes(nonce);
+            byte[] encrypted = crypt(true, getOrCreateKey(), nonce, MAPPER.writeValueAsBytes(user));
+            byte[] sealed = Arrays.copyOf(nonce, NONCE_LENGTH + encrypted.length);
+            System.arraycopy(encrypted, 0, sealed, NONCE_LENGTH, encrypted.length);
+
+            Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), "session", ".tmp");
+            Files.write(temp, sealed);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException | InvalidCipherTextException e) {
+            BasicLogger.log("The session could not be saved: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Removes the saved session and stops watching it. The key is kept for the next session.
+     */
+    public synchronized void clear() {
+        if (expiryWatch != null) {
+            expiryWatch.cancel(false);
+            expiryWatch = null;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            BasicLogger.log("The saved session could not be removed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Watches a session in the background, replacing any session watched before. When the session reaches the
+     * renewal margin it is removed from disk and onExpiring is run on the background thread.
+     *
+     * @param user the logged-in user
+     * @param onExpiring run when the session is about to expire
+     */
+    public synchronized void watch(AuthenticatedUser user, Runnable onExpiring) {
+        if (expiryWatch != null) {
+            expiryWatch.cancel(false);
+        }
+        Instant expiry = getExpiry(user.getToken());
+        if (expiry == null) {
+            return;
+        }
+        long delay = Math.max(0, Duration.between(Instant.now(), expiry.minus(RENEWAL_MARGIN)).toMillis());
+        expiryWatch = scheduler.schedule(() -> {
+            clear();
+            onExpiring.run();
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param user a user
+     * @param now the current time
+     * @return true if the user has a token that does not expire within the renewal margin
+     */
+    public static boolean isUsable(AuthenticatedUser user, Instant now) {
+        if (user == null || user.getToken() == null || user.getUser() == null) {
+            return false;
+        }
+        Instant expiry = getExpiry(user.getToken());
+        return expiry != null && expiry.minus(RENEWAL_MARGIN).isAfter(now);
+    }
+
+    /**
+     * Reads the expiry time (the exp claim) from a JWT. The signature is not checked; the server does that.
+     *
+     * @param token the JWT
+     * @return the time the token expires, or null if it is not a JWT with an expiry time
+     */
+    public static Instant getExpiry(String token) {
+        if (token == null) {
+            return null;
+        }
+        String[] parts = token.split("\\.");
+        if (parts.length < 2) {
+            return null;
+        }
+        try {
+            JsonNode claims = MAPPER.readTree(Base64.getUrlDecoder().decode(parts[1]));
+            JsonNode exp = claims.get("exp");
+            return exp != null && exp.canConvertToLong() ? Instant.ofEpochSecond(exp.asLong()) : null;
+        } catch (IllegalArgumentException | IOException e) {
+            return null;
+        }
+    }
+
+
+    // ***** Helper Methods ***************************************************
+
+    private byte[] getOrCreateKey() throws IOException {
+        if (Files.exists(keyFile)) {
+            byte[] key = Files.readAllBytes(keyFile);
+            if (key.length == KEY_LENGTH) {
+                return key;
+            }
+            Files.delete(keyFile);
+        }
+        byte[] key = new byte[KEY_LENGTH];
+        RANDOM.nextBytes(key);
+        try (SeekableByteChannel channel = createKeyFile()) {
+            ByteBuffer buffer = ByteBuffer.wrap(key);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (FileAlreadyExistsException e) {
+            // Another run created the key first; use theirs
+            key = Files.readAllBytes(keyFile);
+            if (key.length != KEY_LENGTH) {
+                throw new IOException("The session key file " + keyFile + " is being written by another run.");
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Creates the key file, readable and writable only by its owner from the moment it exists, so the key is never
+     * readable by other users.
+     */
+    private SeekableByteChannel createKeyFile() throws IOException {
+        Set<StandardOpenOption> options = EnumSet.of(StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        try {
+            return Files.newByteChannel(keyFile, options,
+                    PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } catch (UnsupportedOperationException e) {
+            // Not a POSIX file system; the key file gets the default permissions
+            return Files.newByteChannel(keyFile, options);
+        }
+    }
+
+    private static byte[] crypt(boolean encrypt, byte[] key, byte[] nonce, byte[] input) throws InvalidCipherTextException {
+        GCMBlockCipher cipher = new GCMBlockCipher(new AESEngine());
+        cipher.init(encrypt, new AEADParameters(new KeyParameter(key), TAG_BITS, nonce, null));
+        byte[] output = new byte[cipher.getOutputSize(input.length)];
+        int length = cipher.processBytes(input, 0, input.length, output, 0);
+        length += cipher.doFinal(output, length);
+        return length == output.length ? output : Arrays.copyOf(output, length);
+    }
+}
@@ -0,0 +1,224 @@
+package com.techelevator.services;
+
+import com.techelevator.model.Game;
+import com.techelevator.model.UserGame;
+import com.techelevator.utils.BasicLogger;
+import com.techelevator.utils.ClientMetrics;
+import com.techelevator.utils.TaskExecutor;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * SyncDaemon keeps a logged-in user's data fresh in the background, so menu actions rarely wait for the server.
+ *
+ * Today's game is fetched when the daemon starts and again just after each local midnight, when the daily game
+ * changes. Only the game is kept: the user's game for it changes with every guess, so it is always fetched when
+ * it is played. The refresh after midnight is put off by a random jitter of up to the
+ * given time, so clients do not all ask the server at once. A refresh that fails is tried again a minute later, a
+ * few times.
+ *
+ * The user's history is fetched once the user has been idle for the given time, at most once for each spell of
+ * idleness, and handed to whoever takes it with takeHistory().
+ *
+ * The daemon's timer runs on a thread of its own, and the requests are run on the shared TaskExecutor. Refreshes
+ * and history syncs are counted in ClientMetrics under sync.*.
+ */
+public class SyncDaemon {
+
+    public static final String DAILY_REFRESH_METRIC = "sync.daily.refreshes";
+    public static final String DAILY_FAILURE_METRIC = "sync.daily.failures";
+    public static final String HISTORY_SYNC_METRIC = "sync.history.syncs";
+
+    private static final Duration RETRY_DELAY = Duration.ofMinutes(1);
+    private static final int MAX_RETRIES = 5;
+
+    private final GameService gameService;
+    private final int userId;
+    private final Duration maxJitter;
+    private final Duration idleTime;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sync-daemon");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile DailyGame daily;
+    private final AtomicReference<List<UserGame>> history = new AtomicReference<>();
+    private volatile long lastActivityNanos = System.nanoTime();
+    private volatile boolean historySyncedSinceActivity;
+    private volatile boolean historySyncRunning;
+
+    /**
+     * @param gameService the service to fetch the games with, already given the user's token
+     * @param userId the logged-in user's id
+     * @param maxJitter the longest time to put off the refresh after midnight
+     * @param idleTime how long the user must be idle before their history is synced
+     */
+    public SyncDaemon(GameService gameService, int userId, Duration maxJitter, Duration idleTime) {
+        this.gameService = gameService;
+        this.userId = userId;
+        this.maxJitter = maxJitter;
+        this.idleTime = idleTime;
+    }
+
+    /**
+     * Fetches today's game in the background now, and schedules the refresh after midnight and the idle checks.
+     */
+    public void start() {
+        scheduleRefresh(Duration.ZERO, 0);
+        long checkMillis = Math.max(1, idleTime.toMillis() / 2);
+        scheduler.scheduleWithFixedDelay(this::syncHistoryIfIdle, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the daemon. A request already sent is left to complete.
+     */
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Records that the user has just done something, which ends any spell of idleness.
+     */
+    public void touch() {
+        lastActivityNanos = System.nanoTime();
+        historySyncedSinceActivity = false;
+    }
+
+    /**
+     * @param today the current date
+     * @return today's game as last fetched, or null if it has not been fetched today
+     */
+    public DailyGame getDailyGame(LocalDate today) {
+        DailyGame current = daily;
+        return current != null && current.getDate().equals(today) ? current : null;
+    }
+
+    /**
+     * @return the user's games from the last history sync, or null if there has been none since the last call
+     */
+    public List<UserGame> takeHistory() {
+        return history.getAndSet(null);
+    }
+
+    /**
+     * Fetches today's game.
+     *
+     * @param today the current date
+     * @return true if today's game was fetched
+     */
+    public boolean refreshDaily(LocalDate today) {
+        Game game = gameService.getTodaysGame();
+        if (game == null) {
+            ClientMetrics.increment(DAILY_FAILURE_METRIC);
+            return false;
+        }
+        daily = new DailyGame(today, game);
+        ClientMetrics.increment(DAILY_REFRESH_METRIC);
+        return true;
+    }
+
+    /**
+     * Fetches the user's games, to be picked up with takeHistory().
+     * @return true if the games were fetched
+     */
+    public boolean syncHistory() {
+        List<UserGame> games = gameService.getUserGames(userId);
+        if (games == null) {
+            return false;
+        }
+        history.set(games);
+        ClientMetrics.increment(HISTORY_SYNC_METRIC);
+        return true;
+    }
+
+    /**
+     * @param now the current time
+     * @return the time until the refresh after the next midnight: the time until midnight plus a random jitter
+     */
+    public Duration getDelayUntilRollover(LocalDateTime now) {
+        Duration untilMidnight = Duration.between(now, now.toLocalDate().plusDays(1).atStartOfDay());
+        long jitterMillis = maxJitter.toMillis() > 0 ? ThreadLocalRandom.current().nextLong(maxJitter.toMillis() + 1) : 0;
+        return untilMidnight.plusMillis(jitterMillis);
+    }
+
+
+    // ***** Helper Methods ***************************************************
+
+    /**
+     * Schedules a refresh of the daily game. After it runs, the next one is scheduled for after the next
+     * midnight, or a minute later if it failed.
+     */
+    private void scheduleRefresh(Duration delay, int retries) {
+        if (scheduler.isShutdown()) {
+            return;
+        }
+        try {
+            scheduler.schedule(() -> TaskExecutor.shared().execute(() -> {
+                if (refreshDaily(LocalDate.now()) || retries >= MAX_RETRIES) {
+                    scheduleRefresh(getDelayUntilRollover(LocalDateTime.now()), 0);
+                } else {
+                    scheduleRefresh(RETRY_DELAY, retries + 1);
+                }
+            }), delay.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            // The daemon was stopped while the refresh was running
+            BasicLogger.log("The daily game refresh was not scheduled: " + e.getMessage());
+        }
+    }
+
+    private void syncHistoryIfIdle() {
+        if (historySyncedSinceActivity || historySyncRunning ||
+                System.nanoTime() - lastActivityNanos < idleTime.toNanos()) {
+            return;
+        }
+        historySyncRunning = true;
+        long idleSince = lastActivityNanos;
+        TaskExecutor.shared().execute(() -> {
+            try {
+                // If the user came back while the history was being fetched, this spell of idleness is over
+                if (syncHistory() && lastActivityNanos == idleSince) {
+                    historySyncedSinceActivity = true;
+                }
+            } finally {
+                historySyncRunning = false;
+            }
+        });
+    }
+
+
+    // ***** inner class: DailyGame *******************************************
+
+    /**
+     * Today's game, as fetched on a date.
+     */
+    public static class DailyGame {
+        private final LocalDate date;
+        private final Game game;
+
+        public DailyGame(LocalDate date, Game game) {
+            this.date = date;
+            this.game = game;
+        }
+
+        /**
+         * @return the local date the games were fetched on
+         */
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public Game getGame() {
+            return game;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.techelevator.services;
+
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+
+/**
+ * TransportException is thrown when a request to the server REST API fails, either because no response was
+ * received or because the response had an error status code.
+ */
+public class TransportException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+    private final String responseBody;
+
+    /**
+     * Constructor - for a request that did not get a response.
+     *
+     * @param message the reason the request failed
+     * @param cause the exception that caused the failure
+     */
+    public TransportException(String message, Throwable cause) {
+        super(message, cause);
+        this.statusCode = 0;
+        this.responseBody = "";
+    }
+
+    /**
+     * Constructor - for a response with an error status code.
+     *
+     * @param message the reason the request failed
+     * @param statusCode the status code of the response
+     * @param responseBody the body of the response
+     */
+    public TransportException(String message, int statusCode, String responseBody) {
+        super(message);
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+    }
+
+    /**
+     * @return the status code of the response, or 0 if there was no response
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @return the body of the error response, or an empty string if there was no response
+     */
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    /**
+     * @return true if the request failed because the server did not respond within the request's timeout
+     */
+    public boolean isTimeout() {
+        for (Throwable cause = getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof SocketTimeoutException || cause instanceof HttpTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,88 @@
+package com.techelevator.services;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A request to send with an HttpTransport: the method, the full url, the headers, an optional body and an
+ * optional timeout.
+ */
+public class TransportRequest {
+
+    private final String method;
+    private final String url;
+    private final Map<String, String> headers;
+    private final byte[] body;
+    private final Duration timeout;
+
+    /**
+     * @param method the HTTP method, such as GET or POST
+     * @param url the full url of the request
+     * @param headers the request headers
+     * @param body the request body, or null for no body
+     */
+    public TransportRequest(String method, String url, Map<String, String> headers, byte[] body) {
+        this(method, url, headers, body, null);
+    }
+
+    /**
+     * @param method the HTTP method, such as GET or POST
+     * @param url the full url of the request
+     * @param headers the request headers
+     * @param body the request body, or null for no body
+     * @param timeout how long to wait for the server to respond, or null to wait as long as it takes
+     */
+    public TransportRequest(String method, String url, Map<String, String> headers, byte[] body, Duration timeout) {
+        this.method = method;
+        this.url = url;
+        this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(headers));
+        this.body = body;
+        this.timeout = timeout;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @param name the header name, in any case
+     * @return the value of the header, or null if the request does not have it
+     */
+    public String getHeader(String name) {
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the request body, or null if the request has no body
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * @return how long to wait for the server to respond, or null to wait as long as it takes
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + url;
+    }
+}
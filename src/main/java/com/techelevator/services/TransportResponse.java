@@ -0,0 +1,60 @@
+package com.techelevator.services;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A response received by an HttpTransport: the status code, the headers and the body.
+ */
+public class TransportResponse {
+
+    private final int statusCode;
+    private final Map<String, String> headers = new HashMap<>();
+    private final byte[] body;
+
+    /**
+     * @param statusCode the HTTP status code
+     * @param headers the response headers; only the first value of each is kept
+     * @param body the response body, empty if there was none
+     */
+    public TransportResponse(int statusCode, Map<String, String> headers, byte[] body) {
+        this.statusCode = statusCode;
+        headers.forEach((name, value) -> {
+            if (name != null) {
+                this.headers.putIfAbsent(name.toLowerCase(), value);
+            }
+        });
+        this.body = body == null ? new byte[0] : body;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @return true for a 2xx status code
+     */
+    public boolean isSuccessful() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    /**
+     * @return the headers, with lower case names
+     */
+    public Map<String, String> getHeaders() {
+        return Collections.unmodifiableMap(headers);
+    }
+
+    /**
+     * @param name the header name, in any case
+     * @return the value of the header, or null if the response does not have it
+     */
+    public String getHeader(String name) {
+        return headers.get(name.toLowerCase());
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+}
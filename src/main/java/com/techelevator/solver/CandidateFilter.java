@@ -0,0 +1,226 @@
+package com.techelevator.solver;
+
+import com.techelevator.model.Game;
+import com.techelevator.model.UserGame;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * CandidateFilter finds the words in a word list that are still possible answers, given the matches so far.
+ *
+ * The rows of matches are reduced to Constraints: a bitmask of the letters allowed at each position, and the
+ * minimum and maximum number of times each letter can appear. The filter precomputes, for every position and
+ * letter, the set of words with that letter at that position, and for every letter and count, the set of words
+ * containing the letter at least that many times. Applying the constraints is then a handful of BitSet and/andNot
+ * operations, each of which works through the word list 64 words at a time.
+ */
+public class CandidateFilter {
+
+    private static final int LETTER_COUNT = 26;
+
+    private final WordList words;
+
+    // wordsWithLetterAt[position][letter] - the words with the letter at the position
+    private final BitSet[][] wordsWithLetterAt = new BitSet[Game.WORD_LENGTH][LETTER_COUNT];
+
+    // wordsWithAtLeast[letter][count - 1] - the words containing the letter at least count times
+    private final BitSet[][] wordsWithAtLeast = new BitSet[LETTER_COUNT][Game.WORD_LENGTH];
+
+    /**
+     * @param words the word list to filter
+     */
+    public CandidateFilter(WordList words) {
+        this.words = words;
+        for (int position = 0; position < Game.WORD_LENGTH; ++position) {
+            for (int letter = 0; letter < LETTER_COUNT; ++letter) {
+                wordsWithLetterAt[position][letter] = new BitSet(words.size());
+                wordsWithAtLeast[letter][position] = new BitSet(words.size());
+            }
+        }
+        int[] letterCounts = new int[LETTER_COUNT];
+        for (int i = 0; i < words.size(); ++i) {
+            String word = words.get(i);
+            for (int position = 0; position < Game.WORD_LENGTH; ++position) {
+                int letter = word.charAt(position) - 'a';
+                wordsWithLetterAt[position][letter].set(i);
+                wordsWithAtLeast[letter][letterCounts[letter]++].set(i);
+            }
+            for (int position = 0; position < Game.WORD_LENGTH; ++position) {
+                letterCounts[word.charAt(position) - 'a'] = 0;
+            }
+        }
+    }
+
+    public WordList getWords() {
+        return words;
+    }
+
+    /**
+     * @param matches the rows of matches for the guesses made so far
+     * @return the set of words that are still possible answers
+     */
+    public BitSet filter(List<UserGame.MatchPair[]> matches) {
+        return filter(Constraints.of(matches));
+    }
+
+    /**
+     * @param constraints the constraints the answer must meet
+     * @return the set of words that meet the constraints
+     */
+    public BitSet filter(Constraints constraints) {
+        BitSet candidates = words.all();
+        for (int position = 0; position < Game.WORD_LENGTH; ++position) {
+            int allowed = constraints.allowedLetters[position];
+            if (Integer.bitCount(allowed) == 1) {
+                candidates.and(wordsWithLetterAt[position][Integer.numberOfTrailingZeros(allowed)]);
+            } else {
+                int excluded = ~allowed & Constraints.ALL_LETTERS;
+                while (excluded != 0) {
+                    int letter = Integer.numberOfTrailingZeros(excluded);
+                    candidates.andNot(wordsWithLetterAt[position][letter]);
+                    excluded &= excluded - 1;
+                }
+            }
+        }
+        for (int letter = 0; letter < LETTER_COUNT; ++letter) {
+            int minCount = constraints.minCounts[letter];
+            int maxCount = constraints.maxCounts[letter];
+            if (minCount > 0) {
+                candidates.and(wordsWithAtLeast[letter][minCount - 1]);
+            }
+            if (maxCount < Game.WORD_LENGTH) {
+                candidates.andNot(wordsWithAtLeast[letter][maxCount]);
+            }
+        }
+        return candidates;
+    }
+
+
+    // ***** inner class: Constraints *****************************************
+
+    /**
+     * The constraints on the answer revealed by the matches so far. They also decide whether a guess keeps to the
+     * hard mode rule, which asks every guess to use the hints revealed so far.
+     */
+    public static class Constraints {
+        private static final int ALL_LETTERS = (1 << LETTER_COUNT) - 1;
+        private static final String[] ORDINALS = {"1st", "2nd", "3rd", "4th", "5th"};
+
+        // Bitmask of the letters allowed at each position; bit 0 is 'a'
+        private final int[] allowedLetters = new int[Game.WORD_LENGTH];
+        private final int[] minCounts = new int[LETTER_COUNT];
+        private final int[] maxCounts = new int[LETTER_COUNT];
+
+        // Bitmask of the letter found at each position, or 0 if none has been found there
+        private final int[] exactLetters = new int[Game.WORD_LENGTH];
+
+        // Bitmask of the letters found in the answer
+        private int presentLetters;
+
+        private Constraints() {
+            Arrays.fill(allowedLetters, ALL_LETTERS);
+            Arrays.fill(maxCounts, Game.WORD_LENGTH);
+        }
+
+        /**
+         * Reduces rows of matches to constraints. For each row, a letter marked as an exact match fixes its
+         * position; a letter marked otherwise is not allowed at its position. The number of times a letter is
+         * marked as an exact match or in the wrong location is the least number of times it appears, and if the
+         * letter is also marked as no match, it is the exact number of times it appears.
+         *
+         * @param matches the rows of matches for the guesses made so far
+         * @return the constraints
+         */
+        public static Constraints of(List<UserGame.MatchPair[]> matches) {
+            Constraints constraints = new Constraints();
+            int[] found = new int[LETTER_COUNT];
+            for (UserGame.MatchPair[] row : matches) {
+                int missing = 0;
+                for (int position = 0; position < Game.WORD_LENGTH; ++position) {
+                    int letter = Character.toLowerCase(row[position].getChar()) - 'a';
+                    if (row[position].getMatch() == UserGame.Match.EXACT_MATCH) {
+                        constraints.allowedLetters[position] = 1 << letter;
+                        constraints.exactLetters[position] = 1 << letter;
+                        found[letter]++;
+                    } else {
+                        constraints.allowedLetters[position] &= ~(1 << letter);
+                        if (row[position].getMatch() == UserGame.Match.WRONG_LOCATION) {
+                            found[letter]++;
+                        } else {
+                            missing |= 1 << letter;
+                        }
+                    }
+                }
+                for (int position = 0; position < Game.WORD_LENGTH; ++position) {
+                    int letter = Character.toLowerCase(row[position].getChar()) - 'a';
+                    constraints.minCounts[letter] = Math.max(constraints.minCounts[letter], found[letter]);
+                    if ((missing & (1 << letter)) != 0) {
+                        constraints.maxCounts[letter] = Math.min(constraints.maxCounts[letter], found[letter]);
+                    }
+                }
+                for (int position = 0; position < Game.WORD_LENGTH; ++position) {
+                    found[Character.toLowerCase(row[position].getChar()) - 'a'] = 0;
+                }
+            }
+            for (int letter = 0; letter < LETTER_COUNT; ++letter) {
+                if (constraints.minCounts[letter] > 0) {
+                    constraints.presentLetters |= 1 << letter;
+                }
+            }
+            return constraints;
+        }
+
+        /**
+         * Checks a guess against the hard mode rule: a letter found in the right place must be guessed in that
+         * place again, and a letter found in the answer must be guessed at least as many times as it was found.
+         *
+         * @param guess the guess
+         * @return why the guess breaks the rule, or null if it keeps to it or is not a word of lowercase letters
+         */
+        public String findHardModeViolation(String guess) {
+            if (guess.length() != Game.WORD_LENGTH) {
+                return null;
+            }
+            int[] guessLetters = new int[Game.WORD_LENGTH];
+            int guessed = 0;
+            for (int position = 0; position < Game.WORD_LENGTH; ++position) {
+                int letter = guess.charAt(position) - 'a';
+                if (letter < 0 || letter >= LETTER_COUNT) {
+                    return null;
+                }
+                guessLetters[position] = 1 << letter;
+                guessed |= guessLetters[position];
+            }
+            for (int position = 0; position < Game.WORD_LENGTH; ++position) {
+                if (exactLetters[position] != 0 && exactLetters[position] != guessLetters[position]) {
+                    return String.format("The %s letter must be %s.", ORDINALS[position],
+                            toUpperCase(exactLetters[position]));
+                }
+            }
+            int missing = presentLetters & ~guessed;
+            if (missing != 0) {
+                return String.format("The guess must contain %s.", toUpperCase(Integer.lowestOneBit(missing)));
+            }
+            for (int present = presentLetters; present != 0; present &= present - 1) {
+                int letterBit = Integer.lowestOneBit(present);
+                int minCount = minCounts[Integer.numberOfTrailingZeros(letterBit)];
+                if (minCount > 1) {
+                    int count = 0;
+                    for (int position = 0; position < Game.WORD_LENGTH; ++position) {
+                        count += guessLetters[position] == letterBit ? 1 : 0;
+                    }
+                    if (count < minCount) {
+                        return String.format("The guess must contain %s %d times.", toUpperCase(letterBit), minCount);
+                    }
+                }
+            }
+            return null;
+        }
+
+        private static String toUpperCase(int letterBit) {
+            return String.valueOf((char) ('A' + Integer.numberOfTrailingZeros(letterBit)));
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.techelevator.solver;
+
+import com.techelevator.model.UserGame;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * CandidateStrategy guesses the first word in the word list that could still be the answer. It is fast and makes
+ * a useful baseline for judging other strategies.
+ */
+public class CandidateStrategy implements GuessStrategy {
+
+    private final CandidateFilter candidateFilter;
+
+    public CandidateStrategy(CandidateFilter candidateFilter) {
+        this.candidateFilter = candidateFilter;
+    }
+
+    @Override
+    public String getName() {
+        return "First Candidate";
+    }
+
+    @Override
+    public String nextGuess(List<UserGame.MatchPair[]> matches) {
+        BitSet candidates = candidateFilter.filter(matches);
+        int first = candidates.nextSetBit(0);
+        return candidateFilter.getWords().get(Math.max(first, 0));
+    }
+}
@@ -0,0 +1,43 @@
+package com.techelevator.solver;
+
+import com.techelevator.model.UserGame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * EntropyStrategy guesses the best hint from a HintEngine.
+ *
+ * The first guess does not depend on the game, so it is chosen once by prepare() and reused for every game.
+ */
+public class EntropyStrategy implements GuessStrategy {
+
+    private final HintEngine hintEngine;
+    // Chosen by prepare(), or null if it has not been called
+    private volatile String openingGuess;
+
+    public EntropyStrategy(HintEngine hintEngine) {
+        this.hintEngine = hintEngine;
+    }
+
+    @Override
+    public String getName() {
+        return "Entropy";
+    }
+
+    @Override
+    public void prepare() {
+        openingGuess = bestHint(new ArrayList<>());
+    }
+
+    @Override
+    public String nextGuess(List<UserGame.MatchPair[]> matches) {
+        String opening = openingGuess;
+        return matches.isEmpty() && opening != null ? opening : bestHint(matches);
+    }
+
+    private String bestHint(List<UserGame.MatchPair[]> matches) {
+        List<HintEngine.Hint> hints = hintEngine.suggest(matches, 1);
+        return hints.isEmpty() ? hintEngine.getWords().get(0) : hints.get(0).getWord();
+    }
+}
@@ -0,0 +1,30 @@
+package com.techelevator.solver;
+
+import com.techelevator.model.UserGame;
+
+import java.util.List;
+
+/**
+ * A GuessStrategy chooses the next guess for a game, given the matches for the guesses made so far.
+ *
+ * Strategies are shared by games played in parallel, so implementations must be thread safe.
+ */
+public interface GuessStrategy {
+
+    /**
+     * @return a short name for the strategy, used when reporting results
+     */
+    String getName();
+
+    /**
+     * Does any work that is shared by every game, before the games are played. Does nothing by default.
+     */
+    default void prepare() {
+    }
+
+    /**
+     * @param matches the rows of matches for the guesses made so far
+     * @return the next word to guess
+     */
+    String nextGuess(List<UserGame.MatchPair[]> matches);
+}
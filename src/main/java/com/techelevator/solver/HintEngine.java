@@ -0,0 +1,254 @@
+package com.techelevator.solver;
+
+import com.techelevator.model.UserGame;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * HintEngine suggests the next guess for a game in progress.
+ *
+ * The answers that are still possible are found with a CandidateFilter. Each word in the list is then scored as
+ * a guess by its expected information gain: the entropy, in bits, of the patterns it would produce across the
+ * possible answers. A high score means the guess is expected to split the possible answers into many small groups.
+ *
+ * Scoring is spread over a ForkJoinPool. Scoring stops when the latency budget runs out, and the best guesses
+ * scored by then are returned. Possible answers are scored first, so there is always a useful suggestion. An
+ * engine made with withoutBudget() scores every guess, however long it takes, so its suggestions do not depend on
+ * the speed or load of the machine.
+ *
+ * Patterns are computed with MatchEvaluator until a PatternMatrix is attached, after which they are looked up.
+ */
+public class HintEngine {
+
+    // Number of guesses scored by a single fork/join task before it stops splitting
+    private static final int GUESSES_PER_TASK = 32;
+
+    // Budget of an engine that scores every guess
+    private static final long NO_BUDGET = -1;
+
+    private final WordList words;
+    private final CandidateFilter candidateFilter;
+    private final long budgetNanos;
+    private final ForkJoinPool pool;
+
+    // Precomputed patterns, or null to compute them as needed
+    private volatile PatternMatrix patternMatrix;
+
+    /**
+     * @param words the words that can be guessed and that can be the answer
+     * @param budget the maximum time to spend scoring guesses
+     */
+    public HintEngine(WordList words, Duration budget) {
+        this(words, budget, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param words the words that can be guessed and that can be the answer
+     * @param budget the maximum time to spend scoring guesses
+     * @param pool the pool used to score guesses in parallel
+     */
+    public HintEngine(WordList words, Duration budget, ForkJoinPool pool) {
+        this(words, new CandidateFilter(words), budget.toNanos(), pool);
+    }
+
+    private HintEngine(WordList words, CandidateFilter candidateFilter, long budgetNanos, ForkJoinPool pool) {
+        this.words = words;
+        this.candidateFilter = candidateFilter;
+        this.budgetNanos = budgetNanos;
+        this.pool = pool;
+    }
+
+    /**
+     * @return an engine for the same words, pool and pattern matrix that scores every guess, however long it takes
+     */
+    public HintEngine withoutBudget() {
+        HintEngine engine = new HintEngine(words, candidateFilter, NO_BUDGET, pool);
+        engine.patternMatrix = patternMatrix;
+        return engine;
+    }
+
+    public WordList getWords() {
+        return words;
+    }
+
+    public CandidateFilter getCandidateFilter() {
+        return candidateFilter;
+    }
+
+    /**
+     * @param patternMatrix the precomputed patterns for the word list, or null to compute patterns as needed
+     */
+    public void setPatternMatrix(PatternMatrix patternMatrix) {
+        if (patternMatrix != null && patternMatrix.size() != words.size()) {
+            throw new IllegalArgumentException("The pattern matrix does not match the word list.");
+        }
+        this.patternMatrix = patternMatrix;
+    }
+
+    /**
+     * @param guess the index of the guessed word
+     * @param answer the index of the answer
+     * @return the pattern for the guess
+     */
+    public int pattern(int guess, int answer) {
+        PatternMatrix matrix = patternMatrix;
+        return matrix != null ? matrix.get(guess, answer) : MatchEvaluator.evaluate(words.get(guess), words.get(answer));
+    }
+
+    /**
+     * @param matches the rows of matches for the guesses made so far
+     * @return the set of words that are still possible answers
+     */
+    public BitSet getCandidates(List<UserGame.MatchPair[]> matches) {
+        return candidateFilter.filter(matches);
+    }
+
+    /**
+     * Ranks guesses by their expected information gain.
+     *
+     * @param matches the rows of matches for the guesses made so far
+     * @param maxHints the maximum number of hints to return
+     * @return the best guesses found within the latency budget, best first; empty if no answer is possible
+     */
+    public List<Hint> suggest(List<UserGame.MatchPair[]> matches, int maxHints) {
+        long deadline = budgetNanos == NO_BUDGET ? Long.MAX_VALUE : System.nanoTime() + budgetNanos;
+        BitSet candidates = getCandidates(matches);
+        int candidateCount = candidates.cardinality();
+        if (candidateCount == 0) {
+            return new ArrayList<>();
+        }
+
+        int[] answers = candidates.stream().toArray();
+        int[] guesses = new int[words.size()];
+        int next = 0;
+        for (int answer : answers) {
+            guesses[next++] = answer;
+        }
+        for (int i = candidates.nextClearBit(0); i < words.size(); i = candidates.nextClearBit(i + 1)) {
+            guesses[next++] = i;
+        }
+
+        // Only one answer left (or two, where guessing either is as good as it gets), so no need to search
+        int guessCount = candidateCount <= 2 ? candidateCount : guesses.length;
+
+        double[] scores = new double[words.size()];
+        Arrays.fill(scores, Double.NaN);
+        // Always score the first possible answer, even when the budget is already spent
+        scores[guesses[0]] = score(guesses[0], answers, new int[MatchEvaluator.PATTERN_COUNT]);
+        pool.invoke(new ScoreTask(guesses, 1, guessCount, answers, scores, deadline));
+
+        List<Hint> hints = new ArrayList<>();
+        for (int i = 0; i < scores.length; ++i) {
+            if (!Double.isNaN(scores[i])) {
+                hints.add(new Hint(words.get(i), scores[i], candidates.get(i)));
+            }
+        }
+        hints.sort(Comparator.comparingDouble(Hint::getInformation).reversed().
+                thenComparing(Hint::isPossibleAnswer, Comparator.reverseOrder()).
+                thenComparing(Hint::getWord));
+        return hints.size() > maxHints ? new ArrayList<>(hints.subList(0, maxHints)) : hints;
+    }
+
+    /**
+     * @param guess the index of the word to score
+     * @param answers the indexes of the possible answers
+     * @param counts scratch space for counting patterns; must have MatchEvaluator.PATTERN_COUNT elements
+     * @return the expected information gain of the guess, in bits
+     */
+    double score(int guess, int[] answers, int[] counts) {
+        Arrays.fill(counts, 0);
+        for (int answer : answers) {
+            counts[pattern(guess, answer)]++;
+        }
+        double total = answers.length;
+        double entropy = 0.0;
+        for (int count : counts) {
+            if (count > 0) {
+                double p = count / total;
+                entropy -= p * Math.log(p);
+            }
+        }
+        return entropy / Math.log(2);
+    }
+
+
+    // ***** inner class: Hint ************************************************
+
+    /**
+     * A suggested guess and the information it is expected to reveal.
+     */
+    public static class Hint {
+        private final String word;
+        private final double information;
+        private final boolean possibleAnswer;
+
+        public Hint(String word, double information, boolean possibleAnswer) {
+            this.word = word;
+            this.information = information;
+            this.possibleAnswer = possibleAnswer;
+        }
+
+        public String getWord() {
+            return word;
+        }
+
+        /**
+         * @return the expected information gain of the guess, in bits
+         */
+        public double getInformation() {
+            return information;
+        }
+
+        /**
+         * @return true if the guess could be the answer
+         */
+        public boolean isPossibleAnswer() {
+            return possibleAnswer;
+        }
+    }
+
+
+    // ***** inner class: ScoreTask *******************************************
+
+    private class ScoreTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] guesses;
+        private final int from;
+        private final int to;
+        private final int[] answers;
+        private final double[] scores;
+        private final long deadline;
+
+        private ScoreTask(int[] guesses, int from, int to, int[] answers, double[] scores, long deadline) {
+            this.guesses = guesses;
+            this.from = from;
+            this.to = to;
+            this.answers = answers;
+            this.scores = scores;
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > GUESSES_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ScoreTask(guesses, from, middle, answers, scores, deadline),
+                        new ScoreTask(guesses, middle, to, answers, scores, deadline));
+                return;
+            }
+            int[] counts = new int[MatchEvaluator.PATTERN_COUNT];
+            for (int i = from; i < to && (budgetNanos == NO_BUDGET || System.nanoTime() < deadline); ++i) {
+                int guess = guesses[i];
+                scores[guess] = score(guess, answers, counts);
+            }
+        }
+    }
+}
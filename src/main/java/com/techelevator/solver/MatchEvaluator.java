@@ -0,0 +1,115 @@
+package com.techelevator.solver;
+
+import com.techelevator.model.Game;
+import com.techelevator.model.UserGame;
+
+/**
+ * MatchEvaluator scores a guess against an answer on the client, following the same rules as the server.
+ *
+ * A scored guess is encoded as a pattern: a base 3 number with one digit per letter, where the digit is the
+ * ordinal of the letter's UserGame.Match. There are 3^5 = 243 patterns, so a pattern fits in a single byte
+ * and can be used directly as an array index.
+ */
+public final class MatchEvaluator {
+
+    public static final int PATTERN_COUNT = 243;
+
+    private static final UserGame.Match[] MATCHES = UserGame.Match.values();
+    private static final int EXACT_MATCH = UserGame.Match.EXACT_MATCH.ordinal();
+    private static final int WRONG_LOCATION = UserGame.Match.WRONG_LOCATION.ordinal();
+    private static final int NO_MATCH = UserGame.Match.NO_MATCH.ordinal();
+    private static final int[] POWERS = {1, 3, 9, 27, 81};
+
+    // The pattern of a guess that matches the answer exactly
+    public static final int SOLVED_PATTERN = EXACT_MATCH * (1 + 3 + 9 + 27 + 81);
+
+    private MatchEvaluator() {
+    }
+
+    /**
+     * Scores a guess against an answer. This is called in tight loops, so it does not allocate.
+     *
+     * Exact matches are found first. Each remaining letter of the guess then claims the first unclaimed
+     * occurrence of that letter in the answer, so a repeated letter is only marked as being in the wrong
+     * location as many times as it actually appears in the answer.
+     *
+     * @param guess the guessed word
+     * @param answer the word being guessed
+     * @return the pattern for the guess
+     */
+    public static int evaluate(String guess, String answer) {
+        int claimed = 0;
+        for (int i = 0; i < Game.WORD_LENGTH; ++i) {
+            if (guess.charAt(i) == answer.charAt(i)) {
+                claimed |= 1 << i;
+            }
+        }
+        int pattern = 0;
+        for (int i = 0; i < Game.WORD_LENGTH; ++i) {
+            int match;
+            if (guess.charAt(i) == answer.charAt(i)) {
+                match = EXACT_MATCH;
+            } else {
+                match = NO_MATCH;
+                char c = guess.charAt(i);
+                for (int j = 0; j < Game.WORD_LENGTH; ++j) {
+                    if ((claimed & (1 << j)) == 0 && answer.charAt(j) == c) {
+                        claimed |= 1 << j;
+                        match = WRONG_LOCATION;
+                        break;
+                    }
+                }
+            }
+            pattern += match * POWERS[i];
+        }
+        return pattern;
+    }
+
+    /**
+     * @param matches one row of matches returned by the server
+     * @return the pattern for the row
+     */
+    public static int patternOf(UserGame.MatchPair[] matches) {
+        int pattern = 0;
+        for (int i = 0; i < Game.WORD_LENGTH; ++i) {
+            pattern += matches[i].getMatch().ordinal() * POWERS[i];
+        }
+        return pattern;
+    }
+
+    /**
+     * @param matches one row of matches returned by the server
+     * @return the guessed word for the row, in lower case
+     */
+    public static String guessOf(UserGame.MatchPair[] matches) {
+        char[] chars = new char[Game.WORD_LENGTH];
+        for (int i = 0; i < Game.WORD_LENGTH; ++i) {
+            chars[i] = Character.toLowerCase(matches[i].getChar());
+        }
+        return new String(chars);
+    }
+
+    /**
+     * @param pattern a pattern
+     * @param index the letter position
+     * @return the match for the letter at the given position of the pattern
+     */
+    public static UserGame.Match matchAt(int pattern, int index) {
+        return MATCHES[pattern / POWERS[index] % 3];
+    }
+
+    /**
+     * Builds the row of matches the server would return for a guess with the given pattern.
+     *
+     * @param guess the guessed word
+     * @param pattern the pattern for the guess
+     * @return the row of matches
+     */
+    public static UserGame.MatchPair[] toMatchPairs(String guess, int pattern) {
+        UserGame.MatchPair[] matches = new UserGame.MatchPair[Game.WORD_LENGTH];
+        for (int i = 0; i < Game.WORD_LENGTH; ++i) {
+            matches[i] = new UserGame.MatchPair(matchAt(pattern, i), guess.charAt(i));
+        }
+        return matches;
+    }
+}
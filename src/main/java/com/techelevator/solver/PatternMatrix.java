@@ -0,0 +1,139 @@
+package com.techelevator.solver;
+
+import com.techelevator.utils.BasicLogger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+/**
+ * PatternMatrix is a precomputed table of the pattern for every guess and answer pair in a word list.
+ *
+ * The table is stored in a file with one byte per pair and is memory-mapped, so a lookup is a single read from
+ * the page cache and the table takes no space on the heap. The file starts with a header recording the format
+ * version, the number of words and the word list checksum. If the header does not match the word list, the
+ * file is stale and is rebuilt.
+ *
+ * File layout (big-endian):
+ *   magic (int), version (int), word count (int), reserved (int), word list checksum (long), then
+ *   word count * word count pattern bytes, one row per guess.
+ */
+public class PatternMatrix {
+
+    private static final int MAGIC = 0x54455244; // "TERD"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 24;
+
+    // The largest word list whose table fits in a single mapped buffer
+    public static final int MAX_WORDS = (int) Math.sqrt(Integer.MAX_VALUE - HEADER_SIZE);
+
+    private final MappedByteBuffer table;
+    private final int size;
+
+    private PatternMatrix(MappedByteBuffer table, int size) {
+        this.table = table;
+        this.size = size;
+    }
+
+    /**
+     * Opens the pattern matrix for a word list, building the file first if it is missing or stale.
+     *
+     * @param words the word list
+     * @param file the file holding the table
+     * @return the pattern matrix, or null if the file could not be read or built
+     */
+    public static PatternMatrix open(WordList words, Path file) {
+        if (words.size() > MAX_WORDS) {
+            BasicLogger.log(String.format("Word list of %d words is too large for a pattern matrix.", words.size()));
+            return null;
+        }
+        try {
+            if (!isCurrent(words, file)) {
+                build(words, file);
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, 0, tableSize(words.size()));
+                return new PatternMatrix(table, words.size());
+            }
+        } catch (IOException e) {
+            BasicLogger.log(e);
+            return null;
+        }
+    }
+
+    /**
+     * @param guess the index of the guessed word
+     * @param answer the index of the answer
+     * @return the pattern for the guess, as computed by MatchEvaluator.evaluate
+     */
+    public int get(int guess, int answer) {
+        return table.get(HEADER_SIZE + guess * size + answer) & 0xFF;
+    }
+
+    public int size() {
+        return size;
+    }
+
+
+    // ***** Helper Methods ***************************************************
+
+    private static long tableSize(int wordCount) {
+        return HEADER_SIZE + (long) wordCount * wordCount;
+    }
+
+    private static boolean isCurrent(WordList words, Path file) throws IOException {
+        if (!Files.isReadable(file) || Files.size(file) != tableSize(words.size())) {
+            return false;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // keep reading until the header is full
+            }
+        }
+        header.flip();
+        return header.remaining() == HEADER_SIZE &&
+                header.getInt() == MAGIC &&
+                header.getInt() == VERSION &&
+                header.getInt() == words.size() &&
+                header.getInt() == 0 &&
+                header.getLong() == words.checksum();
+    }
+
+    /**
+     * Builds the table in a temporary file, filling rows in parallel, and then moves it into place. The header
+     * is written last, so a partly written file is never mistaken for a current one.
+     */
+    private static void build(WordList words, Path file) throws IOException {
+        long start = System.nanoTime();
+        int size = words.size();
+        Path absoluteFile = file.toAbsolutePath();
+        Path tempFile = Files.createTempFile(absoluteFile.getParent(), absoluteFile.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_WRITE, 0, tableSize(size));
+                IntStream.range(0, size).parallel().forEach(guess -> {
+                    String guessWord = words.get(guess);
+                    int rowStart = HEADER_SIZE + guess * size;
+                    for (int answer = 0; answer < size; ++answer) {
+                        table.put(rowStart + answer, (byte) MatchEvaluator.evaluate(guessWord, words.get(answer)));
+                    }
+                });
+                table.force();
+                table.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, size).putInt(12, 0).putLong(16, words.checksum());
+                table.force();
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        BasicLogger.log(String.format("Built pattern matrix for %d words in %d ms.", size,
+                (System.nanoTime() - start) / 1_000_000));
+    }
+}
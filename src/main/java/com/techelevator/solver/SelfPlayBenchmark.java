@@ -0,0 +1,162 @@
+package com.techelevator.solver;
+
+import com.techelevator.model.Game;
+import com.techelevator.model.UserGame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * SelfPlayBenchmark plays a game for every word in a word list against a GuessStrategy.
+ *
+ * Games are played entirely on the client, with MatchEvaluator standing in for the server, and run in parallel on
+ * a ForkJoinPool. The strategy is prepared once before the games start, and the time that takes is not counted.
+ * The result reports how well the strategy plays and how fast the game logic runs.
+ */
+public class SelfPlayBenchmark {
+
+    private final WordList answers;
+    private final GuessStrategy strategy;
+
+    /**
+     * @param answers the words to use as answers, one game per word
+     * @param strategy the strategy that makes the guesses
+     */
+    public SelfPlayBenchmark(WordList answers, GuessStrategy strategy) {
+        this.answers = answers;
+        this.strategy = strategy;
+    }
+
+    /**
+     * Plays every game using all available cores.
+     * @return the result of the benchmark
+     */
+    public Result run() {
+        return run(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool the pool to play the games on
+     * @return the result of the benchmark
+     */
+    public Result run(ForkJoinPool pool) {
+        int gameCount = answers.size();
+        int[] guessCounts = new int[gameCount];
+        long[] latencies = new long[gameCount];
+
+        strategy.prepare();
+        long start = System.nanoTime();
+        try {
+            pool.submit(() -> IntStream.range(0, gameCount).parallel().forEach(i -> {
+                long gameStart = System.nanoTime();
+                guessCounts[i] = play(answers.get(i));
+                latencies[i] = System.nanoTime() - gameStart;
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The benchmark was interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("The benchmark failed.", e.getCause());
+        }
+        long elapsed = System.nanoTime() - start;
+
+        return new Result(strategy.getName(), guessCounts, latencies, elapsed);
+    }
+
+    /**
+     * Plays one game.
+     * @param answer the word to guess
+     * @return the number of guesses taken, or 0 if the word was not guessed within Game.MAX_GUESSES
+     */
+    int play(String answer) {
+        List<UserGame.MatchPair[]> matches = new ArrayList<>(Game.MAX_GUESSES);
+        for (int guessNumber = 1; guessNumber <= Game.MAX_GUESSES; ++guessNumber) {
+            String guess = strategy.nextGuess(matches);
+            int pattern = MatchEvaluator.evaluate(guess, answer);
+            if (pattern == MatchEvaluator.SOLVED_PATTERN) {
+                return guessNumber;
+            }
+            matches.add(MatchEvaluator.toMatchPairs(guess, pattern));
+        }
+        return 0;
+    }
+
+
+    // ***** inner class: Result **********************************************
+
+    /**
+     * The result of a benchmark run.
+     */
+    public static class Result {
+        private final String strategyName;
+        private final int gamesPlayed;
+        private final int failures;
+        private final double averageGuesses;
+        private final double gamesPerSecond;
+        private final long[] sortedLatencies;
+
+        private Result(String strategyName, int[] guessCounts, long[] latencies, long elapsedNanos) {
+            this.strategyName = strategyName;
+            this.gamesPlayed = guessCounts.length;
+            int solved = 0;
+            long totalGuesses = 0;
+            for (int guessCount : guessCounts) {
+                if (guessCount > 0) {
+                    solved++;
+                    totalGuesses += guessCount;
+                }
+            }
+            this.failures = gamesPlayed - solved;
+            this.averageGuesses = solved == 0 ? 0.0 : totalGuesses / (double) solved;
+            this.gamesPerSecond = elapsedNanos == 0 ? 0.0 : gamesPlayed / (elapsedNanos / 1e9);
+            this.sortedLatencies = latencies.clone();
+            Arrays.sort(sortedLatencies);
+        }
+
+        public String getStrategyName() {
+            return strategyName;
+        }
+
+        public int getGamesPlayed() {
+            return gamesPlayed;
+        }
+
+        /**
+         * @return the number of games not won within Game.MAX_GUESSES
+         */
+        public int getFailures() {
+            return failures;
+        }
+
+        public double getFailureRate() {
+            return gamesPlayed == 0 ? 0.0 : failures / (double) gamesPlayed;
+        }
+
+        /**
+         * @return the average number of guesses for the games that were won
+         */
+        public double getAverageGuesses() {
+            return averageGuesses;
+        }
+
+        public double getGamesPerSecond() {
+            return gamesPerSecond;
+        }
+
+        /**
+         * @param percentile the percentile, from 0 to 100
+         * @return the time taken to play a game at the given percentile, in milliseconds
+         */
+        public double getLatencyMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, Math.min(index, sortedLatencies.length - 1))] / 1e6;
+        }
+    }
+}
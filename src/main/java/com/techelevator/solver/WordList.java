@@ -0,0 +1,149 @@
+package com.techelevator.solver;
+
+import com.techelevator.model.Game;
+import com.techelevator.utils.BasicLogger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * WordList is an indexed list of the words the solver can guess.
+ *
+ * Each word is given a fixed index so that sets of words can be represented as a BitSet, where bit i is set
+ * when word i is in the set. Words are kept in sorted order, so the same words always get the same indexes.
+ */
+public class WordList {
+
+    // The word list that ships with the client, on the classpath
+    public static final String DEFAULT_RESOURCE = "/words.txt";
+
+    private final String[] words;
+    private final Map<String, Integer> indexes = new HashMap<>();
+
+    /**
+     * @param words the words for the list; words that are not 5 letters are ignored and duplicates are removed
+     */
+    public WordList(Collection<String> words) {
+        TreeSet<String> validWords = new TreeSet<>();
+        for (String word : words) {
+            if (word != null) {
+                String lowerCaseWord = word.trim().toLowerCase();
+                if (isValidWord(lowerCaseWord)) {
+                    validWords.add(lowerCaseWord);
+                }
+            }
+        }
+        this.words = validWords.toArray(new String[0]);
+        for (int i = 0; i < this.words.length; ++i) {
+            indexes.put(this.words[i], i);
+        }
+    }
+
+    /**
+     * Loads a word list from a text file with one word per line.
+     *
+     * @param file the file to read
+     * @return the word list, or null if the file could not be read
+     */
+    public static WordList load(Path file) {
+        if (!Files.isReadable(file)) {
+            return null;
+        }
+        try (Stream<String> lines = Files.lines(file)) {
+            return new WordList(lines.collect(Collectors.toList()));
+        } catch (IOException e) {
+            BasicLogger.log(e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Loads the word list that ships with the client.
+     *
+     * @return the word list, or null if it could not be read
+     */
+    public static WordList loadDefault() {
+        try (InputStream in = WordList.class.getResourceAsStream(DEFAULT_RESOURCE)) {
+            if (in == null) {
+                BasicLogger.log("The word list " + DEFAULT_RESOURCE + " is not on the classpath.");
+                return null;
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII));
+            return new WordList(reader.lines().collect(Collectors.toList()));
+        } catch (IOException e) {
+            BasicLogger.log(e.getMessage());
+            return null;
+        }
+    }
+
+    public int size() {
+        return words.length;
+    }
+
+    public String get(int index) {
+        return words[index];
+    }
+
+    /**
+     * @param word the word to find
+     * @return the index of the word, or -1 if the word is not in the list
+     */
+    public int indexOf(String word) {
+        Integer index = word == null ? null : indexes.get(word.toLowerCase());
+        return index == null ? -1 : index;
+    }
+
+    public boolean contains(String word) {
+        return indexOf(word) >= 0;
+    }
+
+    /**
+     * @return a checksum of the words in the list, used to tell whether data derived from the list is stale
+     */
+    public long checksum() {
+        CRC32 crc = new CRC32();
+        for (String word : words) {
+            crc.update(word.getBytes(StandardCharsets.US_ASCII));
+            crc.update('\n');
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * @return a new set containing every word in the list
+     */
+    public BitSet all() {
+        BitSet all = new BitSet(words.length);
+        all.set(0, words.length);
+        return all;
+    }
+
+
+    // ***** Helper Methods ***************************************************
+
+    private static boolean isValidWord(String word) {
+        if (word.length() != Game.WORD_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); ++i) {
+            char c = word.charAt(i);
+            if (c < 'a' || c > 'z') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,68 @@
+package com.techelevator.stats;
+
+import com.techelevator.model.Game;
+
+/**
+ * GameStats holds the totals for the games played over a period of time.
+ */
+public class GameStats {
+
+    private final int started;
+    private final int completed;
+    private final int won;
+    private final int totalGuesses;
+    private final int[] guessDistribution;
+
+    /**
+     * @param started the number of games started
+     * @param completed the number of games won or lost
+     * @param won the number of games won
+     * @param totalGuesses the total number of guesses made in the completed games
+     * @param guessDistribution the number of games won in 1 to Game.MAX_GUESSES guesses, indexed from 0
+     */
+    public GameStats(int started, int completed, int won, int totalGuesses, int[] guessDistribution) {
+        this.started = started;
+        this.completed = completed;
+        this.won = won;
+        this.totalGuesses = totalGuesses;
+        this.guessDistribution = guessDistribution;
+    }
+
+    public int getStarted() {
+        return started;
+    }
+
+    public int getCompleted() {
+        return completed;
+    }
+
+    public int getWon() {
+        return won;
+    }
+
+    public int getTotalGuesses() {
+        return totalGuesses;
+    }
+
+    /**
+     * @param guesses the number of guesses, from 1 to Game.MAX_GUESSES
+     * @return the number of games won in that many guesses
+     */
+    public int getWonIn(int guesses) {
+        return guesses < 1 || guesses > Game.MAX_GUESSES ? 0 : guessDistribution[guesses - 1];
+    }
+
+    /**
+     * @return the percentage of completed games that were won, or 0 if no games were completed
+     */
+    public double getWonPercentage() {
+        return completed == 0 ? 0.0 : won * 100.0 / completed;
+    }
+
+    /**
+     * @return the average number of guesses in the completed games, or 0 if no games were completed
+     */
+    public double getAverageGuesses() {
+        return completed == 0 ? 0.0 : totalGuesses / (double) completed;
+    }
+}
@@ -0,0 +1,313 @@
+package com.techelevator.stats;
+
+import com.techelevator.model.Game;
+import com.techelevator.model.UserGame;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HistoryIndex keeps a user's game statistics indexed by date, so the statistics for any range of dates can be
+ * found in constant time.
+ *
+ * For each counter (games started, completed and won, total guesses, and games won in each number of guesses)
+ * the index keeps a prefix sum by day: the total for every day before that day. The total for a range of dates
+ * is then the difference of two prefix sums.
+ *
+ * The index is updated one game at a time as games are played. Updating a game adjusts the prefix sums from
+ * the game's date on, which for the current day's games is constant time. The current and longest streaks of
+ * daily games won on consecutive days are kept up to date the same way.
+ *
+ * The index is also a HistorySource; the games are sorted by date when a page is first asked for after a
+ * change, rather than on every update.
+ */
+public class HistoryIndex implements HistorySource {
+
+    private static final int COUNTERS = 4 + Game.MAX_GUESSES;
+    private static final int STARTED = 0;
+    private static final int COMPLETED = 1;
+    private static final int WON = 2;
+    private static final int GUESSES = 3;
+    private static final int WON_IN = 4; // WON_IN + n - 1 counts the games won in n guesses
+
+    // The epoch day of prefix index 0, and the number of days covered
+    private long firstDay;
+    private int dayCount;
+
+    // prefix[counter][i] is the total of the counter for the days before firstDay + i; has dayCount + 1 entries
+    private long[][] prefix = new long[COUNTERS][1];
+
+    // Days on which a daily game was won, indexed from firstDay
+    private BitSet dailyWins = new BitSet();
+    private int lastDailyWin = -1;
+    private int currentStreak;
+    private int maxStreak;
+
+    // The latest state of each game and its contribution to the counters, by game id
+    private final Map<Integer, UserGame> games = new HashMap<>();
+    private final Map<Integer, long[]> contributions = new HashMap<>();
+
+    // The games sorted newest first, or null if games have been added since they were last sorted
+    private List<UserGame> newestFirst;
+
+    private static final Comparator<UserGame> NEWEST_FIRST =
+            Comparator.comparing(UserGame::getDate).thenComparing(UserGame::getGameId).reversed();
+
+    public HistoryIndex() {
+    }
+
+    /**
+     * @param userGames the games to index
+     */
+    public HistoryIndex(Collection<UserGame> userGames) {
+        userGames.stream().filter(game -> game.getDate() != null).
+                sorted(Comparator.comparing(Game::getDate)).forEach(this::record);
+    }
+
+    /**
+     * Adds a game to the index, or updates it if the game is already in the index. Games without a date are
+     * ignored.
+     *
+     * @param userGame the latest state of the game
+     */
+    public void record(UserGame userGame) {
+        if (userGame.getDate() == null) {
+            return;
+        }
+        int day = ensureDay(userGame.getDate().toEpochDay());
+        long[] contribution = contributionOf(userGame);
+        long[] previous = contributions.put(userGame.getGameId(), contribution);
+        games.put(userGame.getGameId(), userGame);
+        if (newestFirst != null) {
+            // An update keeps the game's place in the order, so only a new game needs a sort
+            int position = Collections.binarySearch(newestFirst, userGame, NEWEST_FIRST);
+            if (position >= 0) {
+                newestFirst.set(position, userGame);
+            } else {
+                newestFirst = null;
+            }
+        }
+        for (int counter = 0; counter < COUNTERS; ++counter) {
+            long delta = contribution[counter] - (previous == null ? 0 : previous[counter]);
+            if (delta != 0) {
+                for (int i = day + 1; i <= dayCount; ++i) {
+                    prefix[counter][i] += delta;
+                }
+            }
+        }
+        if (userGame.getType() == Game.Type.DAILY && userGame.isSuccess() && !dailyWins.get(day)) {
+            dailyWins.set(day);
+            updateStreaks(day);
+        }
+    }
+
+    /**
+     * Records a game fetched earlier, such as by a background sync, unless the index already has a later state
+     * of it. A game only gains guesses, so the copy with fewer guesses is the older one.
+     *
+     * @param userGame the game as it was fetched
+     * @return true if the game was recorded
+     */
+    public boolean recordIfNewer(UserGame userGame) {
+        UserGame known = games.get(userGame.getGameId());
+        if (known != null && known.getGuesses().size() > userGame.getGuesses().size()) {
+            return false;
+        }
+        record(userGame);
+        return true;
+    }
+
+    /**
+     * @return the latest state of every game in the index
+     */
+    public List<UserGame> getGames() {
+        return new ArrayList<>(games.values());
+    }
+
+    @Override
+    public int size() {
+        return games.size();
+    }
+
+    @Override
+    public List<UserGame> getPage(int offset, int limit) {
+        List<UserGame> sorted = getNewestFirst();
+        int from = Math.max(0, Math.min(offset, sorted.size()));
+        int to = Math.min(sorted.size(), from + Math.max(0, limit));
+        return new ArrayList<>(sorted.subList(from, to));
+    }
+
+    @Override
+    public int positionOf(LocalDate date) {
+        List<UserGame> sorted = getNewestFirst();
+        int low = 0;
+        int high = sorted.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted.get(middle).getDate().isAfter(date)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param from the first date, inclusive
+     * @param to the last date, inclusive
+     * @return the statistics for the games dated in the range
+     */
+    public GameStats getStats(LocalDate from, LocalDate to) {
+        long first = Math.max(from.toEpochDay(), firstDay) - firstDay;
+        long last = Math.min(to.toEpochDay(), firstDay + dayCount - 1) - firstDay;
+        if (dayCount == 0 || first > last) {
+            return new GameStats(0, 0, 0, 0, new int[Game.MAX_GUESSES]);
+        }
+        long[] totals = new long[COUNTERS];
+        for (int counter = 0; counter < COUNTERS; ++counter) {
+            totals[counter] = prefix[counter][(int) last + 1] - prefix[counter][(int) first];
+        }
+        int[] distribution = new int[Game.MAX_GUESSES];
+        for (int guesses = 0; guesses < Game.MAX_GUESSES; ++guesses) {
+            distribution[guesses] = (int) totals[WON_IN + guesses];
+        }
+        return new GameStats((int) totals[STARTED], (int) totals[COMPLETED], (int) totals[WON], (int) totals[GUESSES],
+                distribution);
+    }
+
+    /**
+     * @return the statistics for every game in the index
+     */
+    public GameStats getAllTimeStats() {
+        return getStats(LocalDate.MIN, LocalDate.MAX);
+    }
+
+    /**
+     * @param days the number of days, including today
+     * @param today the current date
+     * @return the statistics for the games dated in the last given number of days
+     */
+    public GameStats getLastDaysStats(int days, LocalDate today) {
+        return getStats(today.minusDays(days - 1), today);
+    }
+
+    /**
+     * @param month the month
+     * @return the statistics for the games dated in the month
+     */
+    public GameStats getMonthStats(YearMonth month) {
+        return getStats(month.atDay(1), month.atEndOfMonth());
+    }
+
+    /**
+     * @param today the current date
+     * @return the number of consecutive days, up to today, on which the daily game was won; a streak is not
+     *         broken until a day passes without a win, so it still counts if today's game has not been won yet
+     */
+    public int getCurrentStreak(LocalDate today) {
+        return lastDailyWin >= 0 && firstDay + lastDailyWin >= today.toEpochDay() - 1 ? currentStreak : 0;
+    }
+
+    /**
+     * @return the greatest number of consecutive days on which the daily game was won
+     */
+    public int getMaxStreak() {
+        return maxStreak;
+    }
+
+
+    // ***** Helper Methods ***************************************************
+
+    private List<UserGame> getNewestFirst() {
+        if (newestFirst == null) {
+            newestFirst = new ArrayList<>(games.values());
+            newestFirst.sort(NEWEST_FIRST);
+        }
+        return newestFirst;
+    }
+
+    private static long[] contributionOf(UserGame userGame) {
+        long[] contribution = new long[COUNTERS];
+        int guesses = userGame.getGuesses().size();
+        contribution[STARTED] = 1;
+        if (userGame.isSuccess() || guesses >= Game.MAX_GUESSES) {
+            contribution[COMPLETED] = 1;
+            contribution[GUESSES] = guesses;
+        }
+        if (userGame.isSuccess()) {
+            contribution[WON] = 1;
+            if (guesses >= 1 && guesses <= Game.MAX_GUESSES) {
+                contribution[WON_IN + guesses - 1] = 1;
+            }
+        }
+        return contribution;
+    }
+
+    /**
+     * Grows the index to cover the given day.
+     * @return the index of the day
+     */
+    private int ensureDay(long epochDay) {
+        if (dayCount == 0) {
+            firstDay = epochDay;
+        }
+        if (epochDay < firstDay) {
+            // Shift everything later; the new days before the old first day have no games
+            int shift = (int) (firstDay - epochDay);
+            for (int counter = 0; counter < COUNTERS; ++counter) {
+                long[] shifted = new long[dayCount + shift + 1];
+                System.arraycopy(prefix[counter], 0, shifted, shift, dayCount + 1);
+                prefix[counter] = shifted;
+            }
+            BitSet shiftedWins = new BitSet();
+            for (int i = dailyWins.nextSetBit(0); i >= 0; i = dailyWins.nextSetBit(i + 1)) {
+                shiftedWins.set(i + shift);
+            }
+            dailyWins = shiftedWins;
+            if (lastDailyWin >= 0) {
+                lastDailyWin += shift;
+            }
+            firstDay = epochDay;
+            dayCount += shift;
+        }
+        int day = (int) (epochDay - firstDay);
+        if (day >= dayCount) {
+            int newDayCount = day + 1;
+            for (int counter = 0; counter < COUNTERS; ++counter) {
+                if (prefix[counter].length < newDayCount + 1) {
+                    prefix[counter] = Arrays.copyOf(prefix[counter], Math.max(newDayCount + 1, prefix[counter].length * 2));
+                }
+                Arrays.fill(prefix[counter], dayCount + 1, newDayCount + 1, prefix[counter][dayCount]);
+            }
+            dayCount = newDayCount;
+        }
+        return day;
+    }
+
+    private void updateStreaks(int day) {
+        if (day > lastDailyWin) {
+            currentStreak = day == lastDailyWin + 1 && lastDailyWin >= 0 ? currentStreak + 1 : 1;
+            lastDailyWin = day;
+            maxStreak = Math.max(maxStreak, currentStreak);
+        } else {
+            // A win recorded out of order can join two streaks, so count them again
+            maxStreak = 0;
+            int run = 0;
+            for (int i = 0; i <= lastDailyWin; ++i) {
+                run = dailyWins.get(i) ? run + 1 : 0;
+                maxStreak = Math.max(maxStreak, run);
+            }
+            currentStreak = run;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.techelevator.stats;
+
+import com.techelevator.model.UserGame;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A HistorySource provides a user's games a page at a time, newest first, so a viewer only has to hold and
+ * render the games on the page being shown.
+ */
+public interface HistorySource {
+
+    /**
+     * @return the number of games in the history
+     */
+    int size();
+
+    /**
+     * @param offset the position of the first game on the page, from 0 for the newest game
+     * @param limit the maximum number of games on the page
+     * @return the games on the page, newest first
+     */
+    List<UserGame> getPage(int offset, int limit);
+
+    /**
+     * @param date a date
+     * @return the position of the newest game dated on or before the date, or size() if there is none
+     */
+    int positionOf(LocalDate date);
+}
@@ -2,7 +2,10 @@ package com.techelevator.utils;
 
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -13,14 +16,18 @@ import java.time.format.DateTimeFormatter;
  */
 public class BasicLogger {
 
+	// Starts the line logged for an exception, before its stack trace
+	public static final String EXCEPTION_MARKER = "An Exception occurred";
+
+	// The directory the daily log files are written to: logs, unless the terdle.log.dir system property is set,
+	// as it is for the tests
+	public static final Path DIRECTORY = Path.of(System.getProperty("terdle.log.dir", "logs"));
+
 	private static PrintWriter pw = null;
 	
-	public static void log(String message) {
+	public static synchronized void log(String message) {
 		try {
-			if (pw == null) {
-				String logFilename = "logs/" + LocalDate.now().format(DateTimeFormatter.ISO_DATE) + ".log";
-				pw = new PrintWriter(new FileOutputStream(logFilename, true));
-			}
+			open();
 			pw.println(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME) + " " + message);
 			pw.flush();
 		}
@@ -29,13 +36,10 @@ public class BasicLogger {
 		}
 	}
 
-	public static void log(Exception exception) {
+	public static synchronized void log(Exception exception) {
 		try {
-			if (pw == null) {
-				String logFilename = "logs/" + LocalDate.now().format(DateTimeFormatter.ISO_DATE) + ".log";
-				pw = new PrintWriter(new FileOutputStream(logFilename, true));
-			}
-			pw.println(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME) + " An Exception occurred");
+			open();
+			pw.println(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME) + " " + EXCEPTION_MARKER);
 			exception.printStackTrace(pw);
 			pw.flush();
 		}
@@ -44,4 +48,16 @@ public class BasicLogger {
 		}
 	}
 
+	private static void open() throws FileNotFoundException {
+		if (pw == null) {
+			try {
+				Files.createDirectories(DIRECTORY);
+			} catch (IOException e) {
+				throw new BasicLoggerException(e.getMessage());
+			}
+			Path logFile = DIRECTORY.resolve(LocalDate.now().format(DateTimeFormatter.ISO_DATE) + ".log");
+			pw = new PrintWriter(new FileOutputStream(logFile.toFile(), true));
+		}
+	}
+
 }
@@ -0,0 +1,62 @@
+package com.techelevator.utils;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * BulkExecutor runs a large number of tasks, such as requests to the server REST API, with a bounded number
+ * in flight at once and a limit on how many start per second.
+ *
+ * submit() blocks while the maximum number of tasks are in flight, so a producer reading a large file
+ * never gets more than that many tasks ahead of the work that has completed.
+ *
+ * The tasks are run on the shared TaskExecutor; BulkExecutor only limits how many of them are in flight.
+ */
+public class BulkExecutor {
+
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final RateLimiter rateLimiter;
+
+    /**
+     * @param maxInFlight the maximum number of tasks running at once
+     * @param tasksPerSecond the maximum number of tasks started per second; zero or less for no limit
+     */
+    public BulkExecutor(int maxInFlight, double tasksPerSecond) {
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.inFlight = new Semaphore(this.maxInFlight);
+        this.rateLimiter = new RateLimiter(tasksPerSecond);
+    }
+
+    /**
+     * Runs a task on a worker thread, waiting first for a free slot.
+     * @param task the task to run
+     * @throws InterruptedException if interrupted while waiting for a free slot
+     */
+    public void submit(Runnable task) throws InterruptedException {
+        inFlight.acquire();
+        try {
+            TaskExecutor.shared().execute(() -> {
+                try {
+                    rateLimiter.acquire();
+                    task.run();
+                } catch (RuntimeException e) {
+                    BasicLogger.log(e);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for every submitted task to complete.
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void awaitCompletion() throws InterruptedException {
+        inFlight.acquire(maxInFlight);
+        inFlight.release(maxInFlight);
+    }
+}
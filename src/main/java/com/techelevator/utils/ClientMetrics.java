@@ -0,0 +1,63 @@
+package com.techelevator.utils;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ClientMetrics keeps named counters for what the client does, such as how many requests it sends, so they can
+ * be shown to an admin. Like BasicLogger it is shared by the whole application.
+ *
+ * Counters are LongAdders, so counting from many threads at once does not make them wait on each other.
+ */
+public class ClientMetrics {
+
+    private static final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    private ClientMetrics() {
+    }
+
+    /**
+     * Adds one to a counter.
+     * @param name the name of the counter
+     */
+    public static void increment(String name) {
+        add(name, 1);
+    }
+
+    /**
+     * Adds an amount to a counter.
+     * @param name the name of the counter
+     * @param amount the amount to add
+     */
+    public static void add(String name, long amount) {
+        counters.computeIfAbsent(name, key -> new LongAdder()).add(amount);
+    }
+
+    /**
+     * @param name the name of the counter
+     * @return the value of the counter, or 0 if nothing has been counted
+     */
+    public static long get(String name) {
+        LongAdder counter = counters.get(name);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /**
+     * @return the value of every counter, by name
+     */
+    public static SortedMap<String, Long> snapshot() {
+        SortedMap<String, Long> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.sum()));
+        return values;
+    }
+
+    /**
+     * Sets every counter back to 0.
+     */
+    public static void reset() {
+        counters.values().forEach(LongAdder::reset);
+    }
+}
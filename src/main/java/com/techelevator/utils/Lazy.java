@@ -0,0 +1,58 @@
+package com.techelevator.utils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Lazy holds a value that is created the first time it is needed, so the cost of creating it is not paid
+ * until then, or is paid on a background thread by calling preload() ahead of time.
+ *
+ * The value is created only once, even if it is first asked for on several threads at the same time.
+ *
+ * @param <T> the type of the value
+ */
+public class Lazy<T> {
+
+    private final Supplier<T> supplier;
+    private volatile T value;
+
+    /**
+     * @param supplier creates the value; called at most once
+     */
+    public Lazy(Supplier<T> supplier) {
+        this.supplier = supplier;
+    }
+
+    /**
+     * @return the value, creating it if it has not been created yet
+     */
+    public T get() {
+        T result = value;
+        if (result == null) {
+            synchronized (this) {
+                result = value;
+                if (result == null) {
+                    result = supplier.get();
+                    value = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Starts creating the value on a background thread, if it has not been created yet.
+     * @return a future that completes when the value has been created
+     */
+    public CompletableFuture<T> preload() {
+        T result = value;
+        return result != null ? CompletableFuture.completedFuture(result) : TaskExecutor.shared().supply(this::get);
+    }
+
+    /**
+     * @return true if the value has been created
+     */
+    public boolean isLoaded() {
+        return value != null;
+    }
+}
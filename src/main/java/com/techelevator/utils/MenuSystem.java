@@ -26,6 +26,7 @@ public class MenuSystem<T> {
     private final T target;
     private final Map<String,Menu<T>> menus;
     private final Stack<Menu<T>> menuStack = new Stack<>();
+    private Consumer<T> beforeDisplay = target -> { };
 
     // ***** Constructors *****************************************************
 
@@ -49,11 +50,13 @@ public class MenuSystem<T> {
     public void run() {
         Menu<T> menu = getCurrentMenu();
         while (menu != null) {
+            beforeDisplay.accept(target);
+            menu = getCurrentMenu();
             display();
             Integer selection = console.promptForInteger("Please select: ");
             if (selection > 0 && selection <= menu.items.length) {
                 Item<T> item = menu.items[selection - 1];
-                item.invoke(target);
+                Tracer.run("action", item.geText(), () -> item.invoke(target));
             }
             menu = getCurrentMenu();
         }
@@ -66,6 +69,24 @@ public class MenuSystem<T> {
         menuStack.pop();
     }
 
+    /**
+     * Exit every menu but the starting menu
+     */
+    public void returnToStartMenu() {
+        while (menuStack.size() > 1) {
+            menuStack.pop();
+        }
+    }
+
+    /**
+     * Set a method to call on the target each time before a menu is displayed. The method may change the
+     * current menu.
+     * @param method the method to call
+     */
+    public void setBeforeDisplay(Consumer<T> method) {
+        beforeDisplay = method;
+    }
+
     /**
      * Make the menu with the given unique name the current menu
      * @param menuName the unique name of the menu to make current
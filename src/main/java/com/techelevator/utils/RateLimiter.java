@@ -0,0 +1,43 @@
+package com.techelevator.utils;
+
+/**
+ * RateLimiter spaces out work so that it runs no more than a given number of times per second.
+ *
+ * Each call to acquire() reserves the next free time slot and waits until that slot arrives. Callers on
+ * different threads are served in the order they reserve slots.
+ */
+public class RateLimiter {
+
+    private final long intervalNanos;
+    private long nextSlotNanos = System.nanoTime();
+
+    /**
+     * @param permitsPerSecond the maximum rate; zero or less for no limit
+     */
+    public RateLimiter(double permitsPerSecond) {
+        this.intervalNanos = permitsPerSecond > 0 ? (long) (1e9 / permitsPerSecond) : 0;
+    }
+
+    /**
+     * Waits until the next permit is available.
+     */
+    public void acquire() {
+        if (intervalNanos == 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = Math.max(now, nextSlotNanos);
+            nextSlotNanos = slot + intervalNanos;
+            waitNanos = slot - now;
+        }
+        if (waitNanos > 0) {
+            try {
+                Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.techelevator.utils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * TaskExecutor runs the application's background and concurrent work: asynchronous requests, bulk admin
+ * operations, and work started ahead of time such as creating services. Like ClientMetrics there is one shared by
+ * the whole application, chosen with the EXECUTOR setting.
+ *
+ * There are two kinds:
+ *
+ *     virtual - a new virtual thread for each task, on a JDK that has virtual threads (21 or later). Tasks never
+ *               wait for a thread, and a task blocked on the network costs almost nothing.
+ *     pool    - a bounded pool of platform threads with a bounded queue. When the queue is full the task is run
+ *               on the thread that submitted it, which slows the submitter down rather than losing the task.
+ *
+ * If virtual threads are asked for but the JDK does not have them, the pool is used.
+ *
+ * The tasks submitted, completed and failed, the threads started, the tasks run by their submitter and the total
+ * time tasks waited to start are counted in ClientMetrics, under executor.*. The number of tasks running and
+ * waiting right now are given by getActiveCount and getQueuedCount.
+ *
+ * CPU-bound work, such as scoring hints, stays on a ForkJoinPool sized to the cores, where it belongs.
+ */
+public abstract class TaskExecutor implements Executor {
+
+    public static final String VIRTUAL = "virtual";
+    public static final String POOL = "pool";
+
+    public static final String SUBMITTED_METRIC = "executor.tasks.submitted";
+    public static final String COMPLETED_METRIC = "executor.tasks.completed";
+    public static final String FAILED_METRIC = "executor.tasks.failed";
+    public static final String CALLER_RAN_METRIC = "executor.tasks.caller.ran";
+    public static final String WAIT_NANOS_METRIC = "executor.tasks.wait.nanos";
+    public static final String THREADS_METRIC = "executor.threads.started";
+
+    public static final int DEFAULT_MAX_THREADS = 32;
+    public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static TaskExecutor shared;
+
+    private final String kind;
+    private final int maxThreads;
+    private final int queueCapacity;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private TaskExecutor(String kind, int maxThreads, int queueCapacity) {
+        this.kind = kind;
+        this.maxThreads = maxThreads;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * @return the executor shared by the application; a default one is created if none has been configured
+     */
+    public static synchronized TaskExecutor shared() {
+        if (shared == null) {
+            shared = create(VIRTUAL, DEFAULT_MAX_THREADS, DEFAULT_QUEUE_CAPACITY);
+        }
+        return shared;
+    }
+
+    /**
+     * Sets up the shared executor. If the shared executor already has these settings it is kept; otherwise it is
+     * replaced, and the old one finishes the tasks it has and then stops. Application.main calls this once, before
+     * any work is submitted, so work in flight is never left on an executor that has been replaced.
+     *
+     * @param kind VIRTUAL or POOL
+     * @param maxThreads the most threads the pool runs at once
+     * @param queueCapacity the most tasks the pool holds waiting for a thread
+     * @return the shared executor
+     */
+    public static synchronized TaskExecutor configure(String kind, int maxThreads, int queueCapacity) {
+        TaskExecutor current = shared;
+        if (current != null && current.kind.equals(kind.toLowerCase()) && current.maxThreads == maxThreads &&
+                current.queueCapacity == queueCapacity) {
+            return current;
+        }
+        shared = create(kind, maxThreads, queueCapacity);
+        if (current != null) {
+            current.shutdown();
+        }
+        return shared;
+    }
+
+    /**
+     * Creates an executor.
+     *
+     * @param kind VIRTUAL or POOL; anything else is logged and the pool is used
+     * @param maxThreads the most threads the pool runs at once
+     * @param queueCapacity the most tasks the pool holds waiting for a thread
+     * @return the executor
+     */
+    public static TaskExecutor create(String kind, int maxThreads, int queueCapacity) {
+        String name = kind.toLowerCase();
+        int threads = Math.max(1, maxThreads);
+        int capacity = Math.max(1, queueCapacity);
+        if (name.equals(VIRTUAL)) {
+            ExecutorService virtual = newVirtualThreadExecutor();
+            if (virtual != null) {
+                return new VirtualThreadExecutor(virtual, threads, capacity);
+            }
+        } else if (!name.equals(POOL)) {
+            BasicLogger.log(String.format("'%s' is not an executor. Using %s.", kind, POOL));
+        }
+        return new PoolExecutor(name, threads, capacity);
+    }
+
+    /**
+     * @return true if the JDK can run tasks on virtual threads
+     */
+    public static boolean isVirtualThreadSupported() {
+        ExecutorService virtual = newVirtualThreadExecutor();
+        if (virtual == null) {
+            return false;
+        }
+        virtual.shutdown();
+        return true;
+    }
+
+    /**
+     * @return a description of how tasks are run, for the log and reports
+     */
+    public abstract String getName();
+
+    /**
+     * Stops taking tasks. Tasks already submitted are still run.
+     */
+    public abstract void shutdown();
+
+    /**
+     * Runs a task.
+     * @param task the task
+     * @throws RejectedExecutionException if the executor has been shut down
+     */
+    @Override
+    public void execute(Runnable task) {
+        ClientMetrics.increment(SUBMITTED_METRIC);
+        queued.incrementAndGet();
+        long submitted = System.nanoTime();
+        Runnable metered = () -> {
+            queued.decrementAndGet();
+            ClientMetrics.add(WAIT_NANOS_METRIC, System.nanoTime() - submitted);
+            active.incrementAndGet();
+            try {
+                task.run();
+                ClientMetrics.increment(COMPLETED_METRIC);
+            } catch (RuntimeException | Error e) {
+                ClientMetrics.increment(FAILED_METRIC);
+                throw e;
+            } finally {
+                active.decrementAndGet();
+            }
+        };
+        try {
+            dispatch(metered);
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Runs a task that returns a value.
+     * @param task the task
+     * @return a future that completes with the value, or with the exception the task threw
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, this);
+    }
+
+    /**
+     * Runs a task.
+     * @param task the task
+     * @return a future that completes when the task has run
+     */
+    public CompletableFuture<Void> run(Runnable task) {
+        return CompletableFuture.runAsync(task, this);
+    }
+
+    /**
+     * @return the number of tasks running now
+     */
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    /**
+     * @return the number of tasks waiting to start now
+     */
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    /**
+     * Hands a task to the threads that run it.
+     */
+    protected abstract void dispatch(Runnable task);
+
+
+    // ***** Helper Methods ***************************************************
+
+    /**
+     * @return an executor that starts a virtual thread for each task, or null if the JDK does not have them
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            // Looked up by reflection, since the application is built for JDK 11
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        } catch (InvocationTargetException e) {
+            // JDKs with virtual threads as a preview feature throw UnsupportedOperationException without --enable-preview
+            return null;
+        }
+    }
+
+
+    // ***** inner class: VirtualThreadExecutor *******************************
+
+    private static class VirtualThreadExecutor extends TaskExecutor {
+        private final ExecutorService executor;
+
+        private VirtualThreadExecutor(ExecutorService executor, int maxThreads, int queueCapacity) {
+            super(VIRTUAL, maxThreads, queueCapacity);
+            this.executor = executor;
+        }
+
+        @Override
+        public String getName() {
+            return "a virtual thread per task";
+        }
+
+        @Override
+        public void shutdown() {
+            executor.shutdown();
+        }
+
+        @Override
+        protected void dispatch(Runnable task) {
+            executor.execute(task);
+            ClientMetrics.increment(THREADS_METRIC);
+        }
+    }
+
+
+    // ***** inner class: PoolExecutor ****************************************
+
+    private static class PoolExecutor extends TaskExecutor {
+        private final ThreadPoolExecutor executor;
+
+        private PoolExecutor(String kind, int maxThreads, int queueCapacity) {
+            super(kind, maxThreads, queueCapacity);
+            AtomicInteger threadCount = new AtomicInteger();
+            executor = new ThreadPoolExecutor(maxThreads, maxThreads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                        Thread thread = new Thread(runnable, "task-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        ClientMetrics.increment(THREADS_METRIC);
+                        return thread;
+                    }, (runnable, pool) -> {
+                        if (pool.isShutdown()) {
+                            throw new RejectedExecutionException("The executor has been shut down.");
+                        }
+                        ClientMetrics.increment(CALLER_RAN_METRIC);
+                        runnable.run();
+                    });
+            // Threads are started as tasks arrive and stop once idle, so a quiet client holds none
+            executor.allowCoreThreadTimeOut(true);
+        }
+
+        @Override
+        public String getName() {
+            return String.format("a pool of up to %d threads with a queue of %d", executor.getMaximumPoolSize(),
+                    executor.getQueue().remainingCapacity() + executor.getQueue().size());
+        }
+
+        @Override
+        public void shutdown() {
+            executor.shutdown();
+        }
+
+        @Override
+        protected void dispatch(Runnable task) {
+            executor.execute(task);
+        }
+    }
+}
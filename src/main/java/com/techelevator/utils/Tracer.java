@@ -0,0 +1,281 @@
+package com.techelevator.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracer records how long the parts of an action take, as spans, and writes them to a trace file in the Chrome
+ * trace-event format, which can be opened in chrome://tracing or https://ui.perfetto.dev. Like BasicLogger it is
+ * shared by the whole application.
+ *
+ * The code to time is passed to run or call, which open a span around it:
+ *
+ *     Game game = Tracer.call("http", "GET games/today", () -> fetchTodaysGame());
+ *
+ * Tracing is turned on and off while the application runs. When it is off, span returns the same span every time
+ * and closing it does nothing, so the cost is one volatile read. When it is on, finished spans are put on a
+ * queue and written to the file by a background thread, so the thread being traced never waits for the disk. If
+ * the writer falls behind and the queue fills, spans are dropped and counted in the trace.dropped metric.
+ */
+public class Tracer {
+
+    public static final String DROPPED_METRIC = "trace.dropped";
+
+    private static final int QUEUE_CAPACITY = 65536;
+    private static final Span NO_SPAN = new Span(null, null, null);
+
+    private static volatile TraceWriter writer;
+
+    private Tracer() {
+    }
+
+    /**
+     * Starts a span.
+     *
+     * @param category the kind of work, such as action, http, json or render
+     * @param name what is being done
+     * @return the span, to be closed when the work is done
+     */
+    public static Span span(String category, String name) {
+        TraceWriter current = writer;
+        return current == null ? NO_SPAN : new Span(current, category, name);
+    }
+
+    /**
+     * Runs work in a span.
+     *
+     * @param category the kind of work, such as action, http, json or render
+     * @param name what is being done
+     * @param work the work to time
+     * @throws E if the work throws it
+     */
+    public static <E extends Exception> void run(String category, String name, Action<E> work) throws E {
+        Span span = span(category, name);
+        try {
+            work.run();
+        } finally {
+            span.close();
+        }
+    }
+
+    /**
+     * Runs work that returns a value in a span.
+     *
+     * @param category the kind of work, such as action, http, json or render
+     * @param name what is being done
+     * @param work the work to time
+     * @return the value returned by the work
+     * @throws E if the work throws it
+     */
+    public static <T, E extends Exception> T call(String category, String name, Work<T, E> work) throws E {
+        Span span = span(category, name);
+        try {
+            return work.call();
+        } finally {
+            span.close();
+        }
+    }
+
+    /**
+     * @return true if spans are being recorded
+     */
+    public static boolean isEnabled() {
+        return writer != null;
+    }
+
+    /**
+     * @return the file spans are being written to, or null if tracing is off
+     */
+    public static Path getFile() {
+        TraceWriter current = writer;
+        return current == null ? null : current.file;
+    }
+
+    /**
+     * Starts recording spans to a file, replacing the file if it exists. Does nothing if tracing is already on.
+     *
+     * @param file the trace file
+     * @throws IOException if the file could not be created
+     */
+    public static synchronized void start(Path file) throws IOException {
+        if (writer == null) {
+            writer = new TraceWriter(file);
+        }
+    }
+
+    /**
+     * Stops recording spans, and waits for the spans already recorded to be written and the file closed.
+     */
+    public static synchronized void stop() {
+        TraceWriter current = writer;
+        if (current != null) {
+            writer = null;
+            current.finish();
+        }
+    }
+
+
+    // ***** inner interface: Action ******************************************
+
+    /**
+     * Work timed by run.
+     * @param <E> the checked exception the work may throw, or RuntimeException if none
+     */
+    @FunctionalInterface
+    public interface Action<E extends Exception> {
+        void run() throws E;
+    }
+
+
+    // ***** inner interface: Work ********************************************
+
+    /**
+     * Work timed by call.
+     * @param <T> the type of value returned
+     * @param <E> the checked exception the work may throw, or RuntimeException if none
+     */
+    @FunctionalInterface
+    public interface Work<T, E extends Exception> {
+        T call() throws E;
+    }
+
+
+    // ***** inner class: Span ************************************************
+
+    /**
+     * A timed piece of work on one thread.
+     */
+    public static class Span implements AutoCloseable {
+        private final TraceWriter writer;
+        private final String category;
+        private final String name;
+        private final long startNanos;
+        private final Thread thread;
+        private long endNanos;
+
+        private Span(TraceWriter writer, String category, String name) {
+            this.writer = writer;
+            this.category = category;
+            this.name = name;
+            this.thread = writer == null ? null : Thread.currentThread();
+            this.startNanos = writer == null ? 0 : System.nanoTime();
+        }
+
+        /**
+         * Ends the span.
+         */
+        @Override
+        public void close() {
+            if (writer != null) {
+                endNanos = System.nanoTime();
+                writer.add(this);
+            }
+        }
+    }
+
+
+    // ***** inner class: TraceWriter *****************************************
+
+    /**
+     * Writes finished spans to the trace file on a background thread, as a JSON array of complete ("X") events
+     * with a thread name ("M") event for each thread seen.
+     */
+    private static class TraceWriter implements Runnable {
+        private final Path file;
+        private final OutputStream out;
+        private final JsonGenerator json;
+        private final long originNanos = System.nanoTime();
+        private final BlockingQueue<Span> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        private final Set<Long> namedThreads = new HashSet<>();
+        private final Thread thread;
+        private volatile boolean finishing;
+
+        private TraceWriter(Path file) throws IOException {
+            this.file = file;
+            if (file.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+            }
+            this.out = Files.newOutputStream(file);
+            this.json = new JsonFactory().createGenerator(out);
+            json.writeStartArray();
+            thread = new Thread(this, "trace-writer");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void add(Span span) {
+            if (!queue.offer(span)) {
+                ClientMetrics.increment(DROPPED_METRIC);
+            }
+        }
+
+        private void finish() {
+            finishing = true;
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!finishing || !queue.isEmpty()) {
+                    Span span = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (span != null) {
+                        write(span);
+                    } else {
+                        json.flush();
+                    }
+                }
+                json.writeEndArray();
+                json.close();
+            } catch (IOException e) {
+                BasicLogger.log("The trace could not be written: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    BasicLogger.log("The trace file could not be closed: " + e.getMessage());
+                }
+            }
+        }
+
+        private void write(Span span) throws IOException {
+            long threadId = span.thread.getId();
+            if (namedThreads.add(threadId)) {
+                json.writeStartObject();
+                json.writeStringField("name", "thread_name");
+                json.writeStringField("ph", "M");
+                json.writeNumberField("pid", 1);
+                json.writeNumberField("tid", threadId);
+                json.writeObjectFieldStart("args");
+                json.writeStringField("name", span.thread.getName());
+                json.writeEndObject();
+                json.writeEndObject();
+            }
+            json.writeStartObject();
+            json.writeStringField("name", span.name);
+            json.writeStringField("cat", span.category);
+            json.writeStringField("ph", "X");
+            json.writeNumberField("ts", (span.startNanos - originNanos) / 1000.0);
+            json.writeNumberField("dur", (span.endNanos - span.startNanos) / 1000.0);
+            json.writeNumberField("pid", 1);
+            json.writeNumberField("tid", threadId);
+            json.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.techelevator;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.techelevator.model.UserGame;
+import com.techelevator.stats.HistoryIndex;
+import com.techelevator.utils.AllocationMeter;
+import com.techelevator.utils.BasicLogger;
+import com.techelevator.utils.MenuSystem;
+import com.techelevator.utils.ScriptedConsole;
+import io.github.tbeerbower.TextEffect;
+import org.junit.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Holds the code that runs on every guess to the allocation budgets in allocation-budgets.properties. A change
+ * that makes one of these allocate more than its budget fails the build; if the extra allocation is intended,
+ * raise the budget in the same change.
+ */
+public class AllocationBudgetTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 10);
+
+    private static final String USER_GAME_JSON = "{\"gameId\":41,\"userId\":1,\"word\":\"hoard\",\"date\":\"2024-03-10\"," +
+            "\"type\":\"DAILY\",\"success\":true,\"guesses\":[\"crane\",\"sharp\",\"hoard\"],\"matches\":[" +
+            matchesJson("crane", "NO_MATCH", "WRONG_LOCATION", "WRONG_LOCATION", "NO_MATCH", "NO_MATCH") + "," +
+            matchesJson("sharp", "NO_MATCH", "EXACT_MATCH", "WRONG_LOCATION", "WRONG_LOCATION", "NO_MATCH") + "," +
+            matchesJson("hoard", "EXACT_MATCH", "EXACT_MATCH", "EXACT_MATCH", "EXACT_MATCH", "EXACT_MATCH") + "]}";
+
+    @Test
+    public void displayUserGameMatches() throws IOException {
+        UserGame userGame = readUserGame(41, TODAY);
+        ApplicationView view = new ApplicationView(new DiscardingConsole());
+        checkBudget("view.displayUserGameMatches", () -> view.displayUserGameMatches(userGame.getMatches()));
+    }
+
+    @Test
+    public void menuDisplay() throws IOException {
+        List<MenuSystem<?>> target = new ArrayList<>();
+        MenuSystem<List<MenuSystem<?>>> menuSystem = new MenuSystem<>(target, new DiscardingConsole(),
+                List.of(new MenuSystem.Builder<List<MenuSystem<?>>>().
+                        addItem("Play Daily Game", menus -> menus.get(0).exitCurrentMenu()).
+                        addItem("Play Random Game", menus -> { }).
+                        addItem("Show Game Statistics", menus -> { }).
+                        addItem("Log Out", menus -> { }).
+                        getMenu("MainMenu", "Main Menu")), "MainMenu");
+        target.add(menuSystem);
+        menuSystem.exitCurrentMenu();
+        checkBudget("menu.display", () -> {
+            menuSystem.makeMenuCurrent("MainMenu");
+            menuSystem.run();
+        });
+    }
+
+    @Test
+    public void userGameDeserialization() throws IOException {
+        ObjectReader reader = Jackson2ObjectMapperBuilder.json().build().readerFor(UserGame.class);
+        byte[] json = USER_GAME_JSON.getBytes(StandardCharsets.UTF_8);
+        checkBudget("json.userGame", () -> {
+            try {
+                reader.readValue(json);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Test
+    public void statsRecordAndSummary() throws IOException {
+        HistoryIndex index = new HistoryIndex();
+        for (int day = 0; day < 365; ++day) {
+            index.record(readUserGame(1000 + day, TODAY.minusDays(day)));
+        }
+        UserGame today = readUserGame(1000, TODAY);
+        checkBudget("stats.record", () -> index.record(today));
+        checkBudget("stats.summary", () -> {
+            index.getLastDaysStats(7, TODAY);
+            index.getLastDaysStats(30, TODAY);
+            index.getMonthStats(YearMonth.from(TODAY));
+            index.getAllTimeStats();
+        });
+    }
+
+
+    // ***** Helper Methods ***************************************************
+
+    private static void checkBudget(String name, Runnable operation) throws IOException {
+        AllocationMeter meter = new AllocationMeter();
+        long budget = meter.getBudget(name);
+        if (!meter.isSupported()) {
+            BasicLogger.log(name + ": allocation is not measured on this JVM");
+            return;
+        }
+        AllocationMeter.Measurement measurement = meter.measure(operation);
+        BasicLogger.log(String.format("%s: %d bytes per run (budget %d), %d GCs", name, measurement.getBytesPerRun(),
+                budget, measurement.getCollections()));
+        assertTrue(String.format("%s allocated %d bytes per run, over its budget of %d", name,
+                measurement.getBytesPerRun(), budget), measurement.getBytesPerRun() <= budget);
+    }
+
+    private static UserGame readUserGame(int gameId, LocalDate date) throws IOException {
+        String json = USER_GAME_JSON.replace("\"gameId\":41", "\"gameId\":" + gameId).
+                replace("2024-03-10", date.toString());
+        return Jackson2ObjectMapperBuilder.json().build().readValue(json, UserGame.class);
+    }
+
+    private static String matchesJson(String guess, String... matches) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < matches.length; ++i) {
+            json.append(i == 0 ? "" : ",").append(String.format("{\"match\":\"%s\",\"char\":\"%c\"}", matches[i], guess.charAt(i)));
+        }
+        return json.append("]").toString();
+    }
+
+
+    // ***** inner class: DiscardingConsole ***********************************
+
+    /**
+     * A console that prints nothing and answers every prompt with 1, so the output of an operation is not kept
+     * and counted against it.
+     */
+    private static class DiscardingConsole extends ScriptedConsole {
+        @Override
+        public void printMessage(String message) {
+        }
+
+        @Override
+        public void printMessage(String message, boolean noLineFeed) {
+        }
+
+        @Override
+        public void printBanner(TextEffect effect, String message) {
+        }
+
+        @Override
+        public String promptForString(String prompt) {
+            return "1";
+        }
+    }
+}
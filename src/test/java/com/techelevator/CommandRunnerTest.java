@@ -0,0 +1,129 @@
+package com.techelevator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techelevator.model.Game;
+import com.techelevator.services.StubServer;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class CommandRunnerTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    public void playDailyWritesALinePerGuess() throws IOException {
+        try (StubServer server = new StubServer()) {
+            server.addGame("hoard", LocalDate.now(), Game.Type.DAILY);
+            List<JsonNode> lines = new ArrayList<>();
+
+            int exitCode = run(server, Map.of("TERDLE_USERNAME", "user", "TERDLE_PASSWORD", "password"), "",
+                    lines, "play-daily", "--guess", "crane", "--guess", "HOARD");
+
+            assertEquals(0, exitCode);
+            assertEquals(3, lines.size());
+            assertEquals("crane", lines.get(0).get("guess").asText());
+            assertEquals(".YG..", lines.get(0).get("matches").asText());
+            assertEquals("GGGGG", lines.get(1).get("matches").asText());
+            JsonNode result = lines.get(2);
+            assertEquals("ok", result.get("status").asText());
+            assertTrue(result.get("success").asBoolean());
+            assertEquals(2, result.get("guesses").asInt());
+            assertEquals("hoard", result.get("word").asText());
+        }
+    }
+
+    @Test
+    public void batchRunsEveryCommandInOneProcess() throws IOException {
+        try (StubServer server = new StubServer()) {
+            server.addGame("hoard", LocalDate.now(), Game.Type.DAILY);
+            List<JsonNode> lines = new ArrayList<>();
+            String commands = "login --username user --password password\n" +
+                    "\n" +
+                    "play-daily --guess hoard\n" +
+                    "stats --since 2000-01-01\n" +
+                    "fly --to moon\n";
+
+            int exitCode = run(server, Map.of(), commands, lines, "batch");
+
+            assertEquals(1, exitCode);
+            assertEquals("login", lines.get(0).get("command").asText());
+            assertEquals("user", lines.get(0).get("username").asText());
+            JsonNode stats = lines.get(lines.size() - 2);
+            assertEquals("stats", stats.get("command").asText());
+            assertEquals(1, stats.get("won").asInt());
+            assertEquals(1, stats.get("wonIn").get(0).asInt());
+            JsonNode unknown = lines.get(lines.size() - 1);
+            assertEquals("fly", unknown.get("command").asText());
+            assertEquals("error", unknown.get("status").asText());
+        }
+    }
+
+    @Test
+    public void commandsThatNeedAUserFailWithoutOne() throws IOException {
+        try (StubServer server = new StubServer()) {
+            List<JsonNode> lines = new ArrayList<>();
+
+            int exitCode = run(server, Map.of(), "", lines, "stats");
+
+            assertEquals(1, exitCode);
+            assertEquals(1, lines.size());
+            assertEquals("error", lines.get(0).get("status").asText());
+            assertEquals(0, server.getRequestCount());
+        }
+    }
+
+    @Test
+    public void importGamesReportsTheResult() throws IOException {
+        Path temp = Files.createTempDirectory("command-import");
+        Path file = temp.resolve("games.csv");
+        Files.writeString(file, "date,word,type\n2022-03-01,crane,DAILY\n2022-03-02,hoard,DAILY\n");
+        try (StubServer server = new StubServer()) {
+            List<JsonNode> lines = new ArrayList<>();
+
+            int exitCode = run(server, Map.of("TERDLE_USERNAME", "user", "TERDLE_PASSWORD", "password"), "",
+                    lines, "import-games", file.toString());
+
+            assertEquals(0, exitCode);
+            JsonNode result = lines.get(lines.size() - 1);
+            assertEquals(2, result.get("gamesCreated").asInt());
+            assertEquals(0, result.get("rowsFailed").asInt());
+        }
+    }
+
+
+    // ***** Helper Methods ***************************************************
+
+    private static int run(StubServer server, Map<String, String> settings, String input, List<JsonNode> lines,
+                           String... args) throws IOException {
+        Map<String, String> environment = new HashMap<>(settings);
+        environment.put("API_BASE_URL", server.getUrl());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CommandRunner runner = new CommandRunner(new ApplicationConfig(environment),
+                new BufferedReader(new StringReader(input)), new PrintStream(out, true, StandardCharsets.UTF_8));
+
+        int exitCode = runner.run(args);
+
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isBlank()) {
+                lines.add(MAPPER.readTree(line));
+            }
+        }
+        return exitCode;
+    }
+}
@@ -0,0 +1,37 @@
+package com.techelevator;
+
+import com.techelevator.utils.ScriptedConsole;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Runs the application through a scripted session, for the tests of whole flows. The word list and pattern matrix
+ * are kept in the test's temporary folder, and the server is not warmed up.
+ */
+public class FlowFixture {
+
+    private FlowFixture() {
+    }
+
+    /**
+     * Runs the application until the script has been used up and the user exits.
+     *
+     * @param temp the test's temporary folder
+     * @param settings the settings for this flow, such as API_BASE_URL or REPLAY_FILE
+     * @param entries the entries to give, in order, one for each prompt
+     * @return the console, with everything printed to it
+     */
+    public static ScriptedConsole run(TemporaryFolder temp, Map<String, String> settings, String... entries) {
+        Map<String, String> environment = new HashMap<>();
+        environment.put("WARM_UP", "false");
+        environment.put("WORD_LIST_FILE", temp.getRoot().toPath().resolve("words.txt").toString());
+        environment.put("PATTERN_MATRIX_FILE", temp.getRoot().toPath().resolve("patterns.bin").toString());
+        environment.putAll(settings);
+
+        ScriptedConsole console = new ScriptedConsole(entries);
+        new ApplicationController(console, new ApplicationConfig(environment)).run();
+        return console;
+    }
+}
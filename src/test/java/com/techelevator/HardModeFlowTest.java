@@ -0,0 +1,51 @@
+package com.techelevator;
+
+import com.techelevator.model.Game;
+import com.techelevator.services.StubServer;
+import com.techelevator.utils.ScriptedConsole;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class HardModeFlowTest {
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void guessesThatIgnoreHintsAreRejectedLocally() throws IOException {
+        try (StubServer server = new StubServer()) {
+            server.addGame("hoard", LocalDate.now(), Game.Type.DAILY);
+
+            ScriptedConsole console = FlowFixture.run(temp, Map.of("API_BASE_URL", server.getUrl(), "HARD_MODE", "true"),
+                    "1", "user", "password", "1", "heard", "board", "beard", "hoard", "6", "2");
+
+            assertEquals(2, console.getOutput().stream().
+                    filter(line -> line.equals("Hard mode: The 1st letter must be H.")).count());
+            assertTrue(console.getOutput().contains("You got it in 2 tries!"));
+        }
+    }
+
+    @Test
+    public void guessesThatIgnoreHintsOnAnyBoardAreRejectedLocally() throws IOException {
+        try (StubServer server = new StubServer()) {
+            for (String word : new String[] {"hoard", "board"}) {
+                server.addGame(word, LocalDate.now().minusDays(1), Game.Type.RANDOM);
+            }
+
+            ScriptedConsole console = FlowFixture.run(temp, Map.of("API_BASE_URL", server.getUrl(), "HARD_MODE", "true"),
+                    "1", "user", "password", "3", "2", "heard", "beard", "hoard", "board", "6", "2");
+
+            // beard keeps to the rule on the board for board, but not on the board for hoard
+            assertEquals(1, console.getOutput().stream().filter(line -> line.startsWith("Hard mode, board ") &&
+                    line.endsWith(": The 1st letter must be H.")).count());
+            assertTrue(console.getOutput().contains("You solved all 2 boards in 3 tries!"));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.techelevator;
+
+import com.techelevator.model.Game;
+import com.techelevator.services.StubServer;
+import com.techelevator.utils.ScriptedConsole;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class MultiBoardFlowTest {
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void playThreeBoards() throws IOException {
+        try (StubServer server = new StubServer()) {
+            for (String word : new String[] {"hoard", "train", "sharp"}) {
+                server.addGame(word, LocalDate.now().minusDays(1), Game.Type.RANDOM);
+            }
+
+            ScriptedConsole console = FlowFixture.run(temp, Map.of("API_BASE_URL", server.getUrl()),
+                    "1", "user", "password", "3", "3", "train", "xyz", "hoard", "sharp", "6", "2");
+
+            assertTrue(console.getOutput().contains("xyz is not a valid 5 letter word!"));
+            assertTrue(console.getOutput().contains("You solved all 3 boards in 3 tries!"));
+            assertEquals(1, console.getOutput().stream().filter(line -> line.startsWith("Board ") &&
+                    line.endsWith("solved in 1 try!")).count());
+        }
+    }
+}
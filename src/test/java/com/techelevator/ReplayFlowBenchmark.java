@@ -0,0 +1,41 @@
+package com.techelevator;
+
+import com.techelevator.utils.ScriptedConsole;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.net.URISyntaxException;
+import java.nio.file.Paths;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Times the play daily game and show statistics flows against a recorded server session, with no delay for the
+ * server, so the time taken is the client's own, and fails if that grows past a budget.
+ *
+ * The time depends on the machine, so this is left out of the default build; run it with mvn test -Pbenchmarks.
+ */
+public class ReplayFlowBenchmark {
+
+    private static final String RECORDING = "/replays/daily-game.jsonl";
+    private static final long FLOW_BUDGET_MILLIS = 3000;
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void playDailyGameAndShowStatistics() throws URISyntaxException {
+        String recording = Paths.get(ReplayFlowBenchmark.class.getResource(RECORDING).toURI()).toString();
+
+        long start = System.nanoTime();
+        ScriptedConsole console = FlowFixture.run(temp, Map.of("REPLAY_FILE", recording, "REPLAY_TIMING", "zero"),
+                "1", "user", "password", "1", "crane", "?", "sharp", "hoard", "4", "6", "2");
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(console.getOutput().contains("You got it in 3 tries!"));
+        assertTrue(console.getOutput().stream().anyMatch(line -> line.contains("Games started")));
+        assertTrue(String.format("The flow took %d ms", millis), millis < FLOW_BUDGET_MILLIS);
+    }
+}
@@ -0,0 +1,35 @@
+package com.techelevator;
+
+import com.techelevator.utils.ScriptedConsole;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.net.URISyntaxException;
+import java.nio.file.Paths;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the play daily game and show statistics flows against a recorded server session, with no delay for the
+ * server. How long the flows take is measured by ReplayFlowBenchmark.
+ */
+public class ReplayFlowTest {
+
+    private static final String RECORDING = "/replays/daily-game.jsonl";
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void playDailyGameAndShowStatistics() throws URISyntaxException {
+        String recording = Paths.get(ReplayFlowTest.class.getResource(RECORDING).toURI()).toString();
+
+        ScriptedConsole console = FlowFixture.run(temp, Map.of("REPLAY_FILE", recording, "REPLAY_TIMING", "zero"),
+                "1", "user", "password", "1", "crane", "?", "sharp", "hoard", "4", "6", "2");
+
+        assertTrue(console.getOutput().contains("You got it in 3 tries!"));
+        assertTrue(console.getOutput().stream().anyMatch(line -> line.contains("Games started")));
+    }
+}
@@ -0,0 +1,33 @@
+package com.techelevator;
+
+import com.techelevator.utils.ScriptedConsole;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Measures how long the application takes to show its first prompt, and fails if that grows past a budget.
+ * The services are built in the background, so they should not count towards the time.
+ *
+ * The time depends on the machine, so this is left out of the default build; run it with mvn test -Pbenchmarks.
+ */
+public class StartupBenchmark {
+
+    private static final long TIME_TO_FIRST_PROMPT_BUDGET_MILLIS = 600;
+
+    @Test
+    public void timeToFirstPrompt() {
+        ScriptedConsole console = new ScriptedConsole("2"); // Exit from the Login Menu
+        ApplicationConfig config = new ApplicationConfig(Map.of("API_BASE_URL", "http://localhost:1/", "WARM_UP", "false"));
+
+        long start = System.nanoTime();
+        new ApplicationController(console, config).run();
+        long millis = (console.getFirstPromptNanos() - start) / 1_000_000;
+
+        assertEquals("Welcome to TErdle!", console.getOutput().get(0));
+        assertTrue(console.getFirstPromptNanos() > 0);
+        assertTrue(String.format("Time to first prompt was %d ms", millis), millis < TIME_TO_FIRST_PROMPT_BUDGET_MILLIS);
+    }
+}
@@ -0,0 +1,31 @@
+package com.techelevator;
+
+import com.techelevator.utils.ClientMetrics;
+import com.techelevator.utils.ScriptedConsole;
+import com.techelevator.utils.TaskExecutor;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the application shows its first prompt without building the services on the main thread. How long
+ * that takes is measured by StartupBenchmark.
+ */
+public class StartupTest {
+
+    @Test
+    public void servicesAreBuiltInTheBackground() {
+        ScriptedConsole console = new ScriptedConsole("2"); // Exit from the Login Menu
+        ApplicationConfig config = new ApplicationConfig(Map.of("API_BASE_URL", "http://localhost:1/", "WARM_UP", "false"));
+        long submittedBefore = ClientMetrics.get(TaskExecutor.SUBMITTED_METRIC);
+
+        new ApplicationController(console, config).run();
+
+        assertEquals("Welcome to TErdle!", console.getOutput().get(0));
+        assertTrue(console.getFirstPromptNanos() > 0);
+        // The game service is handed to the shared executor to be built once the welcome message is shown
+        assertTrue(ClientMetrics.get(TaskExecutor.SUBMITTED_METRIC) > submittedBefore);
+    }
+}
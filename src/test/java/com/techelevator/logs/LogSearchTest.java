@@ -0,0 +1,152 @@
+package com.techelevator.logs;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class LogSearchTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2022, 3, 1, 10, 0);
+    private static final int RECORDS = 30000;
+
+    private Path directory;
+    private Path logFile;
+
+    @Before
+    public void writeLog() throws IOException {
+        directory = Files.createTempDirectory("logs");
+        logFile = directory.resolve("2022-03-01.log");
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(logFile, StandardCharsets.UTF_8))) {
+            for (int i = 0; i < RECORDS; ++i) {
+                String time = START.plusSeconds(i).plusNanos(123456000).format(DateTimeFormatter.ISO_DATE_TIME);
+                if (i == 12345) {
+                    writer.println(time + " 500 GET http://localhost:8080/games/today: needle in the haystack");
+                } else if (i % 5000 == 2500) {
+                    writer.println(time + " An Exception occurred");
+                    writer.println("java.lang.IllegalStateException: broken " + i);
+                    writer.println("\tat com.techelevator.ApplicationController.run(ApplicationController.java:190)");
+                } else {
+                    writer.println(time + " 404 GET http://localhost:8080/games/" + i + ": {\"message\":\"No such game\"}");
+                }
+            }
+        }
+    }
+
+    @Test
+    public void keywordsAreFoundWithoutReadingEveryBlock() throws IOException {
+        LogSearch.Result result = new LogSearch(directory).search(null, null, "NEEDLE in", false, 10);
+
+        assertEquals(1, result.getRecords().size());
+        LogSearch.LogRecord record = result.getRecords().get(0);
+        assertTrue(record.getText().endsWith("needle in the haystack"));
+        assertEquals(START.plusSeconds(12345).plusNanos(123456000), record.getTime());
+        assertTrue(result.getBlocksSkipped() > 10);
+        assertTrue(result.getBlocksRead() < 3);
+    }
+
+    @Test
+    public void timeRangesReadOnlyTheBlocksInRange() throws IOException {
+        LogSearch.Result result = new LogSearch(directory).search(START.plusSeconds(100), START.plusSeconds(199),
+                null, false, 1000);
+
+        assertEquals(100, result.getRecords().size());
+        assertEquals(START.plusSeconds(100), result.getRecords().get(0).getTime().withNano(0));
+        assertEquals(START.plusSeconds(199), result.getRecords().get(99).getTime().withNano(0));
+        assertTrue(result.getBlocksRead() <= 2);
+    }
+
+    @Test
+    public void exceptionsIncludeTheirStackTraces() throws IOException {
+        LogSearch.Result result = new LogSearch(directory).search(null, null, null, true, 100);
+
+        assertEquals(RECORDS / 5000, result.getRecords().size());
+        for (LogSearch.LogRecord record : result.getRecords()) {
+            assertEquals(3, record.getText().split("\n").length);
+            assertTrue(record.getText().contains("\tat com.techelevator.ApplicationController.run"));
+        }
+    }
+
+    @Test
+    public void limitIsReported() throws IOException {
+        LogSearch.Result result = new LogSearch(directory).search(null, null, "no such game", false, 50);
+
+        assertEquals(50, result.getRecords().size());
+        assertTrue(result.isTruncated());
+    }
+
+    @Test
+    public void indexCatchesUpWithTheLog() throws IOException {
+        LogSearch search = new LogSearch(directory);
+        assertEquals(0, search.search(null, null, "late arrival", false, 10).getRecords().size());
+        long indexSize = Files.size(LogIndex.indexFileFor(logFile));
+
+        Files.writeString(logFile, START.plusSeconds(RECORDS).format(DateTimeFormatter.ISO_DATE_TIME) +
+                " a late arrival\n", StandardOpenOption.APPEND);
+
+        assertEquals(1, search.search(null, null, "late arrival", false, 10).getRecords().size());
+        assertEquals(indexSize, Files.size(LogIndex.indexFileFor(logFile)));
+    }
+
+    @Test
+    public void archivedLogsAreStillSearched() throws IOException {
+        LogSearch search = new LogSearch(directory);
+        List<String> before = texts(search.search(START.plusSeconds(2000), START.plusSeconds(2600), "exception",
+                false, 100));
+
+        assertEquals(1, new LogArchiver(directory, 7).archive(LocalDate.of(2022, 3, 8)));
+
+        assertFalse(Files.exists(logFile));
+        assertTrue(Files.exists(directory.resolve("2022-03-01.log.gz")));
+        LogSearch.Result result = search.search(START.plusSeconds(2000), START.plusSeconds(2600), "exception",
+                false, 100);
+        assertEquals(before, texts(result));
+        assertEquals(1, result.getRecords().size());
+        assertEquals(1, search.search(null, null, "needle", false, 10).getRecords().size());
+
+        // An archive without an index is indexed again from the compressed log
+        Files.delete(LogIndex.indexFileFor(logFile));
+        assertEquals(before, texts(search.search(START.plusSeconds(2000), START.plusSeconds(2600), "exception",
+                false, 100)));
+    }
+
+    @Test
+    public void logsCanBeSearchedWhileTheyAreArchived() throws Exception {
+        LogSearch search = new LogSearch(directory);
+        CompletableFuture<Integer> archived = CompletableFuture.supplyAsync(() ->
+                new LogArchiver(directory, 7).archive(LocalDate.of(2022, 3, 8)));
+
+        // Whether each search finds the log or its archive, the index is never left half written
+        do {
+            assertEquals(1, search.search(null, null, "needle", false, 10).getRecords().size());
+        } while (!archived.isDone());
+        assertEquals(1, (int) archived.get());
+        assertEquals(1, search.search(null, null, "needle", false, 10).getRecords().size());
+    }
+
+    @Test
+    public void recentLogsAreNotArchived() throws IOException {
+        assertEquals(0, new LogArchiver(directory, 7).archive(LocalDate.of(2022, 3, 7)));
+        assertTrue(Files.exists(logFile));
+    }
+
+
+    // ***** Helper Methods ***************************************************
+
+    private static List<String> texts(LogSearch.Result result) {
+        return result.getRecords().stream().map(LogSearch.LogRecord::getText).collect(Collectors.toList());
+    }
+}
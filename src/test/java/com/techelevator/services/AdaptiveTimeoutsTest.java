@@ -0,0 +1,62 @@
+package com.techelevator.services;
+
+import com.techelevator.model.Game;
+import com.techelevator.utils.ClientMetrics;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.Assert.*;
+
+public class AdaptiveTimeoutsTest {
+
+    @Test
+    public void endpointsLeaveOutIdsAndQueries() {
+        assertEquals("GET users/{id}/games/{id}", AdaptiveTimeouts.endpointOf("GET", "users/3/games/41"));
+        assertEquals("PUT games/{id}", AdaptiveTimeouts.endpointOf("PUT", "games/7?force=true"));
+        assertEquals("GET games/today", AdaptiveTimeouts.endpointOf("GET", "games/today"));
+    }
+
+    @Test
+    public void timeoutFollowsTheP99WithinLimits() {
+        AdaptiveTimeouts timeouts = new AdaptiveTimeouts(Duration.ofMillis(100), Duration.ofSeconds(5));
+        timeouts.setLimits("GET games", Duration.ofSeconds(2), Duration.ofSeconds(30));
+        assertEquals(Duration.ofSeconds(5), timeouts.timeoutFor("GET games/today"));
+        assertEquals(Duration.ofSeconds(30), timeouts.timeoutFor("GET games"));
+
+        for (int i = 0; i < 100; ++i) {
+            timeouts.record("GET games/today", Duration.ofMillis(i < 98 ? 20 : 200).toNanos());
+            timeouts.record("GET games", Duration.ofMillis(20).toNanos());
+        }
+        assertEquals(Duration.ofMillis(800), timeouts.timeoutFor("GET games/today"));
+        assertEquals(Duration.ofSeconds(2), timeouts.timeoutFor("GET games"));
+
+        for (int i = 0; i < 10; ++i) {
+            timeouts.recordTimeout("GET games/today", Duration.ofSeconds(3));
+        }
+        assertEquals(Duration.ofSeconds(5), timeouts.timeoutFor("GET games/today"));
+    }
+
+    @Test
+    public void stuckRequestTimesOutAndIsCounted() throws IOException {
+        Path file = Files.createTempFile("replay", ".jsonl");
+        Files.writeString(file, "{\"method\":\"GET\",\"path\":\"/games/today\",\"status\":200,\"nanos\":5000000000,\"body\":\"{}\"}\n");
+        ApiClient apiClient = new ApiClient("http://localhost/", ReplayTransport.load(file, 1.0));
+        apiClient.getTimeouts().setLimits("GET games/today", Duration.ofMillis(10), Duration.ofMillis(50));
+        ClientMetrics.reset();
+
+        long start = System.nanoTime();
+        try {
+            apiClient.get("games/today", null, Game.class);
+            fail("The request should have timed out");
+        } catch (TransportException e) {
+            assertTrue(e.isTimeout());
+        }
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos());
+        assertEquals(1, ClientMetrics.get(AdaptiveTimeouts.TIMEOUT_METRIC));
+        assertEquals(1, ClientMetrics.get(AdaptiveTimeouts.TIMEOUT_METRIC + ".GET games/today"));
+    }
+}
@@ -0,0 +1,112 @@
+package com.techelevator.services;
+
+import com.techelevator.utils.ClientMetrics;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class CoalescingTransportTest {
+
+    /**
+     * A transport that holds every request until released, and counts the requests it is sent.
+     */
+    private static class GatedTransport implements HttpTransport {
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final AtomicInteger sent = new AtomicInteger();
+
+        @Override
+        public String getName() {
+            return "gated";
+        }
+
+        @Override
+        public TransportResponse send(TransportRequest request) throws TransportException {
+            sent.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new TransportException("interrupted", e);
+            }
+            return new TransportResponse(200, Map.of(), request.getUrl().getBytes());
+        }
+    }
+
+    private static TransportRequest request(String method, String url, String token) {
+        return new TransportRequest(method, url, Map.of("Authorization", "Bearer " + token), null);
+    }
+
+    @Test
+    public void identicalGetsShareOneRequest() throws Exception {
+        GatedTransport gated = new GatedTransport();
+        CoalescingTransport transport = new CoalescingTransport(gated);
+        long coalescedBefore = ClientMetrics.get(CoalescingTransport.COALESCED_METRIC);
+
+        List<CompletableFuture<TransportResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < 5; ++i) {
+            responses.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return transport.send(request("GET", "http://server/games/today", "a"));
+                } catch (TransportException e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+        // A different user's request is not shared
+        CompletableFuture<TransportResponse> other = transport.sendAsync(request("GET", "http://server/games/today", "b"));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (ClientMetrics.get(CoalescingTransport.COALESCED_METRIC) - coalescedBefore < 4 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        gated.release.countDown();
+
+        for (CompletableFuture<TransportResponse> response : responses) {
+            assertEquals("http://server/games/today", new String(response.get().getBody()));
+        }
+        assertEquals(200, other.get().getStatusCode());
+        assertEquals(2, gated.sent.get());
+        assertEquals(4, ClientMetrics.get(CoalescingTransport.COALESCED_METRIC) - coalescedBefore);
+        assertEquals(0, transport.getInFlightCount());
+    }
+
+    @Test
+    public void otherMethodsAreNotCoalesced() throws Exception {
+        GatedTransport gated = new GatedTransport();
+        gated.release.countDown();
+        CoalescingTransport transport = new CoalescingTransport(gated);
+
+        transport.send(request("DELETE", "http://server/games/1", "a"));
+        transport.send(request("DELETE", "http://server/games/1", "a"));
+
+        assertEquals(2, gated.sent.get());
+    }
+
+    @Test
+    public void getsAfterAWriteDoNotJoinGetsFromBeforeIt() throws Exception {
+        GatedTransport gated = new GatedTransport();
+        CoalescingTransport transport = new CoalescingTransport(gated);
+
+        CompletableFuture<TransportResponse> before = transport.sendAsync(request("GET", "http://server/users/1/games/5", "a"));
+        CompletableFuture<TransportResponse> list = transport.sendAsync(request("GET", "http://server/users/1/games", "a"));
+        CompletableFuture<TransportResponse> other = transport.sendAsync(request("GET", "http://server/games/today", "a"));
+        CompletableFuture<TransportResponse> write = transport.sendAsync(request("PUT", "http://server/users/1/games/5", "a"));
+        CompletableFuture<TransportResponse> after = transport.sendAsync(request("GET", "http://server/users/1/games/5", "a"));
+        CompletableFuture<TransportResponse> listAfter = transport.sendAsync(request("GET", "http://server/users/1/games", "a"));
+        CompletableFuture<TransportResponse> otherAfter = transport.sendAsync(request("GET", "http://server/games/today", "a"));
+        gated.release.countDown();
+
+        for (CompletableFuture<TransportResponse> response : List.of(before, list, other, write, after, listAfter, otherAfter)) {
+            assertEquals(200, response.get(5, TimeUnit.SECONDS).getStatusCode());
+        }
+        // Only the GET of an unrelated url was shared
+        assertEquals(6, gated.sent.get());
+    }
+}
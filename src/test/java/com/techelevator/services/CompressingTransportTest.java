@@ -0,0 +1,101 @@
+package com.techelevator.services;
+
+import com.techelevator.model.Game;
+import com.techelevator.model.UserGame;
+import com.techelevator.utils.ClientMetrics;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class CompressingTransportTest {
+
+    private static final int USER_ID = 1;
+
+    @Test
+    public void historyResponsesAreCompressed() throws IOException, TransportException {
+        for (String name : List.of(HttpTransport.REST_TEMPLATE, HttpTransport.HTTP_CLIENT)) {
+            try (StubServer server = new StubServer()) {
+                GameService gameService = new GameService(server.getUrl(),
+                        new CompressingTransport(HttpTransport.create(name), 0));
+                gameService.setAuthToken(StubServer.TOKEN);
+                for (int i = 0; i < 40; ++i) {
+                    server.addGame("hoar" + (char) ('a' + i % 26), LocalDate.of(2022, 3, 1).plusDays(i),
+                            Game.Type.RANDOM);
+                    UserGame userGame = gameService.createUserGame(new UserGame(USER_ID, Game.Type.RANDOM));
+                    userGame.getGuesses().add("crane");
+                    assertTrue(gameService.updateGame(userGame));
+                }
+                long wireBytesBefore = ClientMetrics.get(CompressingTransport.RESPONSE_WIRE_BYTES_METRIC);
+                long bytesBefore = ClientMetrics.get(CompressingTransport.RESPONSE_BYTES_METRIC);
+
+                List<UserGame> history = gameService.getUserGames(USER_ID);
+
+                assertNotNull(name, history);
+                assertEquals(name, 40, history.size());
+                assertEquals(name, UserGame.Match.EXACT_MATCH, history.get(0).getMatches().get(0)[2].getMatch());
+                assertEquals(name, 1, server.getCompressedResponseCount());
+                long wireBytes = ClientMetrics.get(CompressingTransport.RESPONSE_WIRE_BYTES_METRIC) - wireBytesBefore;
+                long bytes = ClientMetrics.get(CompressingTransport.RESPONSE_BYTES_METRIC) - bytesBefore;
+                assertEquals(name, server.getResponseWireBytes(), wireBytes);
+                assertEquals(name, server.getResponseBytes(), bytes);
+                assertTrue(name + " compressed " + bytes + " to " + wireBytes, wireBytes * 5 < bytes);
+            }
+        }
+    }
+
+    @Test
+    public void streamedResponsesAreDecompressedAsTheyAreRead() throws IOException {
+        for (String name : List.of(HttpTransport.REST_TEMPLATE, HttpTransport.HTTP_CLIENT)) {
+            try (StubServer server = new StubServer()) {
+                for (int i = 0; i < 100; ++i) {
+                    server.addGame("words", LocalDate.of(2022, 3, 1).plusDays(i), Game.Type.DAILY);
+                }
+                GameService gameService = new GameService(server.getUrl(),
+                        new CompressingTransport(HttpTransport.create(name), 0));
+                gameService.setAuthToken(StubServer.TOKEN);
+                List<Game> games = new ArrayList<>();
+
+                assertTrue(name, gameService.streamAllGames(30, games::addAll));
+
+                assertEquals(name, 100, games.size());
+                assertEquals(name, 1, server.getCompressedResponseCount());
+            }
+        }
+    }
+
+    @Test
+    public void largeRequestBodiesAreCompressed() throws IOException, TransportException {
+        try (StubServer server = new StubServer()) {
+            CompressingTransport transport =
+                    new CompressingTransport(HttpTransport.create(HttpTransport.HTTP_CLIENT), 1024);
+            long requestsBefore = ClientMetrics.get(CompressingTransport.REQUESTS_METRIC);
+
+            TransportResponse small = transport.send(post(server,
+                    "{\"word\":\"crane\",\"date\":\"2022-03-01\",\"type\":\"DAILY\"}"));
+            TransportResponse large = transport.send(post(server,
+                    "{\"word\":\"hoard\",\"date\":\"2022-03-02\",\"type\":\"DAILY\"," +
+                    "\"notes\":\"" + "the same words again and again ".repeat(100) + "\"}"));
+
+            assertEquals(201, small.getStatusCode());
+            assertEquals(201, large.getStatusCode());
+            assertTrue(new String(large.getBody(), StandardCharsets.UTF_8).contains("\"hoard\""));
+            assertEquals(1, server.getCompressedRequestCount());
+            assertEquals(1, ClientMetrics.get(CompressingTransport.REQUESTS_METRIC) - requestsBefore);
+        }
+    }
+
+
+    // ***** Helper Methods ***************************************************
+
+    private static TransportRequest post(StubServer server, String json) {
+        return new TransportRequest("POST", server.getUrl() + "games", Map.of("Authorization",
+                "Bearer " + StubServer.TOKEN, "Content-Type", "application/json"), json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,51 @@
+package com.techelevator.services;
+
+import com.techelevator.model.Game;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class GameCatalogReportTest {
+
+    @Test
+    public void addAll() {
+        List<Game> games = new ArrayList<>();
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int day = 0; day < 60; ++day) {
+            // No daily games on January 10th and 11th
+            if (day != 9 && day != 10) {
+                games.add(new Game(day, day % 2 == 0 ? "hoard" : "train", start.plusDays(day), Game.Type.DAILY));
+            }
+        }
+        games.add(new Game(100, "sharp", start, Game.Type.RANDOM));
+
+        GameCatalogReport report = new GameCatalogReport();
+        report.addAll(games.subList(0, 30));
+        report.addAll(games.subList(30, games.size()));
+
+        assertEquals(59, report.getGameCount());
+        int[] january = report.getGamesPerMonth().get(YearMonth.of(2024, 1));
+        assertEquals(29, january[Game.Type.DAILY.ordinal()]);
+        assertEquals(1, january[Game.Type.RANDOM.ordinal()]);
+
+        List<GameCatalogReport.Gap> gaps = report.getDailyGaps();
+        assertEquals(1, gaps.size());
+        assertEquals(LocalDate.of(2024, 1, 10), gaps.get(0).getFirst());
+        assertEquals(2, gaps.get(0).getDays());
+        assertEquals(start, report.getFirstDailyDate());
+
+        Map<String, Integer> duplicates = report.getDuplicateWords();
+        assertEquals(2, duplicates.size());
+        assertFalse(duplicates.containsKey("sharp"));
+
+        assertEquals(1, report.getLetterCount(0, 's'));
+        assertEquals(1, report.getLetterCount('s'));
+        assertEquals(1, report.getLetterCount(4, 'p'));
+    }
+}
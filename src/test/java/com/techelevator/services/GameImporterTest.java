@@ -0,0 +1,90 @@
+package com.techelevator.services;
+
+import com.techelevator.model.Game;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.*;
+
+public class GameImporterTest {
+
+    /**
+     * A GameService that records the games it is asked to create instead of sending them to a server, rejects the
+     * word "wrong", and throws for the word "throw".
+     */
+    private static class RecordingGameService extends GameService {
+        private final Set<String> added = ConcurrentHashMap.newKeySet();
+
+        private RecordingGameService() {
+            super("http://localhost/");
+        }
+
+        @Override
+        public Game add(Game newGame) {
+            if ("wrong".equals(newGame.getWord())) {
+                return null;
+            }
+            if ("throw".equals(newGame.getWord())) {
+                throw new IllegalStateException("mapping failed");
+            }
+            added.add(newGame.getDate() + " " + newGame.getWord() + " " + newGame.getType());
+            return newGame;
+        }
+    }
+
+    @Test
+    public void importCsv() throws IOException, InterruptedException {
+        Path file = Files.createTempDirectory("import").resolve("games.csv");
+        Files.writeString(file, "date,word,type\n2024-01-01,hoard,DAILY\n2024-01-02,train\n2024-01-03,toolong\n" +
+                "not a date,board\n2024-01-05,wrong,RANDOM\n");
+        RecordingGameService gameService = new RecordingGameService();
+
+        GameImporter.Result result = new GameImporter(gameService, 4, 0).importGames(file, message -> { });
+
+        assertEquals(5, result.getRowsRead());
+        assertEquals(2, result.getGamesCreated());
+        assertEquals(3, result.getRowsFailed());
+        assertTrue(gameService.added.contains("2024-01-02 train DAILY"));
+        assertEquals(3, Files.readAllLines(file.resolveSibling("games.csv.errors.csv")).size());
+        // A finished import leaves no checkpoint, so the file can be imported again
+        assertFalse(Files.exists(file.resolveSibling("games.csv.checkpoint")));
+
+        GameImporter.Result again = new GameImporter(gameService, 4, 0).importGames(file, message -> { });
+        assertEquals(5, again.getRowsRead());
+        assertEquals(3, Files.readAllLines(file.resolveSibling("games.csv.errors.csv")).size());
+    }
+
+    @Test
+    public void rowsThatThrowAreCountedAsFailed() throws IOException, InterruptedException {
+        Path file = Files.createTempDirectory("import").resolve("games.csv");
+        Files.writeString(file, "2024-01-01,throw\n2024-01-02,train\n");
+        RecordingGameService gameService = new RecordingGameService();
+
+        GameImporter.Result result = new GameImporter(gameService, 4, 0).importGames(file, message -> { });
+
+        assertEquals(1, result.getGamesCreated());
+        assertEquals(1, result.getRowsFailed());
+        assertTrue(result.getErrors().get(0).contains("mapping failed"));
+        assertFalse(Files.exists(file.resolveSibling("games.csv.checkpoint")));
+    }
+
+    @Test
+    public void importJsonResumesFromCheckpoint() throws IOException, InterruptedException {
+        Path file = Files.createTempDirectory("import").resolve("games.json");
+        Files.writeString(file, "[{\"date\":\"2024-01-01\",\"word\":\"hoard\",\"type\":\"DAILY\"}," +
+                "{\"date\":\"2024-01-02\",\"word\":\"train\",\"type\":\"RANDOM\"}]");
+        Files.writeString(file.resolveSibling("games.json.checkpoint"), "1");
+        RecordingGameService gameService = new RecordingGameService();
+
+        GameImporter.Result result = new GameImporter(gameService, 2, 0).importGames(file, message -> { });
+
+        assertEquals(1, result.getResumedAfterRow());
+        assertEquals(1, result.getGamesCreated());
+        assertEquals(Set.of("2024-01-02 train RANDOM"), gameService.added);
+    }
+}
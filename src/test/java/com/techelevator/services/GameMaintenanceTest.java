@@ -0,0 +1,74 @@
+package com.techelevator.services;
+
+import com.techelevator.model.Game;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.*;
+
+public class GameMaintenanceTest {
+
+    private static final List<Game> GAMES = List.of(
+            new Game(1, "hoard", LocalDate.of(2024, 1, 1), Game.Type.DAILY),
+            new Game(2, "train", LocalDate.of(2024, 1, 2), Game.Type.RANDOM),
+            new Game(3, "sharp", LocalDate.of(2024, 1, 3), Game.Type.DAILY),
+            new Game(4, "heard", LocalDate.of(2024, 2, 1), Game.Type.DAILY));
+
+    /**
+     * A GameService that records the games it is asked to update or delete instead of sending them to a server.
+     * Deleting game 3 fails, and deleting game 4 throws.
+     */
+    private static class RecordingGameService extends GameService {
+        private final Set<Integer> deleted = ConcurrentHashMap.newKeySet();
+        private final Set<String> updated = ConcurrentHashMap.newKeySet();
+
+        private RecordingGameService() {
+            super("http://localhost/");
+        }
+
+        @Override
+        public Game update(Game updatedGame) {
+            updated.add(updatedGame.getGameId() + " " + updatedGame.getType());
+            return updatedGame;
+        }
+
+        @Override
+        public boolean delete(int id) {
+            if (id == 4) {
+                throw new IllegalStateException("mapping failed");
+            }
+            return id != 3 && deleted.add(id);
+        }
+    }
+
+    @Test
+    public void selectByDateRangeAndType() {
+        List<Game> selected = GameMaintenance.select(GAMES, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), Game.Type.DAILY);
+        assertEquals(2, selected.size());
+        assertEquals(1, selected.get(0).getGameId());
+        assertEquals(3, selected.get(1).getGameId());
+        assertEquals(4, GameMaintenance.select(GAMES, null, null, null).size());
+    }
+
+    @Test
+    public void changeType() throws InterruptedException {
+        RecordingGameService gameService = new RecordingGameService();
+        GameMaintenance.Result result = new GameMaintenance(gameService, 2, 0).changeType(GAMES, Game.Type.RANDOM, message -> { });
+        assertEquals(4, result.getSucceeded());
+        assertTrue(gameService.updated.contains("1 RANDOM"));
+    }
+
+    @Test
+    public void delete() throws InterruptedException {
+        RecordingGameService gameService = new RecordingGameService();
+        GameMaintenance.Result result = new GameMaintenance(gameService, 2, 0).delete(GAMES, message -> { });
+        // Game 3 is refused and game 4 throws; both are counted as failed
+        assertEquals(2, result.getSucceeded());
+        assertEquals(2, result.getFailed());
+        assertEquals(Set.of(1, 2), gameService.deleted);
+    }
+}
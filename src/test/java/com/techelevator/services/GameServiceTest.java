@@ -0,0 +1,169 @@
+package com.techelevator.services;
+
+import com.techelevator.model.AuthenticatedUser;
+import com.techelevator.model.Game;
+import com.techelevator.model.UserCredentials;
+import com.techelevator.model.UserGame;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the services against the stub server over each transport, so both behave the same.
+ */
+public class GameServiceTest {
+
+    private static final List<String> TRANSPORTS = List.of(HttpTransport.REST_TEMPLATE, HttpTransport.HTTP_CLIENT);
+    private static final long RESPONSE_DELAY_MILLIS = 100;
+
+    @Test
+    public void loginAndGames() throws IOException {
+        for (String transportName : TRANSPORTS) {
+            try (StubServer server = new StubServer()) {
+                HttpTransport transport = HttpTransport.create(transportName);
+                AuthenticatedUser user = new AuthenticationService(server.getUrl(), transport).
+                        login(new UserCredentials("user", "password"));
+                assertNotNull(transportName, user);
+                assertEquals(transportName, StubServer.TOKEN, user.getToken());
+
+                GameService gameService = new GameService(server.getUrl(), transport);
+                gameService.setAuthToken(user.getToken());
+
+                Game added = gameService.add(new Game(0, "hoard", LocalDate.now(), Game.Type.DAILY));
+                assertNotNull(transportName, added);
+                assertEquals(transportName, "hoard", gameService.getTodaysGame().getWord());
+
+                Game updated = gameService.update(new Game(added.getGameId(), "train", added.getDate(), Game.Type.RANDOM));
+                assertEquals(transportName, Game.Type.RANDOM, updated.getType());
+                assertNull(transportName, gameService.getTodaysGame());
+
+                gameService.add(new Game(0, "sharp", LocalDate.of(2024, 1, 1), Game.Type.DAILY));
+                assertEquals(transportName, 2, gameService.getAllGames().size());
+                List<Game> streamed = new ArrayList<>();
+                assertTrue(transportName, gameService.streamAllGames(1, streamed::addAll));
+                assertEquals(transportName, 2, streamed.size());
+
+                assertTrue(transportName, gameService.delete(added.getGameId()));
+                assertFalse(transportName, gameService.delete(added.getGameId()));
+                assertEquals(transportName, 1, gameService.getAllGames().size());
+            }
+        }
+    }
+
+    @Test
+    public void errorsReturnNull() throws IOException {
+        for (String transportName : TRANSPORTS) {
+            try (StubServer server = new StubServer()) {
+                GameService gameService = new GameService(server.getUrl(), HttpTransport.create(transportName));
+                gameService.setAuthToken("wrong-token");
+                assertNull(transportName, gameService.getAllGames());
+                assertFalse(transportName, gameService.streamAllGames(10, batch -> { }));
+            }
+            // Nothing listening
+            GameService gameService = new GameService("http://localhost:1/", HttpTransport.create(transportName));
+            assertNull(transportName, gameService.getAllGames());
+        }
+    }
+
+    @Test
+    public void unstartedGameIsToldApartFromAFailure() throws IOException, TransportException {
+        try (StubServer server = new StubServer()) {
+            Game game = server.addGame("hoard", LocalDate.now(), Game.Type.DAILY);
+            GameService gameService = new GameService(server.getUrl());
+            gameService.setAuthToken(StubServer.TOKEN);
+
+            assertNull(gameService.findUserGame(1, game.getGameId()));
+            gameService.createUserGame(new UserGame(1, Game.Type.DAILY));
+            assertEquals(game.getGameId(), gameService.findUserGame(1, game.getGameId()).getGameId());
+        }
+        GameService gameService = new GameService("http://localhost:1/");
+        try {
+            gameService.findUserGame(1, 1);
+            fail("A request that got no response was taken for an unstarted game");
+        } catch (TransportException e) {
+            assertEquals(0, e.getStatusCode());
+        }
+    }
+
+    @Test
+    public void rejectedGuessIsToldApartFromAFailure() throws IOException, TransportException {
+        UserGame userGame;
+        try (StubServer server = new StubServer()) {
+            server.addGame("hoard", LocalDate.now(), Game.Type.DAILY);
+            GameService gameService = new GameService(server.getUrl());
+            gameService.setAuthToken(StubServer.TOKEN);
+            userGame = gameService.createUserGame(new UserGame(1, Game.Type.DAILY));
+
+            userGame.getGuesses().add("crane");
+            assertTrue(gameService.updateGame(userGame));
+            userGame.getGuesses().add("12345");
+            assertFalse(gameService.updateGame(userGame));
+        }
+        try {
+            new GameService("http://localhost:1/").updateGame(userGame);
+            fail("A guess that could not be sent was taken for a rejected word");
+        } catch (TransportException e) {
+            assertEquals(0, e.getStatusCode());
+        }
+    }
+
+    @Test
+    public void updatesOfSeveralGamesOverlap() throws IOException {
+        for (String transportName : TRANSPORTS) {
+            try (StubServer server = new StubServer()) {
+                for (String word : List.of("hoard", "train", "sharp", "crane")) {
+                    server.addGame(word, LocalDate.now().minusDays(1), Game.Type.RANDOM);
+                }
+                GameService gameService = new GameService(server.getUrl(), HttpTransport.create(transportName));
+                gameService.setAuthToken(StubServer.TOKEN);
+                List<CompletableFuture<UserGame>> created = new ArrayList<>();
+                for (int i = 0; i < 4; ++i) {
+                    created.add(gameService.createUserGameAsync(new UserGame(1, Game.Type.RANDOM)));
+                }
+                List<UserGame> boards = created.stream().map(CompletableFuture::join).collect(Collectors.toList());
+                assertEquals(transportName, 4, boards.stream().map(UserGame::getGameId).distinct().count());
+
+                // The delay holds each request open long enough for the others to arrive if they are sent at once
+                server.setResponseDelay(RESPONSE_DELAY_MILLIS);
+                server.resetPeakInFlightCount();
+                List<CompletableFuture<UserGame>> updates = new ArrayList<>();
+                for (UserGame board : boards) {
+                    board.getGuesses().add("train");
+                    updates.add(gameService.updateGameAsync(board));
+                }
+                List<UserGame> updated = updates.stream().map(CompletableFuture::join).collect(Collectors.toList());
+
+                // Sent one after another, the server would only ever handle one request at a time
+                assertTrue(transportName + " handled " + server.getPeakInFlightCount() + " at once",
+                        server.getPeakInFlightCount() > 1);
+                assertEquals(transportName, 1, updated.stream().filter(UserGame::isSuccess).count());
+                assertTrue(transportName, updated.stream().allMatch(board -> board.getGuesses().equals(List.of("train"))));
+
+                UserGame rejected = updated.get(0);
+                rejected.getGuesses().add("12345");
+                assertEquals(transportName, List.of("train"), gameService.updateGameAsync(rejected).join().getGuesses());
+            }
+        }
+    }
+
+    @Test
+    public void updateThatCouldNotBeSentFails() {
+        UserGame userGame = new UserGame(1, Game.Type.RANDOM);
+        userGame.getGuesses().add("train");
+        try {
+            new GameService("http://localhost:1/").updateGameAsync(userGame).join();
+            fail("A guess that could not be sent was taken for a rejected word");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof TransportException);
+            assertEquals(0, ((TransportException) e.getCause()).getStatusCode());
+        }
+    }
+}
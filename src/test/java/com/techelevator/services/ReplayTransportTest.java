@@ -0,0 +1,69 @@
+package com.techelevator.services;
+
+import com.techelevator.model.Game;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ReplayTransportTest {
+
+    @Test
+    public void replaysWhatWasRecorded() throws IOException, TransportException {
+        Path file = Files.createTempDirectory("replay").resolve("exchanges.jsonl");
+        List<Game> recorded;
+        try (StubServer server = new StubServer()) {
+            server.addGame("hoard", LocalDate.now(), Game.Type.DAILY);
+            server.addGame("train", LocalDate.now().minusDays(1), Game.Type.RANDOM);
+            GameService gameService = new GameService(server.getUrl(), new RecordingTransport(new RestTemplateTransport(), file));
+            gameService.setAuthToken(StubServer.TOKEN);
+            recorded = gameService.getAllGames();
+            assertNotNull(gameService.getTodaysGame());
+            assertFalse(gameService.delete(99));
+        }
+
+        // Replayed against a different base url, with no server running
+        GameService replayed = new GameService("http://elsewhere:8080/", ReplayTransport.load(file, 0.0));
+        replayed.setAuthToken(StubServer.TOKEN);
+        List<Game> games = replayed.getAllGames();
+        assertEquals(recorded.size(), games.size());
+        assertEquals(recorded.get(0).getWord(), games.get(0).getWord());
+        assertEquals("hoard", replayed.getTodaysGame().getWord());
+        assertFalse(replayed.delete(99));
+        assertNull(replayed.add(new Game(0, "sharp", LocalDate.now(), Game.Type.RANDOM)));
+    }
+
+    @Test
+    public void exchangesAreServedInOrderThenRepeated() throws IOException, TransportException {
+        Path file = Files.createTempFile("replay", ".jsonl");
+        Files.writeString(file, "{\"method\":\"GET\",\"path\":\"/count\",\"status\":200,\"nanos\":1000,\"body\":\"1\"}\n" +
+                "{\"method\":\"GET\",\"path\":\"/count\",\"status\":200,\"nanos\":1000,\"body\":\"2\"}\n");
+        ReplayTransport transport = ReplayTransport.load(file, 0.0);
+        TransportRequest request = new TransportRequest("GET", "http://localhost/count", Map.of(), null);
+
+        assertEquals("1", new String(transport.send(request).getBody()));
+        assertEquals("2", new String(transport.send(request).getBody()));
+        assertEquals("2", new String(transport.send(request).getBody()));
+    }
+
+    @Test
+    public void recordedTimingIsScaled() throws IOException, TransportException {
+        Path file = Files.createTempFile("replay", ".jsonl");
+        Files.writeString(file, "{\"method\":\"GET\",\"path\":\"/slow\",\"status\":200,\"nanos\":20000000,\"body\":\"\"}\n");
+        TransportRequest request = new TransportRequest("GET", "http://localhost/slow", Map.of(), null);
+
+        long start = System.nanoTime();
+        ReplayTransport.load(file, 2.0).send(request);
+        assertTrue(System.nanoTime() - start >= 40_000_000L);
+
+        start = System.nanoTime();
+        ReplayTransport.load(file, 0.0).send(request);
+        assertTrue(System.nanoTime() - start < 20_000_000L);
+    }
+}
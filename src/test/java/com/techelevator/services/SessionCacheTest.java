@@ -0,0 +1,101 @@
+package com.techelevator.services;
+
+import com.techelevator.model.AuthenticatedUser;
+import com.techelevator.model.Authority;
+import com.techelevator.model.User;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.junit.Assert.*;
+
+public class SessionCacheTest {
+
+    private static String token(Instant expiry) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString("{\"alg\":\"HS512\"}".getBytes(StandardCharsets.UTF_8)) + "." +
+                encoder.encodeToString(String.format("{\"sub\":\"user\",\"exp\":%d}", expiry.getEpochSecond()).
+                        getBytes(StandardCharsets.UTF_8)) + ".signature";
+    }
+
+    private static AuthenticatedUser authenticatedUser(Instant expiry) {
+        User user = new User();
+        user.setId(7);
+        user.setUsername("user");
+        user.setAuthorities(new Authority[] {Authority.ADMIN_AUTHORITY});
+        AuthenticatedUser authenticatedUser = new AuthenticatedUser();
+        authenticatedUser.setToken(token(expiry));
+        authenticatedUser.setUser(user);
+        return authenticatedUser;
+    }
+
+    @Test
+    public void saveAndLoad() throws IOException {
+        Path file = Files.createTempDirectory("session").resolve("session.bin");
+        SessionCache cache = new SessionCache(file);
+        AuthenticatedUser saved = authenticatedUser(Instant.now().plusSeconds(3600));
+
+        assertTrue(cache.save(saved));
+        AuthenticatedUser loaded = new SessionCache(file).load();
+
+        assertNotNull(loaded);
+        assertEquals(saved.getToken(), loaded.getToken());
+        assertEquals(saved.getUser(), loaded.getUser());
+        assertTrue(loaded.getUser().isAdmin());
+        // The token is not stored in the clear
+        assertFalse(new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1).contains(saved.getToken()));
+
+        cache.clear();
+        assertNull(cache.load());
+    }
+
+    @Test
+    public void keyIsReadableOnlyByItsOwner() throws IOException {
+        Path file = Files.createTempDirectory("session").resolve("session.bin");
+        assertTrue(new SessionCache(file).save(authenticatedUser(Instant.now().plusSeconds(3600))));
+
+        Path keyFile = file.resolveSibling("session.bin.key");
+        if (Files.getFileStore(keyFile).supportsFileAttributeView("posix")) {
+            assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(keyFile)));
+        }
+        assertNotNull(new SessionCache(file).load());
+    }
+
+    @Test
+    public void expiringSessionIsNotLoaded() throws IOException {
+        Path file = Files.createTempDirectory("session").resolve("session.bin");
+        SessionCache cache = new SessionCache(file);
+
+        cache.save(authenticatedUser(Instant.now().plus(SessionCache.RENEWAL_MARGIN).minusSeconds(1)));
+
+        assertNull(cache.load());
+    }
+
+    @Test
+    public void tamperedSessionIsNotLoaded() throws IOException {
+        Path file = Files.createTempDirectory("session").resolve("session.bin");
+        SessionCache cache = new SessionCache(file);
+        cache.save(authenticatedUser(Instant.now().plusSeconds(3600)));
+
+        byte[] sealed = Files.readAllBytes(file);
+        sealed[sealed.length / 2] ^= 1;
+        Files.write(file, sealed);
+
+        assertNull(cache.load());
+    }
+
+    @Test
+    public void getExpiry() {
+        Instant expiry = Instant.ofEpochSecond(1_800_000_000L);
+
+        assertEquals(expiry, SessionCache.getExpiry(token(expiry)));
+        assertNull(SessionCache.getExpiry("not a token"));
+        assertNull(SessionCache.getExpiry(null));
+    }
+}
@@ -0,0 +1,333 @@
+package com.techelevator.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.techelevator.model.Game;
+import com.techelevator.model.UserGame;
+import com.techelevator.solver.MatchEvaluator;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.net.InetSocketAddress;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A stand-in for the server REST API, for tests. It keeps games in memory and answers login, games, games/today,
+ * games/{id}, users/{id}/games and users/{id}/games/{id} requests, scoring guesses with MatchEvaluator. Every
+ * request must carry the token returned by login, except login itself. A new random user game is the first random
+ * game the user has not played yet. Responses can be delayed, to stand in for the network, and the most requests
+ * handled at once can be read back, to check that requests overlap.
+ *
+ * Like a Spring Boot server with compression turned on, responses of COMPRESSION_MIN_BYTES or more are compressed
+ * with gzip for requests that accept it, and compressed request bodies are accepted. How well the responses
+ * compressed, and the time spent compressing them, can be read back.
+ */
+public class StubServer implements AutoCloseable {
+
+    public static final String TOKEN = "stub-token";
+    public static final int COMPRESSION_MIN_BYTES = 2048;
+
+    private static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+    static {
+        // Without this the JDK server waits on delayed acknowledgements, adding about 40 ms to every response
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newFixedThreadPool(16);
+    private final Map<Integer, Game> games = new ConcurrentHashMap<>();
+    private final AtomicInteger nextGameId = new AtomicInteger(1);
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private volatile long responseDelayMillis;
+
+    private final AtomicInteger compressedRequests = new AtomicInteger();
+    private final AtomicInteger compressedResponses = new AtomicInteger();
+    private final AtomicLong responseBytes = new AtomicLong();
+    private final AtomicLong responseWireBytes = new AtomicLong();
+    private final AtomicLong compressionNanos = new AtomicLong();
+
+    // The guesses made in each user game, by "userId/gameId"
+    private final Map<String, List<String>> userGames = new ConcurrentHashMap<>();
+
+    public StubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * @return the base url of the server, ending with a slash
+     */
+    public String getUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/";
+    }
+
+    /**
+     * @return the number of requests received so far
+     */
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * @return the most requests that have been handled at the same time since the server started or the count
+     *         was last reset
+     */
+    public int getPeakInFlightCount() {
+        return peakInFlight.get();
+    }
+
+    public void resetPeakInFlightCount() {
+        peakInFlight.set(inFlight.get());
+    }
+
+    /**
+     * Adds a game directly, without a request.
+     * @return the game as stored, with its id
+     */
+    public Game addGame(String word, LocalDate date, Game.Type type) {
+        Game game = new Game(nextGameId.getAndIncrement(), word, date, type);
+        games.put(game.getGameId(), game);
+        return game;
+    }
+
+    /**
+     * @param millis how long to wait before answering each request
+     */
+    public void setResponseDelay(long millis) {
+        responseDelayMillis = millis;
+    }
+
+    /**
+     * @return the number of requests received with a compressed body
+     */
+    public int getCompressedRequestCount() {
+        return compressedRequests.get();
+    }
+
+    /**
+     * @return the number of responses sent compressed
+     */
+    public int getCompressedResponseCount() {
+        return compressedResponses.get();
+    }
+
+    /**
+     * @return the size of the compressed responses before compression, in bytes
+     */
+    public long getResponseBytes() {
+        return responseBytes.get();
+    }
+
+    /**
+     * @return the size of the compressed responses as sent, in bytes
+     */
+    public long getResponseWireBytes() {
+        return responseWireBytes.get();
+    }
+
+    /**
+     * @return the time spent compressing responses, in nanoseconds
+     */
+    public long getCompressionNanos() {
+        return compressionNanos.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+
+    // ***** Helper Methods ***************************************************
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            if (responseDelayMillis > 0) {
+                Thread.sleep(responseDelayMillis);
+            }
+            byte[] requestBody = exchange.getRequestBody().readAllBytes();
+            if ("gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+                compressedRequests.incrementAndGet();
+                try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(requestBody))) {
+                    requestBody = in.readAllBytes();
+                }
+            }
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+
+            if (path.equals("/login") && method.equals("POST")) {
+                respond(exchange, 200, "{\"token\":\"" + TOKEN + "\",\"user\":{\"id\":1,\"username\":\"user\"," +
+                        "\"authorities\":[{\"name\":\"ROLE_USER\"}]}}");
+                return;
+            }
+            if (!("Bearer " + TOKEN).equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+                respond(exchange, 401, "{\"message\":\"Unauthorized\"}");
+                return;
+            }
+            if (path.equals("/games") && method.equals("GET")) {
+                List<Game> all = new ArrayList<>(games.values());
+                respond(exchange, 200, MAPPER.writeValueAsString(all));
+            } else if (path.equals("/games") && method.equals("POST")) {
+                Game game = MAPPER.readValue(requestBody, Game.class);
+                respond(exchange, 201, MAPPER.writeValueAsString(addGame(game.getWord(), game.getDate(), game.getType())));
+            } else if (path.equals("/games/today") && method.equals("GET")) {
+                Game today = games.values().stream().
+                        filter(game -> game.getType() == Game.Type.DAILY && LocalDate.now().equals(game.getDate())).
+                        findFirst().orElse(null);
+                if (today == null) {
+                    respond(exchange, 404, "{\"message\":\"No game today\"}");
+                } else {
+                    respond(exchange, 200, MAPPER.writeValueAsString(today));
+                }
+            } else if (path.startsWith("/users/")) {
+                handleUserGames(exchange, method, path, requestBody);
+            } else if (path.startsWith("/games/")) {
+                int id = Integer.parseInt(path.substring("/games/".length()));
+                if (!games.containsKey(id)) {
+                    respond(exchange, 404, "{\"message\":\"No such game\"}");
+                } else if (method.equals("PUT")) {
+                    Game game = MAPPER.readValue(requestBody, Game.class);
+                    Game updated = new Game(id, game.getWord(), game.getDate(), game.getType());
+                    games.put(id, updated);
+                    respond(exchange, 200, MAPPER.writeValueAsString(updated));
+                } else if (method.equals("DELETE")) {
+                    games.remove(id);
+                    respond(exchange, 204, null);
+                } else {
+                    respond(exchange, 405, "{\"message\":\"Method not allowed\"}");
+                }
+            } else {
+                respond(exchange, 404, "{\"message\":\"Not found\"}");
+            }
+        } catch (RuntimeException e) {
+            respond(exchange, 500, "{\"message\":\"" + e.getMessage() + "\"}");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respond(exchange, 503, "{\"message\":\"Shutting down\"}");
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private void handleUserGames(HttpExchange exchange, String method, String path, byte[] requestBody) throws IOException {
+        String[] parts = path.split("/"); // "", "users", userId, "games", [gameId]
+        int userId = Integer.parseInt(parts[2]);
+        if (parts.length == 4 && method.equals("GET")) {
+            List<Map<String, Object>> all = new ArrayList<>();
+            userGames.forEach((key, guesses) -> {
+                if (key.startsWith(userId + "/")) {
+                    all.add(userGameJson(userId, games.get(Integer.parseInt(key.substring(key.indexOf('/') + 1))), guesses));
+                }
+            });
+            respond(exchange, 200, MAPPER.writeValueAsString(all));
+        } else if (parts.length == 4 && method.equals("POST")) {
+            Game.Type type = MAPPER.readValue(requestBody, Game.class).getType();
+            Game game;
+            List<String> guesses;
+            synchronized (userGames) {
+                game = games.values().stream().
+                        filter(candidate -> candidate.getType() == type &&
+                                (type != Game.Type.DAILY || LocalDate.now().equals(candidate.getDate())) &&
+                                (type != Game.Type.RANDOM || !userGames.containsKey(userId + "/" + candidate.getGameId()))).
+                        findFirst().orElse(null);
+                if (game == null) {
+                    respond(exchange, 404, "{\"message\":\"No game to play\"}");
+                    return;
+                }
+                guesses = userGames.computeIfAbsent(userId + "/" + game.getGameId(), key -> new ArrayList<>());
+            }
+            respond(exchange, 201, MAPPER.writeValueAsString(userGameJson(userId, game, guesses)));
+        } else if (parts.length == 5) {
+            int gameId = Integer.parseInt(parts[4]);
+            List<String> guesses = userGames.get(userId + "/" + gameId);
+            if (guesses == null) {
+                respond(exchange, 404, "{\"message\":\"No such game\"}");
+            } else if (method.equals("GET")) {
+                respond(exchange, 200, MAPPER.writeValueAsString(userGameJson(userId, games.get(gameId), guesses)));
+            } else if (method.equals("PUT")) {
+                List<String> updated = MAPPER.readValue(requestBody, UserGame.class).getGuesses();
+                String guess = updated.isEmpty() ? "" : updated.get(updated.size() - 1);
+                if (!guess.matches("[a-z]{" + Game.WORD_LENGTH + "}")) {
+                    respond(exchange, 400, "{\"message\":\"Invalid guess\"}");
+                    return;
+                }
+                guesses.add(guess);
+                respond(exchange, 200, MAPPER.writeValueAsString(userGameJson(userId, games.get(gameId), guesses)));
+            } else {
+                respond(exchange, 405, "{\"message\":\"Method not allowed\"}");
+            }
+        } else {
+            respond(exchange, 404, "{\"message\":\"Not found\"}");
+        }
+    }
+
+    private static Map<String, Object> userGameJson(int userId, Game game, List<String> guesses) {
+        List<UserGame.MatchPair[]> matches = new ArrayList<>();
+        for (String guess : guesses) {
+            matches.add(MatchEvaluator.toMatchPairs(guess, MatchEvaluator.evaluate(guess, game.getWord())));
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("gameId", game.getGameId());
+        json.put("userId", userId);
+        json.put("word", game.getWord());
+        json.put("date", game.getDate());
+        json.put("type", game.getType());
+        json.put("success", guesses.contains(game.getWord()));
+        json.put("guesses", guesses);
+        json.put("matches", matches);
+        return json;
+    }
+
+    private void respond(HttpExchange exchange, int status, String json) throws IOException {
+        if (json == null || exchange.getRequestMethod().equals("HEAD")) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (body.length >= COMPRESSION_MIN_BYTES && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            long start = System.nanoTime();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (OutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(body);
+            }
+            compressionNanos.addAndGet(System.nanoTime() - start);
+            compressedResponses.incrementAndGet();
+            responseBytes.addAndGet(body.length);
+            body = compressed.toByteArray();
+            responseWireBytes.addAndGet(body.length);
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
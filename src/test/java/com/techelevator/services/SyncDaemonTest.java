@@ -0,0 +1,98 @@
+package com.techelevator.services;
+
+import com.techelevator.model.Game;
+import com.techelevator.model.UserGame;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SyncDaemonTest {
+
+    private static final int USER_ID = 1;
+
+    @Test
+    public void dailyGameIsKeptForTheDateItWasFetched() throws IOException {
+        try (StubServer server = new StubServer()) {
+            server.addGame("hoard", LocalDate.now(), Game.Type.DAILY);
+            SyncDaemon daemon = new SyncDaemon(gameService(server), USER_ID, Duration.ZERO, Duration.ofMinutes(1));
+            LocalDate today = LocalDate.now();
+
+            assertNull(daemon.getDailyGame(today));
+            assertTrue(daemon.refreshDaily(today));
+
+            SyncDaemon.DailyGame daily = daemon.getDailyGame(today);
+            assertNotNull(daily);
+            assertEquals("hoard", daily.getGame().getWord());
+            // After midnight the cached game is no longer today's
+            assertNull(daemon.getDailyGame(today.plusDays(1)));
+        }
+    }
+
+    @Test
+    public void failedRefreshKeepsNothing() throws IOException {
+        try (StubServer server = new StubServer()) {
+            SyncDaemon daemon = new SyncDaemon(gameService(server), USER_ID, Duration.ZERO, Duration.ofMinutes(1));
+
+            assertFalse(daemon.refreshDaily(LocalDate.now()));
+            assertNull(daemon.getDailyGame(LocalDate.now()));
+        }
+    }
+
+    @Test
+    public void rolloverIsJitteredPastMidnight() {
+        SyncDaemon daemon = new SyncDaemon(null, USER_ID, Duration.ofMinutes(2), Duration.ofMinutes(1));
+        LocalDateTime now = LocalDateTime.of(2022, 3, 1, 23, 59, 30);
+
+        for (int i = 0; i < 100; ++i) {
+            Duration delay = daemon.getDelayUntilRollover(now);
+            assertTrue(delay.toString(), delay.compareTo(Duration.ofSeconds(30)) >= 0);
+            assertTrue(delay.toString(), delay.compareTo(Duration.ofSeconds(150)) <= 0);
+        }
+        assertEquals(Duration.ofHours(24), new SyncDaemon(null, USER_ID, Duration.ZERO, Duration.ofMinutes(1)).
+                getDelayUntilRollover(LocalDate.of(2022, 3, 1).atStartOfDay()));
+    }
+
+    @Test
+    public void historyIsSyncedOnceTheUserIsIdle() throws IOException, InterruptedException {
+        try (StubServer server = new StubServer()) {
+            server.addGame("hoard", LocalDate.now(), Game.Type.DAILY);
+            GameService gameService = gameService(server);
+            assertNotNull(gameService.createUserGame(new UserGame(USER_ID, Game.Type.DAILY)));
+            SyncDaemon daemon = new SyncDaemon(gameService, USER_ID, Duration.ZERO, Duration.ofMillis(100));
+            daemon.start();
+            try {
+                List<UserGame> history = null;
+                for (int i = 0; i < 100 && history == null; ++i) {
+                    Thread.sleep(20);
+                    history = daemon.takeHistory();
+                }
+
+                assertNotNull(history);
+                assertEquals(1, history.size());
+                assertNotNull(daemon.getDailyGame(LocalDate.now()));
+                // Nothing more is synced until the user has been active and idle again
+                int requests = server.getRequestCount();
+                Thread.sleep(300);
+                assertNull(daemon.takeHistory());
+                assertEquals(requests, server.getRequestCount());
+            } finally {
+                daemon.stop();
+            }
+        }
+    }
+
+
+    // ***** Helper Methods ***************************************************
+
+    private static GameService gameService(StubServer server) {
+        GameService gameService = new GameService(server.getUrl());
+        gameService.setAuthToken(StubServer.TOKEN);
+        return gameService;
+    }
+}
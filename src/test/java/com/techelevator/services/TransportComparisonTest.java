@@ -0,0 +1,89 @@
+package com.techelevator.services;
+
+import com.techelevator.model.Game;
+import com.techelevator.utils.BasicLogger;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares the transports side by side against the stub server: the latency of requests sent one at a time, and
+ * the throughput of requests sent from several threads and asynchronously. The numbers are written to the log;
+ * the test only checks that every request succeeded.
+ */
+public class TransportComparisonTest {
+
+    private static final int WARM_UP_REQUESTS = 50;
+    private static final int SEQUENTIAL_REQUESTS = 300;
+    private static final int THREADS = 8;
+    private static final int REQUESTS_PER_THREAD = 100;
+    private static final int ASYNC_REQUESTS = 400;
+
+    @Test
+    public void compareTransports() throws Exception {
+        try (StubServer server = new StubServer()) {
+            for (int i = 0; i < 50; ++i) {
+                server.addGame("hoard", LocalDate.of(2024, 1, 1).plusDays(i), Game.Type.DAILY);
+            }
+            for (String name : List.of(HttpTransport.REST_TEMPLATE, HttpTransport.HTTP_CLIENT)) {
+                HttpTransport transport = HttpTransport.create(name);
+                TransportRequest request = new ApiClient(server.getUrl(), transport).
+                        createRequest("GET", "games", StubServer.TOKEN, null);
+
+                for (int i = 0; i < WARM_UP_REQUESTS; ++i) {
+                    assertTrue(transport.send(request).isSuccessful());
+                }
+
+                long[] latencies = new long[SEQUENTIAL_REQUESTS];
+                for (int i = 0; i < SEQUENTIAL_REQUESTS; ++i) {
+                    long start = System.nanoTime();
+                    assertTrue(transport.send(request).isSuccessful());
+                    latencies[i] = System.nanoTime() - start;
+                }
+                Arrays.sort(latencies);
+
+                ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+                long start = System.nanoTime();
+                List<Future<Boolean>> results = new ArrayList<>();
+                for (int thread = 0; thread < THREADS; ++thread) {
+                    results.add(threads.submit(() -> {
+                        for (int i = 0; i < REQUESTS_PER_THREAD; ++i) {
+                            if (!transport.send(request).isSuccessful()) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }));
+                }
+                for (Future<Boolean> result : results) {
+                    assertTrue(result.get());
+                }
+                double threadedPerSecond = THREADS * REQUESTS_PER_THREAD / ((System.nanoTime() - start) / 1e9);
+                threads.shutdown();
+
+                start = System.nanoTime();
+                List<CompletableFuture<TransportResponse>> responses = new ArrayList<>();
+                for (int i = 0; i < ASYNC_REQUESTS; ++i) {
+                    responses.add(transport.sendAsync(request));
+                }
+                for (CompletableFuture<TransportResponse> response : responses) {
+                    assertTrue(response.get().isSuccessful());
+                }
+                double asyncPerSecond = ASYNC_REQUESTS / ((System.nanoTime() - start) / 1e9);
+
+                BasicLogger.log(String.format("%s: p50 %.3f ms, p99 %.3f ms, %.0f req/s from %d threads, %.0f req/s async",
+                        name, latencies[SEQUENTIAL_REQUESTS / 2] / 1e6, latencies[SEQUENTIAL_REQUESTS * 99 / 100] / 1e6,
+                        threadedPerSecond, THREADS, asyncPerSecond));
+            }
+        }
+    }
+}
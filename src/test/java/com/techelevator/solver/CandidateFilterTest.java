@@ -0,0 +1,86 @@
+package com.techelevator.solver;
+
+import com.techelevator.model.UserGame;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CandidateFilterTest {
+
+    private static final WordList WORDS = new WordList(List.of("hoard", "heard", "board", "beard", "train", "sharp",
+            "hound", "filly", "about", "hello", "world", "llama", "skill", "eerie", "geese"));
+
+    @Test
+    public void filterWithNoMatches() {
+        CandidateFilter filter = new CandidateFilter(WORDS);
+        assertEquals(WORDS.size(), filter.filter(new ArrayList<>()).cardinality());
+    }
+
+    @Test
+    public void filterMatchesEvaluator() {
+        // Every filtered set must be exactly the words that would have produced the same matches
+        CandidateFilter filter = new CandidateFilter(WORDS);
+        for (int answer = 0; answer < WORDS.size(); ++answer) {
+            for (int guess = 0; guess < WORDS.size(); ++guess) {
+                String guessWord = WORDS.get(guess);
+                int pattern = MatchEvaluator.evaluate(guessWord, WORDS.get(answer));
+                List<UserGame.MatchPair[]> matches = new ArrayList<>();
+                matches.add(MatchEvaluator.toMatchPairs(guessWord, pattern));
+
+                BitSet expected = new BitSet();
+                for (int i = 0; i < WORDS.size(); ++i) {
+                    if (MatchEvaluator.evaluate(guessWord, WORDS.get(i)) == pattern) {
+                        expected.set(i);
+                    }
+                }
+                assertEquals(guessWord + " -> " + WORDS.get(answer), expected, filter.filter(matches));
+            }
+        }
+    }
+
+    @Test
+    public void filterRepeatedLetters() {
+        CandidateFilter filter = new CandidateFilter(WORDS);
+        List<UserGame.MatchPair[]> matches = new ArrayList<>();
+        matches.add(MatchEvaluator.toMatchPairs("llama", MatchEvaluator.evaluate("llama", "hello")));
+        BitSet candidates = filter.filter(matches);
+        assertTrue(candidates.get(WORDS.indexOf("hello")));
+        assertFalse(candidates.get(WORDS.indexOf("world")));
+    }
+
+    @Test
+    public void hardModeViolations() {
+        assertEquals("The 1st letter must be H.", constraints("heard", "hoard").findHardModeViolation("board"));
+        assertNull(constraints("heard", "hoard").findHardModeViolation("hoard"));
+        assertEquals("The 3rd letter must be A.", constraints("sharp", "train").findHardModeViolation("pizza"));
+        assertEquals("The guess must contain R.", constraints("sharp", "train").findHardModeViolation("blast"));
+        assertEquals("The guess must contain E 3 times.", constraints("eerie", "geese").findHardModeViolation("seize"));
+        assertNull(constraints("eerie", "geese").findHardModeViolation("tepee"));
+        assertNull(constraints("eerie", "geese").findHardModeViolation("12345"));
+    }
+
+    @Test
+    public void candidatesKeepToHardMode() {
+        // Every word that could still be the answer uses all the hints, so hard mode never rules it out
+        CandidateFilter filter = new CandidateFilter(WORDS);
+        for (int answer = 0; answer < WORDS.size(); ++answer) {
+            for (int guess = 0; guess < WORDS.size(); ++guess) {
+                CandidateFilter.Constraints constraints = constraints(WORDS.get(guess), WORDS.get(answer));
+                BitSet candidates = filter.filter(constraints);
+                for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                    assertNull(WORDS.get(guess) + " -> " + WORDS.get(answer), constraints.findHardModeViolation(WORDS.get(i)));
+                }
+            }
+        }
+    }
+
+    private static CandidateFilter.Constraints constraints(String guess, String answer) {
+        List<UserGame.MatchPair[]> matches = new ArrayList<>();
+        matches.add(MatchEvaluator.toMatchPairs(guess, MatchEvaluator.evaluate(guess, answer)));
+        return CandidateFilter.Constraints.of(matches);
+    }
+}
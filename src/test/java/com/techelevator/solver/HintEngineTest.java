@@ -0,0 +1,59 @@
+package com.techelevator.solver;
+
+import com.techelevator.model.UserGame;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class HintEngineTest {
+
+    private static final WordList WORDS = new WordList(List.of("hoard", "heard", "board", "beard", "train", "sharp",
+            "hound", "filly", "about"));
+
+    @Test
+    public void getCandidates() {
+        HintEngine engine = new HintEngine(WORDS, Duration.ofSeconds(1));
+        List<UserGame.MatchPair[]> matches = new ArrayList<>();
+        matches.add(MatchEvaluator.toMatchPairs("train", MatchEvaluator.evaluate("train", "hoard")));
+        // hoard, heard, board, beard and sharp all have an A in the middle and an R that is not second
+        assertEquals(5, engine.getCandidates(matches).cardinality());
+    }
+
+    @Test
+    public void suggestReturnsBestGuessFirst() {
+        HintEngine engine = new HintEngine(WORDS, Duration.ofSeconds(1));
+        List<HintEngine.Hint> hints = engine.suggest(new ArrayList<>(), 3);
+        assertEquals(3, hints.size());
+        assertTrue(hints.get(0).getInformation() >= hints.get(1).getInformation());
+        assertTrue(hints.get(1).getInformation() >= hints.get(2).getInformation());
+    }
+
+    @Test
+    public void suggestSingleCandidate() {
+        HintEngine engine = new HintEngine(WORDS, Duration.ofSeconds(1));
+        List<UserGame.MatchPair[]> matches = new ArrayList<>();
+        matches.add(MatchEvaluator.toMatchPairs("about", MatchEvaluator.evaluate("about", "filly")));
+        matches.add(MatchEvaluator.toMatchPairs("hound", MatchEvaluator.evaluate("hound", "filly")));
+        matches.add(MatchEvaluator.toMatchPairs("sharp", MatchEvaluator.evaluate("sharp", "filly")));
+        List<HintEngine.Hint> hints = engine.suggest(matches, 5);
+        assertEquals(1, hints.size());
+        assertEquals("filly", hints.get(0).getWord());
+        assertTrue(hints.get(0).isPossibleAnswer());
+    }
+
+    @Test
+    public void suggestWithNoBudgetStillReturnsAHint() {
+        HintEngine engine = new HintEngine(WORDS, Duration.ZERO);
+        assertFalse(engine.suggest(new ArrayList<>(), 5).isEmpty());
+    }
+
+    @Test
+    public void engineWithoutBudgetScoresEveryWord() {
+        HintEngine engine = new HintEngine(WORDS, Duration.ZERO).withoutBudget();
+        assertEquals(WORDS.size(), engine.suggest(new ArrayList<>(), WORDS.size()).size());
+    }
+}
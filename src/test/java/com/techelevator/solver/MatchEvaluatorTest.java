@@ -0,0 +1,41 @@
+package com.techelevator.solver;
+
+import com.techelevator.model.UserGame;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MatchEvaluatorTest {
+
+    @Test
+    public void evaluateExactMatch() {
+        assertEquals(MatchEvaluator.SOLVED_PATTERN, MatchEvaluator.evaluate("hoard", "hoard"));
+    }
+
+    @Test
+    public void evaluateMixedMatches() {
+        int pattern = MatchEvaluator.evaluate("heard", "hoard");
+        assertEquals(UserGame.Match.EXACT_MATCH, MatchEvaluator.matchAt(pattern, 0));
+        assertEquals(UserGame.Match.NO_MATCH, MatchEvaluator.matchAt(pattern, 1));
+        assertEquals(UserGame.Match.EXACT_MATCH, MatchEvaluator.matchAt(pattern, 2));
+        assertEquals(UserGame.Match.EXACT_MATCH, MatchEvaluator.matchAt(pattern, 3));
+        assertEquals(UserGame.Match.EXACT_MATCH, MatchEvaluator.matchAt(pattern, 4));
+    }
+
+    @Test
+    public void evaluateRepeatedLetters() {
+        // Only one 'l' in the answer, and it is claimed by the exact match
+        int pattern = MatchEvaluator.evaluate("hello", "world");
+        assertEquals(UserGame.Match.NO_MATCH, MatchEvaluator.matchAt(pattern, 2));
+        assertEquals(UserGame.Match.EXACT_MATCH, MatchEvaluator.matchAt(pattern, 3));
+        assertEquals(UserGame.Match.WRONG_LOCATION, MatchEvaluator.matchAt(pattern, 4));
+    }
+
+    @Test
+    public void toMatchPairsRoundTrip() {
+        int pattern = MatchEvaluator.evaluate("train", "sharp");
+        UserGame.MatchPair[] matches = MatchEvaluator.toMatchPairs("train", pattern);
+        assertEquals(pattern, MatchEvaluator.patternOf(matches));
+        assertEquals("train", MatchEvaluator.guessOf(matches));
+    }
+}
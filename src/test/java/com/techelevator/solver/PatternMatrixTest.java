@@ -0,0 +1,40 @@
+package com.techelevator.solver;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PatternMatrixTest {
+
+    private static final WordList WORDS = new WordList(List.of("hoard", "heard", "board", "train", "sharp", "hello"));
+
+    @Test
+    public void getMatchesEvaluator() throws IOException {
+        Path file = Files.createTempDirectory("patterns").resolve("patterns.bin");
+        PatternMatrix matrix = PatternMatrix.open(WORDS, file);
+        assertNotNull(matrix);
+        for (int guess = 0; guess < WORDS.size(); ++guess) {
+            for (int answer = 0; answer < WORDS.size(); ++answer) {
+                assertEquals(MatchEvaluator.evaluate(WORDS.get(guess), WORDS.get(answer)), matrix.get(guess, answer));
+            }
+        }
+    }
+
+    @Test
+    public void openRebuildsStaleFile() throws IOException {
+        Path file = Files.createTempDirectory("patterns").resolve("patterns.bin");
+        assertNotNull(PatternMatrix.open(WORDS, file));
+
+        WordList otherWords = new WordList(List.of("hoard", "heard", "board", "train", "sharp", "world"));
+        PatternMatrix matrix = PatternMatrix.open(otherWords, file);
+        assertNotNull(matrix);
+        int guess = otherWords.indexOf("world");
+        int answer = otherWords.indexOf("board");
+        assertEquals(MatchEvaluator.evaluate("world", "board"), matrix.get(guess, answer));
+    }
+}
@@ -0,0 +1,36 @@
+package com.techelevator.solver;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SelfPlayBenchmarkTest {
+
+    private static final WordList WORDS = new WordList(List.of("hoard", "heard", "board", "beard", "train", "sharp",
+            "hound", "filly", "about", "hello", "world", "llama", "skill", "eerie", "geese"));
+
+    @Test
+    public void runEntropyStrategy() {
+        // A zero budget would score almost nothing; without a budget every guess is scored
+        HintEngine engine = new HintEngine(WORDS, Duration.ZERO).withoutBudget();
+        SelfPlayBenchmark.Result result = new SelfPlayBenchmark(WORDS, new EntropyStrategy(engine)).run();
+        assertEquals(WORDS.size(), result.getGamesPlayed());
+        assertEquals(0, result.getFailures());
+        assertTrue(result.getAverageGuesses() >= 1.0);
+        assertTrue(result.getLatencyMillis(50) <= result.getLatencyMillis(99));
+
+        SelfPlayBenchmark.Result again = new SelfPlayBenchmark(WORDS, new EntropyStrategy(engine)).run();
+        assertEquals(result.getAverageGuesses(), again.getAverageGuesses(), 0.0);
+    }
+
+    @Test
+    public void runCandidateStrategy() {
+        SelfPlayBenchmark.Result result = new SelfPlayBenchmark(WORDS, new CandidateStrategy(new CandidateFilter(WORDS))).run();
+        assertEquals(WORDS.size(), result.getGamesPlayed());
+        assertEquals(0.0, result.getFailureRate(), 0.0);
+        assertTrue(result.getGamesPerSecond() > 0.0);
+    }
+}
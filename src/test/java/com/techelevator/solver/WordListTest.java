@@ -0,0 +1,28 @@
+package com.techelevator.solver;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class WordListTest {
+
+    @Test
+    public void wordsAreCheckedAndSorted() {
+        WordList words = new WordList(Arrays.asList("Train", "hoard", "toolong", "b4rd", null, "hoard"));
+        assertEquals(2, words.size());
+        assertEquals("hoard", words.get(0));
+        assertEquals(1, words.indexOf("TRAIN"));
+        assertFalse(words.contains("b4rd"));
+    }
+
+    @Test
+    public void defaultWordListShipsWithTheClient() {
+        WordList words = WordList.loadDefault();
+        assertNotNull(words);
+        assertTrue(words.size() > 1000);
+        assertTrue(words.contains("hoard"));
+        assertTrue(words.size() <= PatternMatrix.MAX_WORDS);
+    }
+}
@@ -0,0 +1,140 @@
+package com.techelevator.stats;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.techelevator.model.UserGame;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class HistoryIndexTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().registerModule(new JavaTimeModule());
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 10);
+
+    private static UserGame userGame(int gameId, LocalDate date, int guesses, boolean success) throws IOException {
+        List<String> guessList = new ArrayList<>();
+        for (int i = 0; i < guesses; ++i) {
+            guessList.add("guess");
+        }
+        return MAPPER.readValue(String.format("{\"gameId\":%d,\"userId\":1,\"word\":\"hoard\",\"date\":\"%s\"," +
+                "\"type\":\"DAILY\",\"success\":%b,\"guesses\":%s}", gameId, date, success,
+                MAPPER.writeValueAsString(guessList)), UserGame.class);
+    }
+
+    @Test
+    public void getStats() throws IOException {
+        List<UserGame> games = new ArrayList<>();
+        games.add(userGame(1, TODAY, 3, true));
+        games.add(userGame(2, TODAY.minusDays(1), 6, false));
+        games.add(userGame(3, TODAY.minusDays(10), 4, true));
+        games.add(userGame(4, TODAY.minusDays(40), 2, false));
+        HistoryIndex index = new HistoryIndex(games);
+
+        GameStats lastWeek = index.getLastDaysStats(7, TODAY);
+        assertEquals(2, lastWeek.getStarted());
+        assertEquals(2, lastWeek.getCompleted());
+        assertEquals(1, lastWeek.getWon());
+        assertEquals(4.5, lastWeek.getAverageGuesses(), 0.001);
+
+        GameStats allTime = index.getAllTimeStats();
+        assertEquals(4, allTime.getStarted());
+        assertEquals(3, allTime.getCompleted());
+        assertEquals(1, allTime.getWonIn(3));
+        assertEquals(1, allTime.getWonIn(4));
+
+        // The game 10 days before March 10th, 2024 was on February 29th
+        assertEquals(2, index.getMonthStats(YearMonth.from(TODAY)).getStarted());
+        assertEquals(0, index.getMonthStats(YearMonth.of(2023, 1)).getStarted());
+    }
+
+    @Test
+    public void recordUpdatesGameInPlace() throws IOException {
+        HistoryIndex index = new HistoryIndex();
+        index.record(userGame(1, TODAY, 1, false));
+        assertEquals(1, index.getAllTimeStats().getStarted());
+        assertEquals(0, index.getAllTimeStats().getCompleted());
+
+        index.record(userGame(1, TODAY, 2, true));
+        assertEquals(1, index.getAllTimeStats().getStarted());
+        assertEquals(1, index.getAllTimeStats().getWon());
+        assertEquals(1, index.getGames().size());
+
+        // An earlier game moves the start of the index back
+        index.record(userGame(2, TODAY.minusDays(100), 6, false));
+        assertEquals(2, index.getAllTimeStats().getCompleted());
+        assertEquals(1, index.getLastDaysStats(1, TODAY).getStarted());
+    }
+
+    @Test
+    public void olderStateOfAGameIsNotRecorded() throws IOException {
+        HistoryIndex index = new HistoryIndex();
+        index.record(userGame(1, TODAY, 3, true));
+
+        // Synced while the game was still being played
+        assertFalse(index.recordIfNewer(userGame(1, TODAY, 2, false)));
+        assertEquals(1, index.getAllTimeStats().getWon());
+        assertTrue(index.recordIfNewer(userGame(1, TODAY, 3, true)));
+        assertTrue(index.recordIfNewer(userGame(2, TODAY.minusDays(1), 1, false)));
+        assertEquals(2, index.getAllTimeStats().getStarted());
+    }
+
+    @Test
+    public void streaks() throws IOException {
+        HistoryIndex index = new HistoryIndex();
+        index.record(userGame(1, TODAY.minusDays(5), 3, true));
+        index.record(userGame(2, TODAY.minusDays(4), 3, true));
+        index.record(userGame(3, TODAY.minusDays(2), 3, true));
+        index.record(userGame(4, TODAY.minusDays(1), 3, true));
+        assertEquals(2, index.getCurrentStreak(TODAY));
+        assertEquals(2, index.getMaxStreak());
+
+        // Filling in the missing day joins the two streaks
+        index.record(userGame(5, TODAY.minusDays(3), 3, true));
+        assertEquals(5, index.getCurrentStreak(TODAY));
+        assertEquals(5, index.getMaxStreak());
+        assertEquals(0, index.getCurrentStreak(TODAY.plusDays(2)));
+    }
+
+    @Test
+    public void pagesAreNewestFirst() throws IOException {
+        HistoryIndex index = new HistoryIndex();
+        for (int day = 0; day < 25; ++day) {
+            index.record(userGame(day + 1, TODAY.minusDays(day * 2L), 1, false));
+        }
+
+        assertEquals(25, index.size());
+        List<UserGame> firstPage = index.getPage(0, 10);
+        assertEquals(10, firstPage.size());
+        assertEquals(TODAY, firstPage.get(0).getDate());
+        assertEquals(5, index.getPage(20, 10).size());
+        assertTrue(index.getPage(30, 10).isEmpty());
+
+        // A game played after the pages were sorted takes its place at the top
+        index.record(userGame(100, TODAY.plusDays(1), 1, false));
+        assertEquals(100, index.getPage(0, 1).get(0).getGameId());
+
+        // An update keeps its place
+        index.record(userGame(100, TODAY.plusDays(1), 2, true));
+        assertTrue(index.getPage(0, 1).get(0).isSuccess());
+    }
+
+    @Test
+    public void positionOfDate() throws IOException {
+        HistoryIndex index = new HistoryIndex();
+        index.record(userGame(1, TODAY, 1, false));
+        index.record(userGame(2, TODAY.minusDays(2), 1, false));
+        index.record(userGame(3, TODAY.minusDays(4), 1, false));
+
+        assertEquals(0, index.positionOf(TODAY.plusDays(5)));
+        assertEquals(1, index.positionOf(TODAY.minusDays(1)));
+        assertEquals(1, index.positionOf(TODAY.minusDays(2)));
+        assertEquals(3, index.positionOf(TODAY.minusDays(5)));
+    }
+}
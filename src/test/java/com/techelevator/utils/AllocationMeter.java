@@ -0,0 +1,114 @@
+package com.techelevator.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Properties;
+
+/**
+ * Measures the bytes allocated by an operation, using the per-thread allocation counter of the HotSpot
+ * ThreadMXBean, and checks them against the budgets in allocation-budgets.properties.
+ *
+ * The operation is run enough times first for the JIT compiler to settle, then measured over many runs on the
+ * current thread, so the result is the average number of bytes allocated by one run. The number of garbage
+ * collections during the measured runs is kept as well, for reporting.
+ */
+public class AllocationMeter {
+
+    public static final String BUDGETS_RESOURCE = "/allocation-budgets.properties";
+
+    private static final int WARM_UP_RUNS = 20_000;
+    private static final int MEASURED_RUNS = 20_000;
+
+    private final com.sun.management.ThreadMXBean threads;
+    private final Properties budgets = new Properties();
+
+    public AllocationMeter() throws IOException {
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        try (InputStream in = AllocationMeter.class.getResourceAsStream(BUDGETS_RESOURCE)) {
+            if (in == null) {
+                throw new IOException(BUDGETS_RESOURCE + " was not found on the class path");
+            }
+            budgets.load(in);
+        }
+    }
+
+    /**
+     * @return true if the JVM can count the bytes allocated by a thread
+     */
+    public boolean isSupported() {
+        return threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled();
+    }
+
+    /**
+     * @param name the name of an operation
+     * @return the most bytes the operation may allocate per run
+     * @throws IllegalArgumentException if the operation has no budget
+     */
+    public long getBudget(String name) {
+        String budget = budgets.getProperty(name);
+        if (budget == null) {
+            throw new IllegalArgumentException("There is no allocation budget for " + name + " in " + BUDGETS_RESOURCE);
+        }
+        return Long.parseLong(budget.trim());
+    }
+
+    /**
+     * Measures an operation.
+     *
+     * @param operation the operation to run
+     * @return the measurement
+     */
+    public Measurement measure(Runnable operation) {
+        for (int i = 0; i < WARM_UP_RUNS; ++i) {
+            operation.run();
+        }
+        long threadId = Thread.currentThread().getId();
+        long collections = getCollectionCount();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_RUNS; ++i) {
+            operation.run();
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        return new Measurement(allocated / MEASURED_RUNS, getCollectionCount() - collections);
+    }
+
+
+    // ***** Helper Methods ***************************************************
+
+    private static long getCollectionCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+
+
+    // ***** inner class: Measurement *****************************************
+
+    public static class Measurement {
+        private final long bytesPerRun;
+        private final long collections;
+
+        private Measurement(long bytesPerRun, long collections) {
+            this.bytesPerRun = bytesPerRun;
+            this.collections = collections;
+        }
+
+        /**
+         * @return the average number of bytes allocated by one run
+         */
+        public long getBytesPerRun() {
+            return bytesPerRun;
+        }
+
+        /**
+         * @return the number of garbage collections, by any collector, during the measured runs
+         */
+        public long getCollections() {
+            return collections;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.techelevator.utils;
+
+import io.github.tbeerbower.TextEffect;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * A BasicConsole that takes its input from a script instead of the user and keeps everything printed to it.
+ * Once the script runs out, every prompt is answered with an empty entry.
+ */
+public class ScriptedConsole implements BasicConsole {
+
+    private final Deque<String> script;
+    private final List<String> output = new ArrayList<>();
+    private long firstPromptNanos;
+
+    /**
+     * @param entries the entries to give, in order, one for each prompt
+     */
+    public ScriptedConsole(String... entries) {
+        script = new ArrayDeque<>(Arrays.asList(entries));
+    }
+
+    /**
+     * @return everything printed, one entry per message
+     */
+    public List<String> getOutput() {
+        return output;
+    }
+
+    /**
+     * @return the System.nanoTime() at which the first prompt was made, or 0 if there has been no prompt
+     */
+    public long getFirstPromptNanos() {
+        return firstPromptNanos;
+    }
+
+    @Override
+    public void pauseOutput() {
+    }
+
+    @Override
+    public void printMessage(String message) {
+        output.add(message);
+    }
+
+    @Override
+    public void printMessage(String message, boolean noLineFeed) {
+        output.add(message);
+    }
+
+    @Override
+    public void printErrorMessage(String message) {
+        output.add(message);
+    }
+
+    @Override
+    public void printBlankLine() {
+    }
+
+    @Override
+    public void printBlankLines(int numberOfLines) {
+    }
+
+    @Override
+    public void printDivider() {
+    }
+
+    @Override
+    public void printBanner(TextEffect effect, String message) {
+        output.add(message);
+    }
+
+    @Override
+    public void printBulletedItems(String[] items) {
+        output.addAll(Arrays.asList(items));
+    }
+
+    @Override
+    public String getMenuSelection(String[] options) {
+        return getMenuSelection(options, false);
+    }
+
+    @Override
+    public String getMenuSelection(String[] options, boolean allowNullResponse) {
+        Integer index = getMenuSelectionIndex(options, allowNullResponse);
+        return index == null ? null : options[index];
+    }
+
+    @Override
+    public Integer getMenuSelectionIndex(String[] options, boolean allowNullResponse) {
+        Integer selection = promptForInteger("");
+        return selection == null || selection < 1 || selection > options.length ? null : selection - 1;
+    }
+
+    @Override
+    public String promptForString(String prompt) {
+        if (firstPromptNanos == 0) {
+            firstPromptNanos = System.nanoTime();
+        }
+        output.add(prompt);
+        return script.isEmpty() ? "" : script.poll();
+    }
+
+    @Override
+    public boolean promptForYesNo(String prompt) {
+        return promptForString(prompt).toLowerCase().startsWith("y");
+    }
+
+    @Override
+    public Integer promptForInteger(String prompt) {
+        String entry = promptForString(prompt);
+        return entry.isBlank() ? null : Integer.valueOf(entry.trim());
+    }
+
+    @Override
+    public Double promptForDouble(String prompt) {
+        String entry = promptForString(prompt);
+        return entry.isBlank() ? null : Double.valueOf(entry.trim());
+    }
+
+    @Override
+    public BigDecimal promptForBigDecimal(String prompt) {
+        String entry = promptForString(prompt);
+        return entry.isBlank() ? null : new BigDecimal(entry.trim());
+    }
+
+    @Override
+    public LocalDate promptForLocalDate(String prompt) {
+        String entry = promptForString(prompt);
+        return entry.isBlank() ? null : LocalDate.parse(entry.trim());
+    }
+}
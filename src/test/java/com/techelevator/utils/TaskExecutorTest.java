@@ -0,0 +1,111 @@
+package com.techelevator.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class TaskExecutorTest {
+
+    @Test
+    public void poolRunsNoMoreThanItsThreadsAtOnce() {
+        TaskExecutor executor = TaskExecutor.create(TaskExecutor.POOL, 4, 1000);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger mostRunning = new AtomicInteger();
+        AtomicInteger ran = new AtomicInteger();
+        long submittedBefore = ClientMetrics.get(TaskExecutor.SUBMITTED_METRIC);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 100; ++i) {
+            futures.add(executor.run(() -> {
+                mostRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(2);
+                running.decrementAndGet();
+                ran.incrementAndGet();
+            }));
+        }
+        futures.forEach(CompletableFuture::join);
+
+        assertTrue("ran " + mostRunning.get() + " at once", mostRunning.get() <= 4);
+        assertEquals(100, ran.get());
+        assertTrue(ClientMetrics.get(TaskExecutor.SUBMITTED_METRIC) - submittedBefore >= 100);
+        assertEquals(0, executor.getQueuedCount());
+        executor.shutdown();
+    }
+
+    @Test
+    public void fullPoolRunsTasksOnTheSubmitter() throws InterruptedException {
+        TaskExecutor executor = TaskExecutor.create(TaskExecutor.POOL, 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        long callerRanBefore = ClientMetrics.get(TaskExecutor.CALLER_RAN_METRIC);
+
+        executor.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> { });
+        assertEquals(1, executor.getActiveCount());
+        assertEquals(1, executor.getQueuedCount());
+
+        Thread[] ranOn = new Thread[1];
+        executor.execute(() -> ranOn[0] = Thread.currentThread());
+
+        assertSame(Thread.currentThread(), ranOn[0]);
+        assertEquals(1, ClientMetrics.get(TaskExecutor.CALLER_RAN_METRIC) - callerRanBefore);
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    public void virtualThreadsFallBackToThePool() {
+        TaskExecutor executor = TaskExecutor.create(TaskExecutor.VIRTUAL, 8, 100);
+
+        if (TaskExecutor.isVirtualThreadSupported()) {
+            assertEquals("a virtual thread per task", executor.getName());
+        } else {
+            assertEquals("a pool of up to 8 threads with a queue of 100", executor.getName());
+        }
+        assertEquals("done", executor.supply(() -> "done").join());
+        executor.shutdown();
+    }
+
+    @Test
+    public void sharedExecutorIsKeptWhenTheSettingsAreUnchanged() {
+        TaskExecutor first = TaskExecutor.configure(TaskExecutor.POOL, 16, 500);
+
+        assertSame(first, TaskExecutor.configure("POOL", 16, 500));
+        assertSame(first, TaskExecutor.shared());
+
+        TaskExecutor second = TaskExecutor.configure(TaskExecutor.POOL, 8, 500);
+        assertNotSame(first, second);
+        assertSame(second, TaskExecutor.shared());
+        assertEquals("ran", second.supply(() -> "ran").join());
+    }
+
+
+    // ***** Helper Methods ***************************************************
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.techelevator.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TracerTest {
+
+    @Test
+    public void spansAreNotRecordedWhenOff() {
+        assertFalse(Tracer.isEnabled());
+        Tracer.Span first = Tracer.span("http", "GET games");
+        Tracer.Span second = Tracer.span("json", "deserialize");
+        assertSame(first, second);
+        first.close();
+        assertNull(Tracer.getFile());
+    }
+
+    @Test
+    public void spansAreWrittenAsTraceEvents() throws IOException, InterruptedException {
+        Path file = Files.createTempDirectory("trace").resolve("trace.json");
+        Tracer.start(file);
+        try {
+            assertTrue(Tracer.isEnabled());
+            Tracer.run("action", "Play Daily Game", () -> Tracer.run("http", "GET games/today", () -> Thread.sleep(2)));
+            Thread worker = new Thread(() -> Tracer.span("render", "TextGrid").close(), "worker");
+            worker.start();
+            worker.join();
+        } finally {
+            Tracer.stop();
+        }
+        assertFalse(Tracer.isEnabled());
+
+        JsonNode events = new ObjectMapper().readTree(file.toFile());
+        List<String> names = new ArrayList<>();
+        List<String> threadNames = new ArrayList<>();
+        for (JsonNode event : events) {
+            if (event.path("ph").asText().equals("X")) {
+                names.add(event.path("name").asText());
+                assertTrue(event.path("dur").asDouble() >= 0);
+            } else {
+                threadNames.add(event.path("args").path("name").asText());
+            }
+        }
+        assertEquals(List.of("GET games/today", "Play Daily Game", "TextGrid"), names);
+        assertTrue(threadNames.contains("worker"));
+
+        JsonNode request = events.get(1);
+        JsonNode action = events.get(2);
+        assertTrue(request.path("ts").asDouble() >= action.path("ts").asDouble());
+        assertTrue(request.path("dur").asDouble() >= 2000);
+        assertTrue(action.path("dur").asDouble() >= request.path("dur").asDouble());
+    }
+}